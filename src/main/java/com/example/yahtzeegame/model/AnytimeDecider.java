@@ -0,0 +1,466 @@
+package com.example.yahtzeegame.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * *********************************************************************
+ * Class Name: AnytimeDecider
+ * Purpose: Gives help within a time budget. The heuristic help is worked out
+ * first, so there is always an answer, and its time counts against the
+ * budget; deeper searches then refine it on a worker thread, and when the
+ * deadline hits the best answer found so far is returned and the worker is
+ * cancelled. A Monte Carlo refinement stops before its next rollout, so it
+ * does not compete with later decisions; a single refinement of any other
+ * strategy runs to its end. With the heuristic
+ * strategy the refinements are Monte Carlo searches with twice the rollouts
+ * each time; with a Monte Carlo strategy they are that strategy with twice the
+ * rollouts each time; any other strategy is a single refinement. The decider
+ * counts decisions, deadlines hit and the depth and rollouts reached, for
+ * profiling. The statistics methods are synchronized.
+ * *********************************************************************
+ */
+public final class AnytimeDecider {
+    // Rollouts of the first Monte Carlo refinement; each refinement doubles them
+    public static final int FIRST_SAMPLES = 256;
+
+    // Rollouts after which no deeper refinement is tried
+    public static final int MAX_SAMPLES = 1 << 20;
+
+    // Runs the refinements; daemon threads, so a search left running never keeps the app alive
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "AnytimeDecider");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long seed;
+    private long decisions;
+    private long deadlineHits;
+    private long totalDepth;
+    private long totalSamples;
+    private int lastDepth;
+    private int lastSamples;
+
+    /**
+     * *********************************************************************
+     * Class Name: Result
+     * Purpose: The best help found so far, with the depth and rollouts of the
+     * search that found it.
+     * *********************************************************************
+     */
+    private static final class Result {
+        final Help help;
+        final int depth;
+        final int samples;
+
+        Result(Help help, int depth, int samples) {
+            this.help = help;
+            this.depth = depth;
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: AnytimeDecider
+     * Purpose: Creates a decider with a random seed for its Monte Carlo
+     * searches.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Draw the seed from a new SplittableRandom.
+     * Reference: None.
+     *********************************************************************
+     */
+    public AnytimeDecider() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: AnytimeDecider
+     * Purpose: Creates a decider with a given seed for its Monte Carlo searches.
+     * Parameters:
+     * - seed (long): The seed of the Monte Carlo refinements of the heuristic
+     * strategy.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Store the seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public AnytimeDecider(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Provides the best help a strategy can find within a time budget.
+     * Parameters:
+     * - strategy (Strategy): The strategy of the computer; if it is a
+     * MeteredStrategy, every search is recorded in its meters.
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * - timeBudget (Duration): The most time to spend (not negative).
+     * Return Value: The help of the deepest search finished before the
+     * deadline, or the heuristic help if none finished; with no rolls left, the
+     * category the strategy selects.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the budget is negative. Unwrap a
+     * metered strategy to pick the refinements.
+     * 2. With no rolls left every die is kept whatever the search, so stand on
+     * the category the strategy selects, at depth 0.
+     * 3. Otherwise, work out the heuristic help as depth 0; if it used up the
+     * budget, the deadline is counted and nothing is refined.
+     * 4. Otherwise, start the refinements on a worker thread; each finished search
+     * replaces the best result.
+     * 5. Wait for the worker until the deadline. If it hits, set the cancel flag
+     * the Monte Carlo refinements check, cancel the worker and count the
+     * deadline.
+     * 6. Record the depth and rollouts of the best result and return its help.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Help getHelp(Strategy strategy, ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls,
+            int rollsLeft, Duration timeBudget) {
+        if (timeBudget == null || timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+        }
+        long deadline = System.nanoTime() + toNanos(timeBudget);
+        // The worker may outlive the call, so it gets its own copies of the dice
+        List<Integer> kept = new ArrayList<>(keptDice);
+        List<Integer> rolled = new ArrayList<>(diceRolls);
+
+        MeteredStrategy metered = strategy instanceof MeteredStrategy ? (MeteredStrategy) strategy : null;
+        Strategy plain = metered != null ? metered.getDelegate() : strategy;
+
+        if (rollsLeft == 0) {
+            Optional<Category> category = strategy.getCategorySelection(scoreCard,
+                    helperFunctions.concatenate(kept, rolled));
+            Result result = new Result(new Help(rolled, category.orElse(null), true), 0, 0);
+            record(result, false);
+            return result.help;
+        }
+
+        AtomicReference<Result> best = new AtomicReference<>(new Result(
+                meter(metered, HeuristicStrategy.INSTANCE).getHelp(scoreCard, kept, rolled, rollsLeft), 0, 0));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        boolean deadlineHit = System.nanoTime() >= deadline;
+        if (!deadlineHit) {
+            Future<?> worker = WORKERS.submit(() -> {
+                try {
+                    for (int depth = 1; !cancelled.get(); depth++) {
+                        Strategy refinement = getRefinement(plain, depth, cancelled);
+                        if (refinement == null) {
+                            return;
+                        }
+                        Help help = meter(metered, refinement).getHelp(scoreCard, kept, rolled, rollsLeft);
+                        int samples = refinement instanceof MonteCarloStrategy
+                                ? ((MonteCarloStrategy) refinement).getSamples()
+                                : 0;
+                        best.set(new Result(help, depth, samples));
+                    }
+                } catch (CancellationException e) {
+                    // The deadline hit during a Monte Carlo refinement; its result is not needed
+                }
+            });
+            deadlineHit = await(worker, deadline);
+            cancelled.set(true);
+            worker.cancel(true);
+        }
+
+        Result result = best.get();
+        record(result, deadlineHit);
+        return result.help;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDecisions
+     * Purpose: Returns the number of decisions made.
+     * Parameters: None.
+     * Return Value: The decision count.
+     * Algorithm:
+     * 1. Return the counter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDeadlineHits
+     * Purpose: Returns the number of decisions cut short by the deadline.
+     * Parameters: None.
+     * Return Value: The deadline count.
+     * Algorithm:
+     * 1. Return the counter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized long getDeadlineHits() {
+        return deadlineHits;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDeadlineRate
+     * Purpose: Returns the share of decisions cut short by the deadline.
+     * Parameters: None.
+     * Return Value: Deadlines over decisions, or 0 before the first decision.
+     * Algorithm:
+     * 1. Divide the deadlines by the decisions.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized double getDeadlineRate() {
+        return decisions == 0 ? 0 : (double) deadlineHits / decisions;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMeanDepth
+     * Purpose: Returns the mean depth of the searches the decisions came from.
+     * Parameters: None.
+     * Return Value: The mean depth, 0 being the heuristic help, or 0 before
+     * the first decision.
+     * Algorithm:
+     * 1. Divide the total depth by the decisions.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized double getMeanDepth() {
+        return decisions == 0 ? 0 : (double) totalDepth / decisions;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMeanSamples
+     * Purpose: Returns the mean rollouts of the searches the decisions came
+     * from.
+     * Parameters: None.
+     * Return Value: The mean rollouts, or 0 before the first decision.
+     * Algorithm:
+     * 1. Divide the total rollouts by the decisions.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized double getMeanSamples() {
+        return decisions == 0 ? 0 : (double) totalSamples / decisions;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getLastDepth
+     * Purpose: Returns the depth of the search the last decision came from.
+     * Parameters: None.
+     * Return Value: The depth, 0 being the heuristic help.
+     * Algorithm:
+     * 1. Return the stored depth.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getLastSamples
+     * Purpose: Returns the rollouts of the search the last decision came from.
+     * Parameters: None.
+     * Return Value: The rollouts, 0 if the search was not a Monte Carlo one.
+     * Algorithm:
+     * 1. Return the stored rollouts.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized int getLastSamples() {
+        return lastSamples;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: reset
+     * Purpose: Sets the statistics back to 0.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Clear every counter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized void reset() {
+        decisions = 0;
+        deadlineHits = 0;
+        totalDepth = 0;
+        totalSamples = 0;
+        lastDepth = 0;
+        lastSamples = 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toString
+     * Purpose: Describes the statistics for logs and profiling.
+     * Parameters: None.
+     * Return Value: The counters, deadline rate and means.
+     * Algorithm:
+     * 1. Format the statistics.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ROOT, "AnytimeDecider[decisions=%d, deadlineHits=%d (%.1f%%), meanDepth=%.2f, meanSamples=%.0f]",
+                decisions, deadlineHits, getDeadlineRate() * 100, getMeanDepth(), getMeanSamples());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRefinement
+     * Purpose: Returns the search of a refinement depth.
+     * Parameters:
+     * - strategy (Strategy): The strategy of the computer.
+     * - depth (int): The refinement depth (at least 1).
+     * - cancelled (AtomicBoolean): The flag that stops the Monte Carlo searches.
+     * Return Value: The strategy to search with, or null if there is no deeper
+     * search.
+     * Algorithm:
+     * 1. For the heuristic or a Monte Carlo strategy, double the rollouts from
+     * FIRST_SAMPLES with each depth, up to MAX_SAMPLES; a Monte Carlo strategy
+     * keeps its horizon, streams and seed. The searches check the cancel flag.
+     * 2. Any other strategy is the only refinement, at depth 1.
+     * Reference: None.
+     *********************************************************************
+     */
+    private Strategy getRefinement(Strategy strategy, int depth, AtomicBoolean cancelled) {
+        boolean deepening = strategy == HeuristicStrategy.INSTANCE || strategy instanceof MonteCarloStrategy;
+        if (!deepening) {
+            return depth == 1 ? strategy : null;
+        }
+        if (depth > Integer.numberOfTrailingZeros(MAX_SAMPLES / FIRST_SAMPLES) + 1) {
+            return null;
+        }
+        int samples = FIRST_SAMPLES << (depth - 1);
+        if (strategy instanceof MonteCarloStrategy) {
+            MonteCarloStrategy monteCarlo = (MonteCarloStrategy) strategy;
+            return new MonteCarloStrategy(monteCarlo.getHorizon(), samples, monteCarlo.getStreams(),
+                    monteCarlo.getSeed(), cancelled);
+        }
+        return new MonteCarloStrategy(MonteCarloStrategy.Horizon.GAME, samples,
+                Runtime.getRuntime().availableProcessors(), seed, cancelled);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: meter
+     * Purpose: Measures a search in the meters of the computer's strategy.
+     * Parameters:
+     * - metered (MeteredStrategy): The metered strategy of the computer, or
+     * null if it is not metered.
+     * - search (Strategy): The search to run.
+     * Return Value: The search, recording its calls in the meters if there
+     * are any.
+     * Algorithm:
+     * 1. Share the meters with the search if the strategy is metered.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static Strategy meter(MeteredStrategy metered, Strategy search) {
+        return metered != null ? metered.sharingMeters(search) : search;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: await
+     * Purpose: Waits for the refinements until the deadline.
+     * Parameters:
+     * - worker (Future<?>): The running refinements.
+     * - deadline (long): The System.nanoTime of the deadline.
+     * Return Value: True if the deadline hit before the refinements finished.
+     * Algorithm:
+     * 1. Wait for the worker for the time left.
+     * 2. A timeout or an interrupt counts as the deadline; the interrupt flag is
+     * kept.
+     * 3. An exception thrown by a refinement is thrown again.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static boolean await(Future<?> worker, long deadline) {
+        try {
+            worker.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return false;
+        } catch (TimeoutException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Search failed", e.getCause());
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: record
+     * Purpose: Adds a decision to the statistics.
+     * Parameters:
+     * - result (Result): The result the decision came from.
+     * - deadlineHit (boolean): True if the deadline hit.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Update the counters and the last depth and rollouts.
+     * Reference: None.
+     *********************************************************************
+     */
+    private synchronized void record(Result result, boolean deadlineHit) {
+        decisions++;
+        if (deadlineHit) {
+            deadlineHits++;
+        }
+        totalDepth += result.depth;
+        totalSamples += result.samples;
+        lastDepth = result.depth;
+        lastSamples = result.samples;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toNanos
+     * Purpose: Converts a budget to nanoseconds without overflowing.
+     * Parameters:
+     * - timeBudget (Duration): The budget (not negative).
+     * Return Value: The budget in nanoseconds, capped at a century.
+     * Algorithm:
+     * 1. Cap the budget before converting it.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static long toNanos(Duration timeBudget) {
+        Duration century = Duration.ofDays(36525);
+        return (timeBudget.compareTo(century) > 0 ? century : timeBudget).toNanos();
+    }
+}
@@ -15,10 +15,13 @@ public class App {
      * the game loop until the game is over.
      * Parameters:
      * - args: An array of String arguments passed to the program from the command
-     * line (passed by reference, not modified).
+     * line (passed by reference, not modified). The optional first argument is
+     * the path of the expectimax table file.
      * Return Value: None.
      * Algorithm:
-     * 1. Create instances of Human and Computer objects.
+     * 1. Create instances of Human and Computer objects. If a table file is
+     * given, the computer uses the expectimax strategy with the table in that
+     * file, solving and saving it first if needed.
      * 2. Create a list of Player objects, containing the human and computer
      * players.
      * 3. Create a Game object, passing in a new ScoreCard, a starting round of 1,
@@ -26,17 +29,19 @@ public class App {
      * 4. Print a welcome message.
      * 5. Check if the user wants to load a previously saved game.
      * 6. If the user wants to load a game, get the serialized game data,
-     * deserialize it, and reinitialize the game object.
+     * deserialize it with the same computer, and reinitialize the game object.
      * 7. Enter the game loop, playing rounds until the game is over.
      * 8. After each round, save the current state of the game by serializing the
      * game data.
      * Reference: None.
      * *********************************************************************
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Create instances of Human and Computer objects.
         Human human = new Human();
-        Computer computer = new Computer();
+        Computer computer = args.length > 0
+                ? new Computer(new ExpectimaxStrategy(ExpectimaxTable.openOrBuild(new File(args[0]))))
+                : new Computer();
 
         // Create a list of Player objects, containing the human and computer players.
         List<Player> players = new ArrayList<>();
@@ -56,8 +61,8 @@ public class App {
             String serial = ioFunctions.getSerial();
 
             // Deserialize the game data and reinitialize the game object to restore the
-            // previous state.
-            game = Game.deserialize(serial);
+            // previous state, keeping the computer chosen above.
+            game = Game.deserialize(serial, computer);
         }
 
         // Game loop: continue playing rounds until the game is over.
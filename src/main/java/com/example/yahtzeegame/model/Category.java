@@ -49,6 +49,9 @@ public enum Category {
             FIVE_STRAIGHT,
             YAHTZEE);
 
+    // Mask with the bit of every category set (bit i belongs to the category with ordinal i)
+    public static final int ALL_CATEGORIES_MASK = (1 << 12) - 1;
+
     static {
         for (Map.Entry<Category, String> entry : CATEGORY_NAMES.entrySet()) {
             DISPLAY_NAME_TO_ENUM.put(entry.getValue(), entry.getKey());
@@ -79,6 +82,146 @@ public enum Category {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: getApplicableMask
+     * Purpose: To get the categories that are applicable to the dice rolled as a
+     * bitmask.
+     * Parameters:
+     * - dice: A list of integers representing the dice rolled (passed by reference,
+     * not modified).
+     * Return Value: A mask where bit i is set if the category with ordinal i is
+     * applicable.
+     * Algorithm:
+     * 1. If the dice are a five-dice roll, read the mask from the score table.
+     * 2. Otherwise, check every category with the helper functions.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static int getApplicableMask(List<Integer> dice) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return ScoreTable.getApplicableMask(rollId);
+        }
+        int mask = 0;
+        for (Category category : CATEGORIES) {
+            if (evaluateApplicable(dice, category)) {
+                mask |= category.getMask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getApplicableMask
+     * Purpose: To get the categories that are applicable to dice given as a
+     * histogram as a bitmask.
+     * Parameters:
+     * - dice: A DiceHistogram of the dice rolled.
+     * Return Value: A mask where bit i is set if the category with ordinal i is
+     * applicable.
+     * Algorithm:
+     * 1. If the dice are a five-dice roll, read the mask from the score table.
+     * 2. Otherwise, compute the mask from the dice as a list.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static int getApplicableMask(DiceHistogram dice) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return ScoreTable.getApplicableMask(rollId);
+        }
+        return getApplicableMask(dice.toList());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: scoreRolls
+     * Purpose: To score a batch of rolls against a set of categories into a
+     * primitive score matrix.
+     * Parameters:
+     * - rollIds: The ScoreTable roll ids to score (passed by reference, not
+     * modified).
+     * - count: The number of roll ids to read from the array.
+     * - categoryMask: The categories to score (bit i = ordinal i).
+     * - scores: The output matrix of at least count * 12 entries, filled as
+     * scores[i * 12 + ordinal]; categories outside the mask get 0.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Check that the arrays are large enough.
+     * 2. Fill the matrix from the score table.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static void scoreRolls(int[] rollIds, int count, int categoryMask, int[] scores) {
+        if (count > rollIds.length || scores.length < count * ScoreTable.NUM_CATEGORIES) {
+            throw new IllegalArgumentException("Arrays are too small for " + count + " rolls");
+        }
+        ScoreTable.scoreRolls(rollIds, count, categoryMask, scores);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: topRolls
+     * Purpose: To find the rolls of a batch with the highest score in any of a set
+     * of categories.
+     * Parameters:
+     * - rollIds: The ScoreTable roll ids to score (passed by reference, not
+     * modified).
+     * - count: The number of roll ids to read from the array.
+     * - categoryMask: The categories to score (bit i = ordinal i).
+     * - topIndices: Filled with the indices into rollIds of the best rolls, best
+     * first; its length is the number of rolls wanted.
+     * - topScores: Filled with the best score of each of those rolls; at least as
+     * long as topIndices.
+     * Return Value: The number of rolls written, the smaller of count and
+     * topIndices.length.
+     * Algorithm:
+     * 1. Compute the best score of each roll in the mask.
+     * 2. Insert it into the sorted top list if it beats the last entry, so that
+     * rolls with equal scores keep their order in the batch.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static int topRolls(int[] rollIds, int count, int categoryMask, int[] topIndices, int[] topScores) {
+        if (count > rollIds.length || topScores.length < topIndices.length) {
+            throw new IllegalArgumentException("Arrays are too small for " + count + " rolls");
+        }
+        int k = topIndices.length;
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int score = ScoreTable.getBestScore(rollIds[i], categoryMask);
+            if (size == k && (k == 0 || score <= topScores[k - 1])) {
+                continue;
+            }
+            int position = size < k ? size++ : k - 1;
+            while (position > 0 && topScores[position - 1] < score) {
+                topScores[position] = topScores[position - 1];
+                topIndices[position] = topIndices[position - 1];
+                position--;
+            }
+            topScores[position] = score;
+            topIndices[position] = i;
+        }
+        return size;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMask
+     * Purpose: To get the bit of this category in a category mask.
+     * Parameters: None.
+     * Return Value: An integer with only the bit of this category set.
+     * Algorithm:
+     * 1. Shift 1 left by the ordinal of the category.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
     /**
      * *********************************************************************
      * Function Name: getScore
@@ -92,6 +235,107 @@ public enum Category {
      * Return Value: An integer representing the score for the given dice and
      * category.
      * Algorithm:
+     * 1. Look up the canonical id of the roll in the score table.
+     * 2. If the dice are a five-dice roll, return the precomputed score.
+     * 3. Otherwise, calculate the score with the helper functions.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static int getScore(List<Integer> dice, Category category) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return ScoreTable.getScore(rollId, category);
+        }
+        return evaluateScore(dice, category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isApplicableCategory
+     * Purpose: To check if a given category is applicable based on the rolled dice.
+     * Parameters:
+     * - dice: A list of integers representing the dice rolled (passed by reference,
+     * not modified).
+     * - category: The Category object to check for applicability (passed by
+     * reference, not modified).
+     * Return Value: A boolean indicating whether the category is applicable based
+     * on the dice rolled.
+     * Algorithm:
+     * 1. Look up the canonical id of the roll in the score table.
+     * 2. If the dice are a five-dice roll, return the precomputed applicability.
+     * 3. Otherwise, check the category with the helper functions.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static boolean isApplicableCategory(List<Integer> dice, Category category) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return ScoreTable.isApplicable(rollId, category);
+        }
+        return evaluateApplicable(dice, category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getScore
+     * Purpose: To calculate the score of dice given as a histogram in a category.
+     * Parameters:
+     * - dice: A DiceHistogram of the dice rolled.
+     * - category: The Category object for which the score needs to be calculated.
+     * Return Value: An integer representing the score for the given dice and
+     * category.
+     * Algorithm:
+     * 1. Look up the roll id of the histogram in the score table.
+     * 2. If the dice are a five-dice roll, return the precomputed score.
+     * 3. Otherwise, score the dice as a list.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static int getScore(DiceHistogram dice, Category category) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return ScoreTable.getScore(rollId, category);
+        }
+        return evaluateScore(dice.toList(), category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isApplicableCategory
+     * Purpose: To check if a category is applicable to dice given as a histogram.
+     * Parameters:
+     * - dice: A DiceHistogram of the dice rolled.
+     * - category: The Category object to check for applicability.
+     * Return Value: A boolean indicating whether the category is applicable.
+     * Algorithm:
+     * 1. Look up the roll id of the histogram in the score table.
+     * 2. If the dice are a five-dice roll, return the precomputed applicability.
+     * 3. Otherwise, check the dice as a list.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static boolean isApplicableCategory(DiceHistogram dice, Category category) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return ScoreTable.isApplicable(rollId, category);
+        }
+        return evaluateApplicable(dice.toList(), category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: evaluateScore
+     * Purpose: To calculate the score based on the rolled dice and the selected
+     * category without the score table. Used to build the table and for dice
+     * that are not a five-dice roll.
+     * Parameters:
+     * - dice: A list of integers representing the dice rolled (passed by reference,
+     * not modified).
+     * - category: The Category object for which the score needs to be calculated
+     * (passed by reference, not modified).
+     * Return Value: An integer representing the score for the given dice and
+     * category.
+     * Algorithm:
      * 1. Check if the category is applicable based on the dice rolled.
      * 2. If not applicable, return a score of 0.
      * 3. If applicable, calculate the score based on the category using helper
@@ -100,8 +344,8 @@ public enum Category {
      * Reference: None.
      * *********************************************************************
      */
-    public static int getScore(List<Integer> dice, Category category) {
-        if (!isApplicableCategory(dice, category)) {
+    static int evaluateScore(List<Integer> dice, Category category) {
+        if (!evaluateApplicable(dice, category)) {
             return 0;
         }
 
@@ -119,17 +363,17 @@ public enum Category {
             case SIXES:
                 return helperFunctions.countN(dice, 6) * 6;
             case THREE_OF_A_KIND:
-                return isApplicableCategory(dice, Category.THREE_OF_A_KIND) ? helperFunctions.sum(dice) : 0;
+                return evaluateApplicable(dice, Category.THREE_OF_A_KIND) ? helperFunctions.sum(dice) : 0;
             case FOUR_OF_A_KIND:
-                return isApplicableCategory(dice, Category.FOUR_OF_A_KIND) ? helperFunctions.sum(dice) : 0;
+                return evaluateApplicable(dice, Category.FOUR_OF_A_KIND) ? helperFunctions.sum(dice) : 0;
             case FULL_HOUSE:
-                return isApplicableCategory(dice, Category.FULL_HOUSE) ? 25 : 0;
+                return evaluateApplicable(dice, Category.FULL_HOUSE) ? 25 : 0;
             case FOUR_STRAIGHT:
-                return isApplicableCategory(dice, Category.FOUR_STRAIGHT) ? 30 : 0;
+                return evaluateApplicable(dice, Category.FOUR_STRAIGHT) ? 30 : 0;
             case FIVE_STRAIGHT:
-                return isApplicableCategory(dice, Category.FIVE_STRAIGHT) ? 40 : 0;
+                return evaluateApplicable(dice, Category.FIVE_STRAIGHT) ? 40 : 0;
             case YAHTZEE:
-                return isApplicableCategory(dice, Category.YAHTZEE) ? 50 : 0;
+                return evaluateApplicable(dice, Category.YAHTZEE) ? 50 : 0;
             default:
                 return 0;
         }
@@ -137,8 +381,9 @@ public enum Category {
 
     /**
      * *********************************************************************
-     * Function Name: isApplicableCategory
-     * Purpose: To check if a given category is applicable based on the rolled dice.
+     * Function Name: evaluateApplicable
+     * Purpose: To check if a given category is applicable based on the rolled dice
+     * without the score table.
      * Parameters:
      * - dice: A list of integers representing the dice rolled (passed by reference,
      * not modified).
@@ -154,7 +399,7 @@ public enum Category {
      * Reference: None.
      * *********************************************************************
      */
-    public static boolean isApplicableCategory(List<Integer> dice, Category category) {
+    static boolean evaluateApplicable(List<Integer> dice, Category category) {
         switch (category) {
             case YAHTZEE:
                 return helperFunctions.atleastNSame(dice, 5);
@@ -197,6 +442,34 @@ public enum Category {
      * Return Value: A boolean indicating whether the category is possible based on
      * the dice rolled.
      * Algorithm:
+     * 1. If the dice are at most five valid dice, look up whether the category
+     * applies to any final roll in the PursuitTable.
+     * 2. Otherwise, estimate it from the dice rolled and slots left.
+     * Reference: None.
+     * *********************************************************************
+     */
+    public static boolean isPossibleCategory(List<Integer> dice, Category category) {
+        int key = ScoreTable.packKey(dice);
+        int keptId = key < 0 ? -1 : DiceCatalogue.getIdForKey(key);
+        if (keptId >= 0) {
+            return PursuitTable.isReachable(keptId, category);
+        }
+        return estimatePossible(dice, category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: estimatePossible
+     * Purpose: To estimate if a category is possible based on the rolled dice
+     * with rules of thumb, for dice that are not in the PursuitTable.
+     * Parameters:
+     * - dice: A list of integers representing the dice rolled (passed by reference,
+     * not modified).
+     * - category: The Category object to check for possibility (passed by
+     * reference, not modified).
+     * Return Value: A boolean indicating whether the category is possible based on
+     * the dice rolled.
+     * Algorithm:
      * 1. Check if the dice list is empty; if so, return true.
      * 2. Calculate the number of slots left to roll.
      * 3. Use a switch statement to check the category.
@@ -206,7 +479,7 @@ public enum Category {
      * Reference: None.
      * *********************************************************************
      */
-    public static boolean isPossibleCategory(List<Integer> dice, Category category) {
+    static boolean estimatePossible(List<Integer> dice, Category category) {
         if (dice.isEmpty())
             return true;
         int slotsLeft = 5 - dice.size();
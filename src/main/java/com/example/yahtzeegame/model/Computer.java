@@ -1,15 +1,35 @@
 package com.example.yahtzeegame.model;
 
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class Computer extends Player {
+    // Decides which dice to keep and which category to score; not serialized, see getStrategy
+    private final transient Strategy strategy;
+
+    // Measures every call to the strategy; not serialized, see getMeteredStrategy
+    private transient MeteredStrategy meteredStrategy;
+
+    // Help for recent positions; not serialized, see getHelpCache
+    private transient HelpCache helpCache;
+
+    // Most time a decision may take, or null for no limit; not serialized
+    private transient Duration timeBudget;
+
+    // Makes the decisions with a time budget; not serialized, see getAnytimeDecider
+    private transient AnytimeDecider anytimeDecider;
+
+    // Whether the computer goes first in the round being played, or null if no game has said;
+    // not serialized
+    private transient Boolean movesFirst;
 
     // Constructor: Initialize the player with the name "Computer"
     /**
@@ -25,7 +45,213 @@ public class Computer extends Player {
      *********************************************************************
      */
     public Computer() {
-        super("Computer");
+        this(HeuristicStrategy.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: Computer
+     * Purpose: Initializes a new computer player that makes its decisions with a
+     * given strategy.
+     * Parameters:
+     * - strategy (Strategy): The strategy to use, for example an
+     * ExpectimaxStrategy or one created by the StrategyRegistry.
+     * Return Value: None
+     * Algorithm:
+     * 1. Name the player "Computer" and use the strategy.
+     * Reference: None
+     *********************************************************************
+     */
+    public Computer(Strategy strategy) {
+        this("Computer", strategy);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: Computer
+     * Purpose: Initializes a named computer player, for games with more than one
+     * computer, such as headless simulations.
+     * Parameters:
+     * - name (String): The name of the player; players on one scorecard need
+     * different names.
+     * - strategy (Strategy): The strategy to use.
+     * Return Value: None
+     * Algorithm:
+     * 1. Name the player.
+     * 2. Bind the strategy to this player with Strategy.forPlayer.
+     * 3. Keep a metered strategy as given, or wrap any other strategy in a
+     * MeteredStrategy named after its class, and store the wrapped strategy.
+     * Reference: None
+     *********************************************************************
+     */
+    public Computer(String name, Strategy strategy) {
+        super(name);
+        this.meteredStrategy = meter((strategy != null ? strategy : HeuristicStrategy.INSTANCE).forPlayer(this));
+        this.strategy = meteredStrategy.getDelegate();
+        this.helpCache = new HelpCache();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getStrategy
+     * Purpose: Returns the strategy the computer makes its decisions with.
+     * Parameters: None
+     * Return Value: The strategy; the heuristic strategy if the player was
+     * deserialized.
+     * Algorithm:
+     * 1. Return the stored strategy, or HeuristicStrategy.INSTANCE if there is
+     * none.
+     * Reference: None
+     *********************************************************************
+     */
+    public Strategy getStrategy() {
+        return strategy != null ? strategy : HeuristicStrategy.INSTANCE;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMeteredStrategy
+     * Purpose: Returns the strategy with the meters of its calls, for example
+     * to compare the cost of strategies.
+     * Parameters: None
+     * Return Value: The MeteredStrategy every decision goes through; a new one
+     * if the player was deserialized.
+     * Algorithm:
+     * 1. Wrap the strategy if it is not wrapped yet and return it.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized MeteredStrategy getMeteredStrategy() {
+        if (meteredStrategy == null) {
+            meteredStrategy = meter(getStrategy());
+        }
+        return meteredStrategy;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: meter
+     * Purpose: Wraps a strategy so its calls are measured.
+     * Parameters:
+     * - strategy (Strategy): The strategy.
+     * Return Value: The strategy if it is already metered, otherwise a new
+     * MeteredStrategy named after its class.
+     * Algorithm:
+     * 1. Check the type and wrap if needed.
+     * Reference: None
+     *********************************************************************
+     */
+    private static MeteredStrategy meter(Strategy strategy) {
+        return strategy instanceof MeteredStrategy ? (MeteredStrategy) strategy
+                : new MeteredStrategy(strategy.getClass().getSimpleName(), strategy);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelpCache
+     * Purpose: Returns the cache of the help this computer has given, for
+     * example to read its statistics.
+     * Parameters: None
+     * Return Value: The HelpCache; a new one if the player was deserialized.
+     * Algorithm:
+     * 1. Create the cache if there is none and return it.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized HelpCache getHelpCache() {
+        if (helpCache == null) {
+            helpCache = new HelpCache();
+        }
+        return helpCache;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTimeBudget
+     * Purpose: Returns the most time a decision of this computer may take.
+     * Parameters: None
+     * Return Value: The time budget, or null if decisions are not limited.
+     * Algorithm:
+     * 1. Return the stored budget.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: setTimeBudget
+     * Purpose: Limits the time each decision of this computer may take.
+     * Parameters:
+     * - timeBudget (Duration): The budget (not negative), or null for no limit.
+     * Return Value: None
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the budget is negative.
+     * 2. Store the budget; decide then uses it for every decision.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized void setTimeBudget(Duration timeBudget) {
+        if (timeBudget != null && timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMovesFirst
+     * Purpose: Returns the turn position of this computer in the round being
+     * played, for strategies that play differently going first or second.
+     * Parameters: None
+     * Return Value: True if the computer goes first, false if it goes second,
+     * or empty if no game has set it.
+     * Algorithm:
+     * 1. Return the stored position.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized Optional<Boolean> getMovesFirst() {
+        return Optional.ofNullable(movesFirst);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: setMovesFirst
+     * Purpose: Tells the computer its turn position in the round being played.
+     * Parameters:
+     * - movesFirst (boolean): True if the computer goes first in the round.
+     * Return Value: None
+     * Algorithm:
+     * 1. Store the position; Game and SimulationEngine set it before each turn
+     * of the computer.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized void setMovesFirst(boolean movesFirst) {
+        this.movesFirst = movesFirst;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getAnytimeDecider
+     * Purpose: Returns the decider used for decisions with a time budget, for
+     * example to read its statistics.
+     * Parameters: None
+     * Return Value: The AnytimeDecider; a new one if the player was
+     * deserialized.
+     * Algorithm:
+     * 1. Create the decider if there is none and return it.
+     * Reference: None
+     *********************************************************************
+     */
+    public synchronized AnytimeDecider getAnytimeDecider() {
+        if (anytimeDecider == null) {
+            anytimeDecider = new AnytimeDecider();
+        }
+        return anytimeDecider;
     }
 
     /**
@@ -35,15 +261,31 @@ public class Computer extends Player {
      * possible new rolls.
      * Parameters:
      * - keptDice (List<Integer>): List of dice values the player wants to keep.
-     * Return Value: List of all possible final rolls (List<List<Integer>>).
+     * Return Value: List of all possible final rolls (List<List<Integer>>). Each
+     * roll is sorted; rolls looked up in the DiceCatalogue are shared and
+     * read-only.
      * Algorithm:
-     * 1. Calculate all possible combinations of dice for the remaining slots.
-     * 2. Concatenate kept dice with each possible roll.
-     * 3. Sort and add the combined result to the list of possible rolls.
+     * 1. If the kept dice are in the DiceCatalogue, look up the final roll of the
+     * kept dice with each possible roll of the remaining slots.
+     * 2. Otherwise, calculate all possible combinations of dice for the remaining
+     * slots.
+     * 3. Concatenate kept dice with each possible roll.
+     * 4. Sort and add the combined result to the list of possible rolls.
      * Reference: None
      *********************************************************************
      */
     public static List<List<Integer>> generatePossibleFinalRolls(List<Integer> keptDice) {
+        int keptKey = ScoreTable.packKey(keptDice);
+        int keptId = keptKey < 0 ? -1 : DiceCatalogue.getIdForKey(keptKey);
+        if (keptId >= 0) {
+            int numRolls = DiceCatalogue.count(5 - keptDice.size());
+            List<List<Integer>> possibleFinalRolls = new ArrayList<>(numRolls);
+            for (int i = 0; i < numRolls; i++) {
+                possibleFinalRolls.add(DiceCatalogue.getRollDice(DiceCatalogue.getFinalRollId(keptId, i)));
+            }
+            return possibleFinalRolls;
+        }
+
         List<List<Integer>> possibleRolls = helperFunctions.diceCombinations(5 - keptDice.size());
         List<List<Integer>> possibleFinalRolls = new ArrayList<>();
 
@@ -160,14 +402,31 @@ public class Computer extends Player {
      * - keptDice (List<Integer>): Dice already kept from previous rolls.
      * Return Value: List of integers representing the best roll to pursue.
      * Algorithm:
-     * 1. Generate all possible final rolls using the kept dice.
-     * 2. Calculate scores for all possible rolls.
-     * 3. Find the roll that maximizes the score, considering the kept dice.
+     * 1. If the kept dice are in the DiceCatalogue and a category is open, score
+     * the final rolls of the kept dice in one batch and return the first roll
+     * with the highest score. Every final roll differs from the kept dice by
+     * the same number of dice, so no other tie-break applies.
+     * 2. Otherwise, generate all possible final rolls using the kept dice.
+     * 3. Calculate scores for all possible rolls.
+     * 4. Find the roll that maximizes the score, considering the kept dice.
      * Reference: None
      *********************************************************************
      */
 
     public static List<Integer> getBestRoll(ScoreCard scoreCard, List<Integer> keptDice) {
+        int keptKey = ScoreTable.packKey(keptDice);
+        int keptId = keptKey < 0 ? -1 : DiceCatalogue.getIdForKey(keptKey);
+        if (keptId >= 0 && scoreCard.getOpenMask() != 0) {
+            int numRolls = DiceCatalogue.count(5 - keptDice.size());
+            int[] rollIds = new int[numRolls];
+            for (int i = 0; i < numRolls; i++) {
+                rollIds[i] = DiceCatalogue.getFinalRollId(keptId, i);
+            }
+            int[] topIndex = new int[1];
+            scoreCard.topRolls(rollIds, numRolls, topIndex, new int[1]);
+            return DiceCatalogue.getRollDice(rollIds[topIndex[0]]);
+        }
+
         List<List<Integer>> possibleFinalRolls = generatePossibleFinalRolls(keptDice);
         List<Map.Entry<List<Integer>, Integer>> scores = calculateScores(possibleFinalRolls, scoreCard);
         return findBestRoll(scores, keptDice);
@@ -190,11 +449,32 @@ public class Computer extends Player {
      */
     @Override
     public List<Integer> getDiceRoll(int numDice) {
+        return getDiceRoll(numDice, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDiceRoll
+     * Purpose: Gets the dice roll for the computer, rolling automatically with a
+     * given random source.
+     * Parameters:
+     * - numDice (int): Number of dice to roll.
+     * - random (RandomSource): The source of automatic rolls.
+     * Return Value: List of integers representing the rolled dice.
+     * Algorithm:
+     * 1. Check if the human wants to roll for the computer.
+     * 2. If yes, use the base class to handle the roll; otherwise, roll
+     * automatically with the source.
+     * Reference: None
+     *********************************************************************
+     */
+    @Override
+    public List<Integer> getDiceRoll(int numDice, RandomSource random) {
         boolean humanWantsToRoll = ioFunctions.humanWantsToRollForComputer();
         if (humanWantsToRoll) {
-            return super.getDiceRoll(numDice);
+            return super.getDiceRoll(numDice, random);
         }
-        return Dice.rollDice(numDice);
+        return Dice.rollDice(numDice, random);
     }
 
     /**
@@ -207,16 +487,59 @@ public class Computer extends Player {
      * - keptDice (List<Integer>): Dice already kept from previous rolls.
      * Return Value: List of integers representing the dice to keep.
      * Algorithm:
-     * 1. Get assistance using the help function.
-     * 2. Extract and return the dice to keep based on the provided help.
+     * 1. Decide on the roll.
+     * 2. Return the dice to keep of the decision.
      * Reference: None
      *********************************************************************
      */
     @Override
     public List<Integer> getDiceToKeep(ScoreCard scoreCard, List<Integer> diceRolls, List<Integer> keptDice) {
+        return decide(scoreCard, keptDice, diceRolls).getDiceToKeep();
+    }
 
-        Help help = getHelp(scoreCard, keptDice, diceRolls);
-        return help.getDiceToKeep();
+    /**
+     * *********************************************************************
+     * Function Name: getDiceToKeep
+     * Purpose: Determines which dice the computer should keep for the next roll,
+     * with the dice given as histograms.
+     * Deprecated: this assumes a whole turn is still ahead; pass the rolls
+     * left instead.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * Return Value: A DiceHistogram of the dice to keep.
+     * Algorithm:
+     * 1. Get assistance using the help function.
+     * 2. Return the dice to keep as a histogram.
+     * Reference: None
+     *********************************************************************
+     */
+    @Deprecated
+    public DiceHistogram getDiceToKeep(ScoreCard scoreCard, DiceHistogram diceRolls, DiceHistogram keptDice) {
+        return getDiceToKeep(scoreCard, diceRolls, keptDice, Strategy.MAX_ROLLS_LEFT);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDiceToKeep
+     * Purpose: Determines which dice the computer should keep for the next roll,
+     * knowing how many rolls are left in the turn.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: A DiceHistogram of the dice to keep.
+     * Algorithm:
+     * 1. Decide on the roll.
+     * 2. Return the dice to keep as a histogram.
+     * Reference: None
+     *********************************************************************
+     */
+    public DiceHistogram getDiceToKeep(ScoreCard scoreCard, DiceHistogram diceRolls, DiceHistogram keptDice,
+            int rollsLeft) {
+        return DiceHistogram.of(decide(scoreCard, keptDice, diceRolls, rollsLeft).getDiceToKeep());
     }
 
     /**
@@ -229,16 +552,38 @@ public class Computer extends Player {
      * - keptDice (List<Integer>): Dice already kept from previous rolls.
      * Return Value: Optional map of categories to reasons for pursuing them.
      * Algorithm:
-     * 1. Generate all possible final rolls using the kept dice.
-     * 2. For each open category, evaluate the potential score and dice needed.
-     * 3. Populate a map with categories and associated reasons for pursuit.
+     * 1. Find the open categories that are still possible with the kept dice.
+     * 2. If the kept dice are in the DiceCatalogue, look up the minimum and
+     * maximum score of each category and the dice to roll for them in the
+     * PursuitTable, and the expected score and the chance of getting it in the
+     * TransitionTable.
+     * 3. Otherwise, generate all possible final rolls using the kept dice and
+     * evaluate the potential score and dice needed for each category.
+     * 4. Populate a map with categories and associated reasons for pursuit.
      * Reference: None
      *********************************************************************
      */
     @Override
     public Optional<Map<Category, Reason>> getCategoryPursuits(ScoreCard scoreCard, List<Integer> keptDice) {
-        List<List<Integer>> possibleFinalRolls = generatePossibleFinalRolls(keptDice);
         List<Category> possibleCategories = scoreCard.getPossibleCategories(keptDice);
+        int keptKey = ScoreTable.packKey(keptDice);
+        int keptId = keptKey < 0 ? -1 : DiceCatalogue.getIdForKey(keptKey);
+
+        if (keptId >= 0) {
+            Map<Category, Reason> categoryPursuits = new HashMap<>();
+            for (Category category : possibleCategories) {
+                categoryPursuits.put(category, new Reason(keptDice, category,
+                        PursuitTable.getMaxScore(keptId, category),
+                        DiceCatalogue.getDice(PursuitTable.getRollToGetMax(keptId, category)),
+                        PursuitTable.getMinScore(keptId, category),
+                        DiceCatalogue.getDice(PursuitTable.getRollToGetMin(keptId, category)),
+                        TransitionTable.getExpectedScore(keptId, category),
+                        TransitionTable.getHitProbability(keptId, category)));
+            }
+            return Optional.of(categoryPursuits);
+        }
+
+        List<List<Integer>> possibleFinalRolls = generatePossibleFinalRolls(keptDice);
         // write code to print possible categories and possible final rolls
 
         Map<Category, Reason> categoryPursuits = new HashMap<>();
@@ -317,16 +662,60 @@ public class Computer extends Player {
      * - diceRolls (List<Integer>): The current dice rolls.
      * Return Value: Boolean indicating if the computer wants to stop rolling.
      * Algorithm:
-     * 1. Determine dice to keep using the scorecard and current dice rolls.
-     * 2. Compare the dice to keep with the current dice rolls.
-     * 3. If they match, decide to stand; otherwise, continue rolling.
+     * 1. Decide on the roll.
+     * 2. Stand if the decision keeps every rolled die; otherwise, continue
+     * rolling.
      * Reference: None
      *********************************************************************
      */
     @Override
     public boolean wantsToStand(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
-        List<Integer> diceToKeep = getDiceToKeep(scoreCard, diceRolls, keptDice);
-        return helperFunctions.unorderedEqual(diceToKeep, diceRolls);
+        return decide(scoreCard, keptDice, diceRolls).shouldStand();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: wantsToStand
+     * Purpose: Decides whether the computer should stop rolling, with the dice
+     * given as histograms.
+     * Deprecated: this assumes a whole turn is still ahead; pass the rolls
+     * left instead.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * Return Value: Boolean indicating if the computer wants to stop rolling.
+     * Algorithm:
+     * 1. Determine dice to keep using the scorecard and current dice rolls.
+     * 2. Stand if every rolled die is kept.
+     * Reference: None
+     *********************************************************************
+     */
+    @Deprecated
+    public boolean wantsToStand(ScoreCard scoreCard, DiceHistogram keptDice, DiceHistogram diceRolls) {
+        return wantsToStand(scoreCard, keptDice, diceRolls, Strategy.MAX_ROLLS_LEFT);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: wantsToStand
+     * Purpose: Decides whether the computer should stop rolling, knowing how
+     * many rolls are left in the turn.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: Boolean indicating if the computer wants to stop rolling.
+     * Algorithm:
+     * 1. Determine dice to keep using the scorecard and current dice rolls.
+     * 2. Stand if every rolled die is kept.
+     * Reference: None
+     *********************************************************************
+     */
+    public boolean wantsToStand(ScoreCard scoreCard, DiceHistogram keptDice, DiceHistogram diceRolls,
+            int rollsLeft) {
+        return getDiceToKeep(scoreCard, diceRolls, keptDice, rollsLeft).equals(diceRolls);
     }
 
     /**
@@ -338,16 +727,34 @@ public class Computer extends Player {
      * - dice (List<Integer>): The dice to evaluate for scoring.
      * Return Value: The best category for scoring or null if none is applicable.
      * Algorithm:
-     * 1. Retrieve the category with the maximum score for the given dice.
+     * 1. Ask the strategy for the category to score the given dice in.
      * 2. Return the category or null if no valid category exists.
      * Reference: None
      *********************************************************************
      */
     public Category getCategorySelection(ScoreCard scoreCard, List<Integer> dice) {
-        Optional<Category> category = scoreCard.getMaxScoringCategory(dice);
+        Optional<Category> category = getMeteredStrategy().getCategorySelection(scoreCard, dice);
         return category.orElse(null);
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Determines the category for scoring based on dice given as a
+     * histogram.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (DiceHistogram): The dice to evaluate for scoring.
+     * Return Value: The best category for scoring or null if none is applicable.
+     * Algorithm:
+     * 1. Convert the histogram to a sorted list and select a category for it.
+     * Reference: None
+     *********************************************************************
+     */
+    public Category getCategorySelection(ScoreCard scoreCard, DiceHistogram dice) {
+        return getCategorySelection(scoreCard, dice.toList());
+    }
+
     /**
      * *********************************************************************
      * Function Name: wantsHelp
@@ -365,6 +772,27 @@ public class Computer extends Player {
         return false;
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: getHelpString
+     * Purpose: Explains the suggested actions, assuming a whole turn is still
+     * ahead. Deprecated: on a later roll this advises as if more rolls were
+     * left; pass the rolls left instead.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * Return Value: String with a comprehensive recommendation message.
+     * Algorithm:
+     * 1. Explain with the most rolls left.
+     * Reference: None
+     *********************************************************************
+     */
+    @Deprecated
+    public String getHelpString(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
+        return getHelpString(scoreCard, keptDice, diceRolls, Strategy.MAX_ROLLS_LEFT);
+    }
+
     /**
      * *********************************************************************
      * Function Name: getHelpString
@@ -374,19 +802,22 @@ public class Computer extends Player {
      * - scoreCard (ScoreCard): The current scorecard for the game.
      * - keptDice (List<Integer>): Dice already kept from previous rolls.
      * - diceRolls (List<Integer>): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
      * Return Value: String with a comprehensive recommendation message.
      * Algorithm:
-     * 1. Determine dice to keep using the scorecard and dice rolls.
-     * 2. Analyze potential categories and suggest actions for maximizing score.
+     * 1. Decide on the roll once, and read the dice to keep, the pursuits and
+     * the target from the decision.
+     * 2. Analyze potential categories and suggest actions for maximizing score,
+     * with the chance of getting each category on the next roll.
      * 3. Provide a clear explanation of whether to stand or continue rolling.
      * Reference: None
      *********************************************************************
      */
-    public String getHelpString(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
-        List<Integer> diceToKeep = getDiceToKeep(scoreCard, diceRolls, keptDice);
-        List<Integer> helpDice = helperFunctions.concatenate(keptDice, diceToKeep);
-        Optional<Map<Category, Reason>> categoryPursuits = getCategoryPursuits(scoreCard, helpDice);
-        Optional<Map.Entry<Category, List<Integer>>> target = getTarget(scoreCard, helpDice);
+    public String getHelpString(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        Decision decision = decide(scoreCard, keptDice, diceRolls, rollsLeft);
+        List<Integer> diceToKeep = decision.getDiceToKeep();
+        Optional<Map<Category, Reason>> categoryPursuits = decision.getPursuits();
+        Optional<Map.Entry<Category, List<Integer>>> target = decision.getTarget();
 
         StringBuilder helpMessage = new StringBuilder(
                 "You should keep: " + ioFunctions.toStringVector(diceToKeep) + " because:\n");
@@ -397,14 +828,19 @@ public class Computer extends Player {
             if (reason.getMinScore() == 0) {
                 helpMessage.append(" - You can get ").append(Category.CATEGORY_NAMES.get(reason.getPursuedCategory()))
                         .append(" with a score of ").append(reason.getMaxScore()).append(". For example, by rolling ")
-                        .append(ioFunctions.toStringVector(reason.getRollToGetMax())).append("\n");
-                continue;
+                        .append(ioFunctions.toStringVector(reason.getRollToGetMax()));
+            } else {
+                helpMessage.append(" - You can get ").append(Category.CATEGORY_NAMES.get(reason.getPursuedCategory()))
+                        .append(" with a minimum score of ").append(reason.getMinScore()).append(" by getting ")
+                        .append(ioFunctions.toStringVector(reason.getRollToGetMin())).append(" and a maximum score of ")
+                        .append(reason.getMaxScore()).append(" by rolling ")
+                        .append(ioFunctions.toStringVector(reason.getRollToGetMax()));
             }
-            helpMessage.append(" - You can get ").append(Category.CATEGORY_NAMES.get(reason.getPursuedCategory()))
-                    .append(" with a minimum score of ").append(reason.getMinScore()).append(" by getting ")
-                    .append(ioFunctions.toStringVector(reason.getRollToGetMin())).append(" and a maximum score of ")
-                    .append(reason.getMaxScore()).append(" by rolling ")
-                    .append(ioFunctions.toStringVector(reason.getRollToGetMax())).append("\n");
+            if (!Double.isNaN(reason.getHitProbability())) {
+                helpMessage.append(String.format(Locale.US, " (%.1f%% chance, expected score %.1f)",
+                        reason.getHitProbability() * 100, reason.getExpectedScore()));
+            }
+            helpMessage.append("\n");
         }
 
         helpMessage.append("\nConsidering this, your target should be to get ");
@@ -416,7 +852,7 @@ public class Computer extends Player {
             helpMessage.append("None\n");
         }
 
-        if (wantsToStand(scoreCard, keptDice, diceRolls)) {
+        if (decision.shouldStand()) {
             helpMessage.append("You should stand.\n");
         } else {
             helpMessage.append("Do not stand. You should keep rolling.\n");
@@ -432,11 +868,196 @@ public class Computer extends Player {
         return helpMessage.toString();
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: decide
+     * Purpose: Decides on a roll, assuming a whole turn is still ahead.
+     * Deprecated: on a later roll this decides as if more rolls were left;
+     * pass the rolls left instead.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * Return Value: The Decision for the roll.
+     * Algorithm:
+     * 1. Decide with the most rolls left.
+     * Reference: None
+     *********************************************************************
+     */
+    @Deprecated
+    public Decision decide(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
+        return decide(scoreCard, keptDice, diceRolls, Strategy.MAX_ROLLS_LEFT);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: decide
+     * Purpose: Decides on a roll: the dice to keep, the target category,
+     * whether to stand and the expected score of the target.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: The Decision for the roll.
+     * Algorithm:
+     * 1. Decide within the time budget of the computer, which may be no limit.
+     * Reference: None
+     *********************************************************************
+     */
+    public Decision decide(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        return decide(scoreCard, keptDice, diceRolls, rollsLeft, getTimeBudget());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: decide
+     * Purpose: Decides on a roll within a time budget.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * - timeBudget (Duration): The most time to spend (not negative), or null
+     * for no limit.
+     * Return Value: The Decision for the roll.
+     * Algorithm:
+     * 1. With no limit, get help for the roll once, from the cache if it can be.
+     * 2. Otherwise, get the best help the anytime decider finds before the
+     * deadline, measuring its searches in the metered strategy; it depends on
+     * the time taken, so it is not cached.
+     * 3. Wrap the help in a Decision, which works out the rest from it.
+     * Reference: None
+     *********************************************************************
+     */
+    public Decision decide(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft,
+            Duration timeBudget) {
+        Help help = timeBudget == null ? getHelp(scoreCard, keptDice, diceRolls, rollsLeft)
+                : getAnytimeDecider().getHelp(getMeteredStrategy(), scoreCard, keptDice, diceRolls, rollsLeft,
+                        timeBudget);
+        return new Decision(this, scoreCard, keptDice, diceRolls, help);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: decide
+     * Purpose: Decides on a roll, with the dice given as histograms.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: The Decision for the roll.
+     * Algorithm:
+     * 1. Convert the histograms to sorted lists and decide on them.
+     * Reference: None
+     *********************************************************************
+     */
+    public Decision decide(ScoreCard scoreCard, DiceHistogram keptDice, DiceHistogram diceRolls, int rollsLeft) {
+        return decide(scoreCard, keptDice.toList(), diceRolls.toList(), rollsLeft);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Provides advice on which dice to keep, with the dice given as
+     * histograms.
+     * Deprecated: this assumes a whole turn is still ahead; pass the rolls
+     * left instead.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. Convert the histograms to sorted lists and get help for them.
+     * Reference: None
+     *********************************************************************
+     */
+    @Deprecated
+    public Help getHelp(ScoreCard scoreCard, DiceHistogram keptDice, DiceHistogram diceRolls) {
+        return getHelp(scoreCard, keptDice.toList(), diceRolls.toList());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Provides advice on which dice to keep, with the dice given as
+     * histograms and the rolls left in the turn.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (DiceHistogram): Dice already kept from previous rolls.
+     * - diceRolls (DiceHistogram): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. Convert the histograms to sorted lists and get help for them.
+     * Reference: None
+     *********************************************************************
+     */
+    public Help getHelp(ScoreCard scoreCard, DiceHistogram keptDice, DiceHistogram diceRolls, int rollsLeft) {
+        return getHelp(scoreCard, keptDice.toList(), diceRolls.toList(), rollsLeft);
+    }
+
     /**
      * *********************************************************************
      * Function Name: getHelp
+     * Purpose: Provides advice on which dice to keep, assuming a whole turn is
+     * still ahead. Deprecated: on a later roll this advises as if more rolls
+     * were left; pass the rolls left instead.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. Get help with the most rolls left.
+     * Reference: None
+     *********************************************************************
+     */
+    @Deprecated
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
+        return getHelp(scoreCard, keptDice, diceRolls, Strategy.MAX_ROLLS_LEFT);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Provides advice on which dice to keep and the category to pursue.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand. Help for a position seen before is shared and its
+     * dice to keep cannot be modified.
+     * Algorithm:
+     * 1. If the strategy is cacheable and the dice can be packed, look the
+     * position up in the help cache, asking the strategy only on a miss.
+     * 2. Otherwise, ask the strategy for help.
+     * 3. Every call to the strategy goes through its MeteredStrategy.
+     * Reference: None
+     *********************************************************************
+     */
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        Strategy strategy = getMeteredStrategy();
+        long key = HelpCache.key(scoreCard.getOpenMask(), ScoreTable.packKey(keptDice), ScoreTable.packKey(diceRolls),
+                rollsLeft);
+        if (!strategy.isCacheable() || key < 0) {
+            return strategy.getHelp(scoreCard, keptDice, diceRolls, rollsLeft);
+        }
+        return getHelpCache().get(key, () -> strategy.getHelp(scoreCard, keptDice, diceRolls, rollsLeft));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHeuristicHelp
      * Purpose: Provides detailed advice on which dice to keep and the optimal
-     * strategy to pursue.
+     * strategy to pursue, using the heuristic strategy.
      * Parameters:
      * - scoreCard (ScoreCard): The current scorecard for the game.
      * - keptDice (List<Integer>): Dice already kept from previous rolls.
@@ -445,15 +1066,16 @@ public class Computer extends Player {
      * whether to stand.
      * Algorithm:
      * 1. Evaluate possible combinations of remaining dice with the kept dice.
-     * 2. Analyze open categories and determine applicable ones.
+     * 2. In one pass over the reachable final rolls and their applicable open
+     * categories, find the highest score, preferring the remaining dice that
+     * share the most dice with the roll, and note every category reaching it.
      * 3. Prioritize categories and dice combinations based on score and
      * feasibility.
      * 4. Return a Help object with suggestions for the next move.
      * Reference: None
      *********************************************************************
      */
-    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
-        List<List<Integer>> remainingDiceCombinations = helperFunctions.diceCombinations(5 - keptDice.size());
+    static Help getHeuristicHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls) {
         List<Category> openCategories = scoreCard.getOpenCategories();
 
         List<Integer> finalRoll = helperFunctions.concatenate(keptDice, diceRolls);
@@ -518,52 +1140,66 @@ public class Computer extends Player {
             }
         }
 
-        List<DiceAnalysis> diceAnalyses = new ArrayList<>();
-
-        for (List<Integer> remainingDice : remainingDiceCombinations) {
-            finalRoll = helperFunctions.concatenate(keptDice, remainingDice);
+        // Single pass over the reachable rolls for the highest applicable score, preferring the remaining dice
+        // that share the most dice with the roll, then the first roll and the first open category in order
+        int openMask = scoreCard.getOpenMask();
+        int keptId = DiceCatalogue.getId(DiceHistogram.of(keptDice));
+        int numRemaining = 5 - keptDice.size();
+        int firstRemainingId = DiceCatalogue.firstId(numRemaining);
+        int rolledKey = ScoreTable.packKey(diceRolls);
+
+        int bestScore = -1;
+        int bestShared = -1;
+        int bestIndex = -1;
+        Category bestCategory = null;
+        int maxScoringMask = 0;
+        for (int i = 0; i < DiceCatalogue.count(numRemaining); i++) {
+            int rollId = DiceCatalogue.getFinalRollId(keptId, i);
+            int applicable = ScoreTable.getApplicableMask(rollId) & openMask;
+            if (applicable == 0) {
+                continue;
+            }
+            int shared = DiceHistogram.commonCount(DiceCatalogue.getKey(firstRemainingId + i), rolledKey);
             for (Category category : openCategories) {
-                if (Category.isApplicableCategory(finalRoll, category)) {
-
-                    List<Integer> diceThatCanBeKept = helperFunctions.intersection(remainingDice, diceRolls);
-
-                    int score = Category.getScore(finalRoll, category);
-                    DiceAnalysis diceAnalysis = new DiceAnalysis(remainingDice, category, score, diceThatCanBeKept);
-                    diceAnalyses.add(diceAnalysis);
+                if ((applicable & (1 << category.ordinal())) == 0) {
+                    continue;
+                }
+                int score = ScoreTable.getScore(rollId, category);
+                if (score > bestScore) {
+                    maxScoringMask = 0;
+                }
+                if (score >= bestScore) {
+                    maxScoringMask |= 1 << category.ordinal();
+                }
+                if (score > bestScore || (score == bestScore && shared > bestShared)) {
+                    bestScore = score;
+                    bestShared = shared;
+                    bestIndex = i;
+                    bestCategory = category;
                 }
             }
         }
 
-        if (diceAnalyses.isEmpty()) {
+        if (bestCategory == null) {
             List<Integer> diceToKeep = diceRolls.stream().sorted().collect(Collectors.toList());
             return new Help(diceToKeep, null, true);
         }
 
-        // Sort diceAnalyses by DiceAnalysis.score first in descending order, then
-        // length of diceThatCanBeKept
-        List<DiceAnalysis> sortedAnalyses = diceAnalyses.stream()
-                .sorted((a, b) -> b.diceThatCanBeKept.size() - a.diceThatCanBeKept.size())
-                .sorted((a, b) -> b.score - a.score)
-                .collect(Collectors.toList());
-
-        List<Category> maxScoringCategories = sortedAnalyses.stream()
-                .filter(diceAnalysis -> diceAnalysis.score == sortedAnalyses.get(0).score)
-                .map(diceAnalysis -> diceAnalysis.category).collect(Collectors.toList());
-
-        Category category = sortedAnalyses.get(0).category;
-        List<Integer> diceToKeep = sortedAnalyses.get(0).diceThatCanBeKept;
+        Category category = bestCategory;
+        List<Integer> diceToKeep = helperFunctions.intersection(DiceCatalogue.getDice(firstRemainingId + bestIndex),
+                diceRolls);
 
         if (category == Category.FIVE_STRAIGHT || category == Category.FOUR_STRAIGHT) {
             diceToKeep = diceRolls.stream().distinct().collect(Collectors.toList());
         }
 
-        if (maxScoringCategories.contains(Category.FIVE_STRAIGHT)
-                && maxScoringCategories.contains(Category.FOUR_STRAIGHT)) {
+        if ((maxScoringMask & (1 << Category.FIVE_STRAIGHT.ordinal())) != 0
+                && (maxScoringMask & (1 << Category.FOUR_STRAIGHT.ordinal())) != 0) {
             category = Category.FIVE_STRAIGHT;
         }
 
-        if (maxScoringCategories.contains(Category.THREE_OF_A_KIND)
-                && maxScoringCategories.contains(Category.FOUR_OF_A_KIND)) {
+        if ((maxScoringMask & (1 << Category.THREE_OF_A_KIND.ordinal())) != 0
+                && (maxScoringMask & (1 << Category.FOUR_OF_A_KIND.ordinal())) != 0) {
             category = Category.FOUR_OF_A_KIND;
         }
 
@@ -0,0 +1,202 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * *********************************************************************
+ * Class Name: Decision
+ * Purpose: Holds everything the computer decides about one roll: the dice to
+ * keep, the category to aim for, whether to stand and the expected score of
+ * the target. It is worked out once by Computer.decide and read by every
+ * caller, instead of each caller asking for help again. The category pursuits
+ * and the target roll used for explanations are only worked out when first
+ * asked for. A Decision cannot be changed once made.
+ * *********************************************************************
+ */
+public final class Decision {
+    private final Computer advisor;
+    private final ScoreCard scoreCard;
+    private final List<Integer> keptDice;
+    private final List<Integer> diceRolls;
+    private final Help help;
+    private final boolean stand;
+    private final double expectedScore;
+
+    // Worked out on first use from the kept dice plus the dice to keep
+    private volatile Optional<Map<Category, Reason>> pursuits;
+    private volatile Optional<Map.Entry<Category, List<Integer>>> target;
+
+    /**
+     * *********************************************************************
+     * Function Name: Decision
+     * Purpose: Makes a decision from the help for a roll.
+     * Parameters:
+     * - advisor (Computer): The computer that works out the pursuits and target.
+     * - scoreCard (ScoreCard): The scorecard the decision was made for.
+     * - keptDice (List<Integer>): Dice already kept from previous rolls.
+     * - diceRolls (List<Integer>): The current dice rolls.
+     * - help (Help): The help given for the roll.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Copy the dice into unmodifiable lists.
+     * 2. Stand if every rolled die is kept, as wantsToStand does.
+     * 3. Read the expected score of the target category after locking the dice
+     * to keep from the TransitionTable, or NaN if the dice or the target are
+     * unknown.
+     * Reference: None.
+     *********************************************************************
+     */
+    Decision(Computer advisor, ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, Help help) {
+        this.advisor = advisor;
+        this.scoreCard = scoreCard;
+        this.keptDice = Collections.unmodifiableList(new ArrayList<>(keptDice));
+        this.diceRolls = Collections.unmodifiableList(new ArrayList<>(diceRolls));
+        this.help = new Help(Collections.unmodifiableList(new ArrayList<>(help.getDiceToKeep())), help.getCategory(),
+                help.getStand());
+        this.stand = helperFunctions.unorderedEqual(help.getDiceToKeep(), diceRolls);
+
+        int keepKey = ScoreTable.packKey(getHelpDice());
+        int keepId = keepKey < 0 ? -1 : DiceCatalogue.getIdForKey(keepKey);
+        this.expectedScore = keepId < 0 || help.getCategory() == null ? Double.NaN
+                : TransitionTable.getExpectedScore(keepId, help.getCategory());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Returns the help the decision was made from.
+     * Parameters: None.
+     * Return Value: The Help, with an unmodifiable list of dice to keep.
+     * Algorithm:
+     * 1. Return the stored help.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Help getHelp() {
+        return help;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDiceToKeep
+     * Purpose: Returns the rolled dice to keep.
+     * Parameters: None.
+     * Return Value: An unmodifiable list of the dice to keep.
+     * Algorithm:
+     * 1. Return the dice to keep of the help.
+     * Reference: None.
+     *********************************************************************
+     */
+    public List<Integer> getDiceToKeep() {
+        return help.getDiceToKeep();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelpDice
+     * Purpose: Returns the dice that are locked once the decision is followed.
+     * Parameters: None.
+     * Return Value: A new list of the kept dice followed by the dice to keep.
+     * Algorithm:
+     * 1. Concatenate the kept dice and the dice to keep.
+     * Reference: None.
+     *********************************************************************
+     */
+    public List<Integer> getHelpDice() {
+        return helperFunctions.concatenate(keptDice, help.getDiceToKeep());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTargetCategory
+     * Purpose: Returns the category the computer aims for.
+     * Parameters: None.
+     * Return Value: The target category of the help.
+     * Algorithm:
+     * 1. Return the category of the help.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Category getTargetCategory() {
+        return help.getCategory();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: shouldStand
+     * Purpose: Tells if the computer stops rolling.
+     * Parameters: None.
+     * Return Value: True if every rolled die is kept.
+     * Algorithm:
+     * 1. Return the stand flag worked out when the decision was made.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean shouldStand() {
+        return stand;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getExpectedScore
+     * Purpose: Returns the expected score in the target category after locking
+     * the dice to keep and rolling the rest.
+     * Parameters: None.
+     * Return Value: The expected score, or NaN if it is unknown.
+     * Algorithm:
+     * 1. Return the score worked out when the decision was made.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getExpectedScore() {
+        return expectedScore;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getPursuits
+     * Purpose: Returns the categories that can still be pursued once the
+     * decision is followed, with the reasons for each.
+     * Parameters: None.
+     * Return Value: Optional map of categories to reasons for pursuing them.
+     * Algorithm:
+     * 1. On first use, ask the advisor for the category pursuits of the kept
+     * dice plus the dice to keep, and remember them.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Optional<Map<Category, Reason>> getPursuits() {
+        Optional<Map<Category, Reason>> result = pursuits;
+        if (result == null) {
+            result = advisor.getCategoryPursuits(scoreCard, getHelpDice());
+            pursuits = result;
+        }
+        return result;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTarget
+     * Purpose: Returns the best category to aim for once the decision is
+     * followed, with the dice to roll for it.
+     * Parameters: None.
+     * Return Value: Optional entry of the category and the dice needed.
+     * Algorithm:
+     * 1. On first use, ask the advisor for the target of the kept dice plus the
+     * dice to keep, and remember it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Optional<Map.Entry<Category, List<Integer>>> getTarget() {
+        Optional<Map.Entry<Category, List<Integer>>> result = target;
+        if (result == null) {
+            result = advisor.getTarget(scoreCard, getHelpDice());
+            target = result;
+        }
+        return result;
+    }
+}
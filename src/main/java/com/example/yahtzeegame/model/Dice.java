@@ -2,7 +2,6 @@ package com.example.yahtzeegame.model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 public class Dice {
 
@@ -13,15 +12,29 @@ public class Dice {
      * Parameters: None
      * Return Value: An integer representing the value of the rolled die (1 to 6).
      * Algorithm:
-     * 1. Instantiate a Random object.
-     * 2. Use the Random object to generate a number between 1 and 6.
-     * 3. Return the generated number.
+     * 1. Roll with the default random source, which does not contend between
+     * threads.
      * Reference: None
      *********************************************************************
      */
     public static int rollDie() {
-        Random random = new Random();
-        return random.nextInt(6) + 1;
+        return rollDie(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollDie
+     * Purpose: Rolls a die with a given random source.
+     * Parameters:
+     * - random (RandomSource): The source of the roll.
+     * Return Value: An integer representing the value of the rolled die (1 to 6).
+     * Algorithm:
+     * 1. Roll a die with the source.
+     * Reference: None
+     *********************************************************************
+     */
+    public static int rollDie(RandomSource random) {
+        return random.rollDie();
     }
 
     /**
@@ -32,19 +45,39 @@ public class Dice {
      * - numDice (int): The number of dice to roll.
      * Return Value: A list of integers representing the values of the rolled dice.
      * Algorithm:
-     * 1. Create an empty list to store the results of the dice rolls.
-     * 2. Loop for the number of dice specified by numDice.
-     * 3. For each iteration, call rollDie to generate a random die value.
-     * 4. Add the generated value to the list.
-     * 5. Return the list containing all rolled dice values.
+     * 1. Roll the dice with the default random source.
      * Reference: None
      *********************************************************************
      */
     public static List<Integer> rollDice(int numDice) {
-        List<Integer> diceRolls = new ArrayList<>(numDice);
+        return rollDice(numDice, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollDice
+     * Purpose: Rolls a specified number of dice with a given random source.
+     * Parameters:
+     * - numDice (int): The number of dice to roll.
+     * - random (RandomSource): The source of the rolls.
+     * Return Value: A list of integers representing the values of the rolled dice.
+     * Algorithm:
+     * 1. Roll up to five dice at once from one random draw with DiceRoller; roll
+     * any further dice in groups of five the same way.
+     * 2. Add the rolled values to a list and return it.
+     * Reference: None
+     *********************************************************************
+     */
+    public static List<Integer> rollDice(int numDice, RandomSource random) {
+        List<Integer> diceRolls = new ArrayList<>(Math.max(numDice, 0));
+        int[] faces = new int[DiceCatalogue.MAX_DICE];
 
-        for (int i = 0; i < numDice; i++) {
-            diceRolls.add(rollDie());
+        for (int rolled = 0; rolled < numDice; rolled += DiceCatalogue.MAX_DICE) {
+            int count = Math.min(numDice - rolled, DiceCatalogue.MAX_DICE);
+            DiceRoller.rollFaces(random, faces, 0, count);
+            for (int i = 0; i < count; i++) {
+                diceRolls.add(faces[i]);
+            }
         }
 
         return diceRolls;
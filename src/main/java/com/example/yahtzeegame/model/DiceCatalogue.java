@@ -0,0 +1,329 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * *********************************************************************
+ * Class Name: DiceCatalogue
+ * Purpose: Holds every multiset of 0 to 5 dice, built once when the class is
+ * loaded. Each multiset has an id; ids are grouped by the number of dice and,
+ * within a group, follow the order of helperFunctions.generateCombinations.
+ * For each multiset the catalogue keeps its packed face counts, a read-only
+ * list of its values and the probability of rolling it. For each pair of kept
+ * dice and rolled dice that make up five dice, it keeps the ScoreTable roll id
+ * of the final roll, so callers can walk the outcomes of a roll without
+ * building any lists.
+ * *********************************************************************
+ */
+public final class DiceCatalogue {
+    // Largest number of dice in a multiset
+    public static final int MAX_DICE = 5;
+
+    // Number of multisets of 0 to 5 dice
+    public static final int NUM_MULTISETS = 462;
+
+    // Id of the first multiset of each size; FIRST_ID[n + 1] - FIRST_ID[n] is the number of multisets of n dice
+    private static final int[] FIRST_ID = new int[MAX_DICE + 2];
+
+    // Packed face counts and number of dice of each multiset, indexed by id
+    private static final int[] KEYS = new int[NUM_MULTISETS];
+    private static final int[] SIZES = new int[NUM_MULTISETS];
+
+    // Probability of rolling each multiset with as many dice as it holds
+    private static final double[] PROBABILITIES = new double[NUM_MULTISETS];
+
+    // Read-only list of the dice values of each multiset, in ascending order
+    private static final List<List<Integer>> DICE = new ArrayList<>(NUM_MULTISETS);
+
+    // Read-only lists of all multisets of each size
+    private static final List<List<List<Integer>>> COMBINATIONS = new ArrayList<>(MAX_DICE + 1);
+
+    // Packed keys sorted ascending and the id each of them belongs to
+    private static final int[] SORTED_KEYS = new int[NUM_MULTISETS];
+    private static final int[] SORTED_KEY_IDS = new int[NUM_MULTISETS];
+
+    // Roll ids of kept + rolled dice, stored as FINAL_ROLL_IDS[FINAL_OFFSETS[keptId] + rolled index]
+    private static final int[] FINAL_OFFSETS = new int[NUM_MULTISETS];
+    private static final int[] FINAL_ROLL_IDS;
+
+    static {
+        int id = 0;
+        for (int size = 0; size <= MAX_DICE; size++) {
+            FIRST_ID[size] = id;
+            List<List<Integer>> multisets = new ArrayList<>();
+            helperFunctions.generateCombinations(size, 1, new ArrayList<>(), multisets);
+
+            List<List<Integer>> combinations = new ArrayList<>(multisets.size());
+            for (List<Integer> multiset : multisets) {
+                List<Integer> dice = Collections.unmodifiableList(multiset);
+                KEYS[id] = ScoreTable.packKey(dice);
+                SIZES[id] = size;
+                PROBABILITIES[id] = rollProbability(KEYS[id], size);
+                DICE.add(dice);
+                combinations.add(dice);
+                id++;
+            }
+            COMBINATIONS.add(Collections.unmodifiableList(combinations));
+        }
+        FIRST_ID[MAX_DICE + 1] = id;
+
+        long[] keyAndId = new long[NUM_MULTISETS];
+        for (int i = 0; i < NUM_MULTISETS; i++) {
+            keyAndId[i] = ((long) KEYS[i] << 32) | i;
+        }
+        Arrays.sort(keyAndId);
+        for (int i = 0; i < NUM_MULTISETS; i++) {
+            SORTED_KEYS[i] = (int) (keyAndId[i] >>> 32);
+            SORTED_KEY_IDS[i] = (int) keyAndId[i];
+        }
+
+        int offset = 0;
+        for (int keptId = 0; keptId < NUM_MULTISETS; keptId++) {
+            FINAL_OFFSETS[keptId] = offset;
+            offset += count(MAX_DICE - SIZES[keptId]);
+        }
+        FINAL_ROLL_IDS = new int[offset];
+        for (int keptId = 0; keptId < NUM_MULTISETS; keptId++) {
+            int rolledSize = MAX_DICE - SIZES[keptId];
+            for (int i = 0; i < count(rolledSize); i++) {
+                int rolledId = FIRST_ID[rolledSize] + i;
+                FINAL_ROLL_IDS[FINAL_OFFSETS[keptId] + i] = ScoreTable.getRollIdForKey(KEYS[keptId] + KEYS[rolledId]);
+            }
+        }
+    }
+
+    private DiceCatalogue() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollProbability
+     * Purpose: Computes the probability of rolling a multiset of dice.
+     * Parameters:
+     * - key (int): The packed face counts of the multiset.
+     * - size (int): The number of dice in the multiset.
+     * Return Value: The multinomial probability n! / (c1! ... c6!) / 6^n.
+     * Algorithm:
+     * 1. Count the orderings of the multiset.
+     * 2. Divide by the number of ordered rolls of n dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static double rollProbability(int key, int size) {
+        long orderings = factorial(size);
+        long rolls = 1;
+        for (int face = 0; face < 6; face++) {
+            orderings /= factorial((key >>> (face * ScoreTable.BITS_PER_FACE)) & 7);
+        }
+        for (int i = 0; i < size; i++) {
+            rolls *= 6;
+        }
+        return (double) orderings / rolls;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: factorial
+     * Purpose: Computes the factorial of a small number.
+     * Parameters:
+     * - n (int): The number (0-7).
+     * Return Value: n!
+     * Algorithm:
+     * 1. Multiply the numbers from 2 to n.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static long factorial(int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++) {
+            result *= i;
+        }
+        return result;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: count
+     * Purpose: Returns the number of multisets of a given number of dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0-5).
+     * Return Value: The number of distinct unordered rolls of that many dice.
+     * Algorithm:
+     * 1. Subtract the first id of the size from the first id of the next size.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int count(int numDice) {
+        return FIRST_ID[numDice + 1] - FIRST_ID[numDice];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: firstId
+     * Purpose: Returns the id of the first multiset of a given number of dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0-5).
+     * Return Value: The first id; the multisets of that size have the ids
+     * firstId(numDice) to firstId(numDice) + count(numDice) - 1.
+     * Algorithm:
+     * 1. Read the id from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int firstId(int numDice) {
+        return FIRST_ID[numDice];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getId
+     * Purpose: Returns the id of a multiset given as a histogram.
+     * Parameters:
+     * - dice (DiceHistogram): The dice of the multiset.
+     * Return Value: The id, or -1 if the histogram holds more than five dice.
+     * Algorithm:
+     * 1. Look up the packed counts of the histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getId(DiceHistogram dice) {
+        return getIdForKey(dice.getPacked());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getIdForKey
+     * Purpose: Returns the id of a multiset given as packed face counts.
+     * Parameters:
+     * - key (int): The packed face counts (3 bits per face).
+     * Return Value: The id, or -1 if the key holds more than five dice.
+     * Algorithm:
+     * 1. Binary search the sorted keys and map the match back to its id.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getIdForKey(int key) {
+        int index = Arrays.binarySearch(SORTED_KEYS, key);
+        return index < 0 ? -1 : SORTED_KEY_IDS[index];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKey
+     * Purpose: Returns the packed face counts of a multiset.
+     * Parameters:
+     * - id (int): The multiset id.
+     * Return Value: The packed face counts.
+     * Algorithm:
+     * 1. Read the key from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getKey(int id) {
+        return KEYS[id];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSize
+     * Purpose: Returns the number of dice in a multiset.
+     * Parameters:
+     * - id (int): The multiset id.
+     * Return Value: The number of dice (0-5).
+     * Algorithm:
+     * 1. Read the size from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getSize(int id) {
+        return SIZES[id];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDice
+     * Purpose: Returns the dice values of a multiset.
+     * Parameters:
+     * - id (int): The multiset id.
+     * Return Value: A shared, read-only list of the values in ascending order.
+     * Algorithm:
+     * 1. Read the list from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static List<Integer> getDice(int id) {
+        return DICE.get(id);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getProbability
+     * Purpose: Returns the probability of rolling a multiset.
+     * Parameters:
+     * - id (int): The multiset id.
+     * Return Value: The probability of rolling exactly these values with as many
+     * dice as the multiset holds.
+     * Algorithm:
+     * 1. Read the probability from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getProbability(int id) {
+        return PROBABILITIES[id];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getFinalRollId
+     * Purpose: Returns the five-dice roll made of kept dice and rolled dice.
+     * Parameters:
+     * - keptId (int): The id of the kept multiset.
+     * - rolledIndex (int): The index of the rolled multiset among the multisets of
+     * 5 - getSize(keptId) dice (0 to count - 1).
+     * Return Value: The ScoreTable roll id of the kept and rolled dice together.
+     * Algorithm:
+     * 1. Read the roll id from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getFinalRollId(int keptId, int rolledIndex) {
+        return FINAL_ROLL_IDS[FINAL_OFFSETS[keptId] + rolledIndex];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRollDice
+     * Purpose: Returns the dice values of a five-dice roll.
+     * Parameters:
+     * - rollId (int): The ScoreTable roll id (0-251).
+     * Return Value: A shared, read-only list of the values in ascending order.
+     * Algorithm:
+     * 1. Five-dice multisets follow the roll ids, so offset the id by the first
+     * five-dice multiset.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static List<Integer> getRollDice(int rollId) {
+        return DICE.get(FIRST_ID[MAX_DICE] + rollId);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: combinations
+     * Purpose: Returns all multisets of a given number of dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0-5).
+     * Return Value: A shared, read-only list of read-only lists, in
+     * generateCombinations order.
+     * Algorithm:
+     * 1. Read the list from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static List<List<Integer>> combinations(int numDice) {
+        return COMBINATIONS.get(numDice);
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * *********************************************************************
+ * Class Name: DiceHistogram
+ * Purpose: An immutable multiset of dice stored as the counts of faces 1-6
+ * packed into a single int (3 bits per face, face 1 in the lowest bits). It is
+ * used in place of List<Integer> where the order of the dice does not matter,
+ * so combining and comparing dice does not allocate lists or box values.
+ * *********************************************************************
+ */
+public final class DiceHistogram {
+    // Histogram with no dice
+    public static final DiceHistogram EMPTY = new DiceHistogram(0);
+
+    // Largest count a single face can hold
+    public static final int MAX_COUNT = 7;
+
+    private static final int BITS_PER_FACE = ScoreTable.BITS_PER_FACE;
+    private static final int FACE_MASK = 7;
+
+    private final int packed;
+
+    private DiceHistogram(int packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: of
+     * Purpose: Creates a histogram from a list of dice values.
+     * Parameters:
+     * - dice (List<Integer>): The dice values. Passed by reference, not modified.
+     * Return Value: The histogram of the dice.
+     * Algorithm:
+     * 1. Pack the face counts of the list.
+     * 2. Throw an IllegalArgumentException if a value is not a die face or a face
+     * appears more than MAX_COUNT times.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static DiceHistogram of(List<Integer> dice) {
+        int key = ScoreTable.packKey(dice);
+        if (key < 0) {
+            throw new IllegalArgumentException("Not a valid set of dice: " + dice);
+        }
+        return fromPacked(key);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: of
+     * Purpose: Creates a histogram from dice values given as arguments.
+     * Parameters:
+     * - faces (int...): The dice values.
+     * Return Value: The histogram of the dice.
+     * Algorithm:
+     * 1. Add each face to an empty histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static DiceHistogram of(int... faces) {
+        int key = 0;
+        for (int face : faces) {
+            key = addFace(key, face);
+        }
+        return fromPacked(key);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: fromPacked
+     * Purpose: Wraps packed face counts in a histogram.
+     * Parameters:
+     * - packed (int): The packed face counts (3 bits per face).
+     * Return Value: The histogram holding the given counts.
+     * Algorithm:
+     * 1. Reject values using bits above the six face fields.
+     * 2. Return EMPTY for zero, otherwise a new histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static DiceHistogram fromPacked(int packed) {
+        if ((packed >>> (6 * BITS_PER_FACE)) != 0) {
+            throw new IllegalArgumentException("Not a packed dice histogram: " + packed);
+        }
+        return packed == 0 ? EMPTY : new DiceHistogram(packed);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: addFace
+     * Purpose: Adds one die to packed face counts.
+     * Parameters:
+     * - packed (int): The packed face counts.
+     * - face (int): The die value to add (1-6).
+     * Return Value: The packed counts with the die added.
+     * Algorithm:
+     * 1. Validate the face and make sure its field does not overflow.
+     * 2. Add one to the field of the face.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int addFace(int packed, int face) {
+        if (face < 1 || face > 6) {
+            throw new IllegalArgumentException("Not a die face: " + face);
+        }
+        int shift = (face - 1) * BITS_PER_FACE;
+        if (((packed >>> shift) & FACE_MASK) == MAX_COUNT) {
+            throw new IllegalArgumentException("Too many dice showing " + face);
+        }
+        return packed + (1 << shift);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isSubset
+     * Purpose: Checks if one set of packed face counts is contained in another.
+     * Parameters:
+     * - packed (int): The packed counts that should contain the other.
+     * - other (int): The packed counts to look for.
+     * Return Value: True if every face count of other is at most the count in
+     * packed.
+     * Algorithm:
+     * 1. Compare the six face fields one by one.
+     * Reference: None.
+     *********************************************************************
+     */
+    static boolean isSubset(int packed, int other) {
+        for (int shift = 0; shift < 6 * BITS_PER_FACE; shift += BITS_PER_FACE) {
+            if (((other >>> shift) & FACE_MASK) > ((packed >>> shift) & FACE_MASK)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: commonCount
+     * Purpose: Counts the dice two sets of packed face counts have in common.
+     * Parameters:
+     * - packed (int): The first packed counts.
+     * - other (int): The second packed counts.
+     * Return Value: The size of the multiset intersection.
+     * Algorithm:
+     * 1. Add the smaller of the two counts of each face.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int commonCount(int packed, int other) {
+        int common = 0;
+        for (int shift = 0; shift < 6 * BITS_PER_FACE; shift += BITS_PER_FACE) {
+            common += Math.min((packed >>> shift) & FACE_MASK, (other >>> shift) & FACE_MASK);
+        }
+        return common;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getPacked
+     * Purpose: Returns the packed face counts of the histogram.
+     * Parameters: None.
+     * Return Value: The packed face counts (3 bits per face).
+     * Algorithm:
+     * 1. Return the packed attribute.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getPacked() {
+        return packed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: count
+     * Purpose: Returns how many dice show a face.
+     * Parameters:
+     * - face (int): The die value (1-6).
+     * Return Value: The number of dice showing the face.
+     * Algorithm:
+     * 1. Extract the 3-bit field of the face.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int count(int face) {
+        if (face < 1 || face > 6) {
+            return 0;
+        }
+        return (packed >>> ((face - 1) * BITS_PER_FACE)) & FACE_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: size
+     * Purpose: Returns the number of dice in the histogram.
+     * Parameters: None.
+     * Return Value: The total of all face counts.
+     * Algorithm:
+     * 1. Add up the six face fields.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int size() {
+        int size = 0;
+        for (int p = packed; p != 0; p >>>= BITS_PER_FACE) {
+            size += p & FACE_MASK;
+        }
+        return size;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: sum
+     * Purpose: Returns the sum of the values of all dice in the histogram.
+     * Parameters: None.
+     * Return Value: The sum of the dice values.
+     * Algorithm:
+     * 1. Add up each face multiplied by its count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int sum() {
+        int sum = 0;
+        int face = 1;
+        for (int p = packed; p != 0; p >>>= BITS_PER_FACE) {
+            sum += (p & FACE_MASK) * face++;
+        }
+        return sum;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isEmpty
+     * Purpose: Checks if the histogram holds no dice.
+     * Parameters: None.
+     * Return Value: True if there are no dice, false otherwise.
+     * Algorithm:
+     * 1. Compare the packed counts with zero.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean isEmpty() {
+        return packed == 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: contains
+     * Purpose: Checks if at least one die shows a face.
+     * Parameters:
+     * - face (int): The die value (1-6).
+     * Return Value: True if the face is present, false otherwise.
+     * Algorithm:
+     * 1. Check that the count of the face is not zero.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean contains(int face) {
+        return count(face) > 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: containsAll
+     * Purpose: Checks if another histogram is a subset of this one.
+     * Parameters:
+     * - other (DiceHistogram): The histogram to look for.
+     * Return Value: True if every face appears in this histogram at least as many
+     * times as in the other.
+     * Algorithm:
+     * 1. Compare the face counts of both histograms.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean containsAll(DiceHistogram other) {
+        return isSubset(packed, other.packed);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isSubsetOf
+     * Purpose: Checks if this histogram is a subset of another.
+     * Parameters:
+     * - other (DiceHistogram): The histogram that should contain this one.
+     * Return Value: True if this histogram is contained in the other.
+     * Algorithm:
+     * 1. Compare the face counts of both histograms.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean isSubsetOf(DiceHistogram other) {
+        return isSubset(other.packed, packed);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: add
+     * Purpose: Returns a histogram with one more die showing a face.
+     * Parameters:
+     * - face (int): The die value to add (1-6).
+     * Return Value: A new histogram with the die added.
+     * Algorithm:
+     * 1. Add one to the field of the face.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceHistogram add(int face) {
+        return new DiceHistogram(addFace(packed, face));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: add
+     * Purpose: Returns the union (multiset sum) of two histograms.
+     * Parameters:
+     * - other (DiceHistogram): The histogram to add.
+     * Return Value: A new histogram holding the dice of both.
+     * Algorithm:
+     * 1. Add the face fields one by one, rejecting counts above MAX_COUNT.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceHistogram add(DiceHistogram other) {
+        if (other.packed == 0) {
+            return this;
+        }
+        int result = 0;
+        for (int shift = 0; shift < 6 * BITS_PER_FACE; shift += BITS_PER_FACE) {
+            int count = ((packed >>> shift) & FACE_MASK) + ((other.packed >>> shift) & FACE_MASK);
+            if (count > MAX_COUNT) {
+                throw new IllegalArgumentException("Too many dice showing " + (shift / BITS_PER_FACE + 1));
+            }
+            result |= count << shift;
+        }
+        return new DiceHistogram(result);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: subtract
+     * Purpose: Returns the dice of this histogram that are not in another.
+     * Parameters:
+     * - other (DiceHistogram): The histogram to remove. Must be a subset of this
+     * histogram.
+     * Return Value: A new histogram without the other's dice.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the other is not a subset.
+     * 2. Subtract the packed counts; no field can borrow from its neighbour.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceHistogram subtract(DiceHistogram other) {
+        if (!isSubset(packed, other.packed)) {
+            throw new IllegalArgumentException(other + " is not a subset of " + this);
+        }
+        return fromPacked(packed - other.packed);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toList
+     * Purpose: Converts the histogram to a list of dice values.
+     * Parameters: None.
+     * Return Value: A new list of the dice values in ascending order.
+     * Algorithm:
+     * 1. For each face, add it to the list as many times as it is counted.
+     * Reference: None.
+     *********************************************************************
+     */
+    public List<Integer> toList() {
+        List<Integer> dice = new ArrayList<>(size());
+        for (int face = 1; face <= 6; face++) {
+            for (int i = count(face); i > 0; i--) {
+                dice.add(face);
+            }
+        }
+        return dice;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: equals
+     * Purpose: Compares this histogram to another object for equality.
+     * Parameters:
+     * - obj (Object): The object to compare with.
+     * Return Value: True if the object is a histogram with the same face counts.
+     * Algorithm:
+     * 1. Compare the packed face counts.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        return packed == ((DiceHistogram) obj).packed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: hashCode
+     * Purpose: Generates a hash code for the histogram.
+     * Parameters: None.
+     * Return Value: The packed face counts, which are unique per histogram.
+     * Algorithm:
+     * 1. Return the packed attribute.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public int hashCode() {
+        return packed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toString
+     * Purpose: Provides a string representation of the histogram.
+     * Parameters: None.
+     * Return Value: The dice values in ascending order, formatted as a list.
+     * Algorithm:
+     * 1. Convert the histogram to a list and format it.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * *********************************************************************
+ * Class Name: DicePermutations
+ * Purpose: Enumerates the ordered outcomes of rolling a number of dice without
+ * building them up front. Each outcome is an int id from 0 to 6^n - 1 whose
+ * base-6 digits are the faces of the dice, first die most significant, so ids
+ * follow the order of helperFunctions.getDicePermutation. Outcomes are
+ * produced by a splittable iterator, so they can be streamed in parallel.
+ * Analyses that only need the dice as a multiset can instead walk one outcome
+ * per multiset and weight it by its multiplicity.
+ * *********************************************************************
+ */
+public final class DicePermutations {
+    // Largest number of dice whose outcome ids fit in an int
+    public static final int MAX_DICE = 11;
+
+    // Number of outcomes below which a spliterator does not split any further
+    private static final int MIN_SPLIT_SIZE = 1024;
+
+    private DicePermutations() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: count
+     * Purpose: Returns the number of ordered outcomes of rolling dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to MAX_DICE).
+     * Return Value: 6 to the power numDice.
+     * Algorithm:
+     * 1. Multiply 6 by itself numDice times.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int count(int numDice) {
+        checkNumDice(numDice);
+        int count = 1;
+        for (int i = 0; i < numDice; i++) {
+            count *= 6;
+        }
+        return count;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: spliterator
+     * Purpose: Creates a lazy, splittable iterator over the ordered outcomes of
+     * rolling dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to MAX_DICE).
+     * Return Value: A Spliterator.OfInt over the outcome ids in ascending order.
+     * Algorithm:
+     * 1. Cover the id range 0 to 6^numDice - 1.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static Spliterator.OfInt spliterator(int numDice) {
+        return new OutcomeSpliterator(0, count(numDice));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: outcomes
+     * Purpose: Streams the ordered outcomes of rolling dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to MAX_DICE).
+     * Return Value: A sequential IntStream of outcome ids; call parallel() on it
+     * to split the work across cores.
+     * Algorithm:
+     * 1. Wrap the outcome spliterator in a stream.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static IntStream outcomes(int numDice) {
+        return StreamSupport.intStream(spliterator(numDice), false);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: multisets
+     * Purpose: Streams one outcome for each multiset of dice, so that outcomes
+     * can be weighted by multiplicity instead of being visited one by one.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to MAX_DICE).
+     * Return Value: A sequential IntStream of the outcome ids whose faces do not
+     * decrease from the first die to the last.
+     * Algorithm:
+     * 1. Keep the outcomes whose faces are in ascending order.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static IntStream multisets(int numDice) {
+        return outcomes(numDice).filter(outcome -> isSorted(outcome, numDice));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getFace
+     * Purpose: Returns the face of one die in an outcome.
+     * Parameters:
+     * - outcome (int): The outcome id.
+     * - numDice (int): The number of dice in the outcome.
+     * - die (int): The index of the die (0 to numDice - 1).
+     * Return Value: The face of the die (1-6).
+     * Algorithm:
+     * 1. Extract the base-6 digit of the die.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getFace(int outcome, int numDice, int die) {
+        for (int i = numDice - 1; i > die; i--) {
+            outcome /= 6;
+        }
+        return outcome % 6 + 1;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKey
+     * Purpose: Returns the packed face counts of an outcome.
+     * Parameters:
+     * - outcome (int): The outcome id.
+     * - numDice (int): The number of dice in the outcome (at most
+     * DiceHistogram.MAX_COUNT).
+     * Return Value: The packed face counts, as used by DiceHistogram.
+     * Algorithm:
+     * 1. Add one to the count field of the face of each digit.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getKey(int outcome, int numDice) {
+        if (numDice > DiceHistogram.MAX_COUNT) {
+            throw new IllegalArgumentException("Cannot pack the counts of " + numDice + " dice");
+        }
+        int key = 0;
+        for (int i = 0; i < numDice; i++) {
+            key += 1 << ((outcome % 6) * ScoreTable.BITS_PER_FACE);
+            outcome /= 6;
+        }
+        return key;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: multiplicity
+     * Purpose: Returns the number of ordered outcomes that hold the same dice as
+     * an outcome.
+     * Parameters:
+     * - outcome (int): The outcome id.
+     * - numDice (int): The number of dice in the outcome.
+     * Return Value: The multinomial coefficient n! / (c1! ... c6!).
+     * Algorithm:
+     * 1. Count the dice of each face.
+     * 2. Build the coefficient one die at a time, multiplying by the dice placed
+     * so far and dividing by the count of the face placed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static long multiplicity(int outcome, int numDice) {
+        int[] counts = new int[6];
+        long multiplicity = 1;
+        for (int i = 1; i <= numDice; i++) {
+            int face = outcome % 6;
+            outcome /= 6;
+            counts[face]++;
+            multiplicity = multiplicity * i / counts[face];
+        }
+        return multiplicity;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toList
+     * Purpose: Converts an outcome to a list of dice values.
+     * Parameters:
+     * - outcome (int): The outcome id.
+     * - numDice (int): The number of dice in the outcome.
+     * Return Value: A new list of the faces, first die first.
+     * Algorithm:
+     * 1. Extract the base-6 digits from the most significant down.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static List<Integer> toList(int outcome, int numDice) {
+        Integer[] faces = new Integer[numDice];
+        for (int die = numDice - 1; die >= 0; die--) {
+            faces[die] = outcome % 6 + 1;
+            outcome /= 6;
+        }
+        List<Integer> dice = new ArrayList<>(numDice);
+        for (Integer face : faces) {
+            dice.add(face);
+        }
+        return dice;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isSorted
+     * Purpose: Checks if the faces of an outcome never decrease from the first
+     * die to the last.
+     * Parameters:
+     * - outcome (int): The outcome id.
+     * - numDice (int): The number of dice in the outcome.
+     * Return Value: True if the faces are in ascending order.
+     * Algorithm:
+     * 1. Compare the digits from the last die back to the first.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static boolean isSorted(int outcome, int numDice) {
+        int next = 6;
+        for (int i = 0; i < numDice; i++) {
+            int face = outcome % 6;
+            if (face > next) {
+                return false;
+            }
+            next = face;
+            outcome /= 6;
+        }
+        return true;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkNumDice
+     * Purpose: Validates a number of dice.
+     * Parameters:
+     * - numDice (int): The number of dice.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if it is outside 0 to MAX_DICE.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static void checkNumDice(int numDice) {
+        if (numDice < 0 || numDice > MAX_DICE) {
+            throw new IllegalArgumentException("Number of dice must be between 0 and " + MAX_DICE + ": " + numDice);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: OutcomeSpliterator
+     * Purpose: Walks a range of outcome ids and splits it in halves for parallel
+     * streams.
+     * *********************************************************************
+     */
+    private static final class OutcomeSpliterator implements Spliterator.OfInt {
+        private int next;
+        private final int fence;
+
+        OutcomeSpliterator(int origin, int fence) {
+            this.next = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (next >= fence) {
+                return false;
+            }
+            action.accept(next++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int end = fence;
+            for (int outcome = next; outcome < end; outcome++) {
+                action.accept(outcome);
+            }
+            next = end;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int size = fence - next;
+            if (size < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            int middle = next + size / 2;
+            Spliterator.OfInt prefix = new OutcomeSpliterator(next, middle);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Class Name: DiceRoller
+ * Purpose: Rolls whole sets of dice from few random draws. The 6^n ordered
+ * outcomes of n dice are numbered, and one outcome is drawn as a chunk of bits
+ * (13 bits for five dice, which have 7,776 outcomes), rejecting chunks past the
+ * last outcome, so every outcome stays equally likely. One 64-bit draw holds
+ * four chunks of five dice. An outcome is turned into face values, a ScoreTable
+ * roll id or a DiceCatalogue index with small lookup tables.
+ * The static methods roll one set from a fresh draw; an instance keeps the
+ * unused bits of its last draw for the next roll and fills primitive buffers
+ * in batches. An instance is not thread-safe; give each thread its own.
+ * *********************************************************************
+ */
+public final class DiceRoller {
+    private static final int NUM_DICE = DiceCatalogue.MAX_DICE;
+    private static final int WORD_BITS = Long.SIZE;
+
+    // Number of ordered outcomes of n dice, 6^n, and the bits needed to draw one, for n = 0 to 5
+    private static final int[] OUTCOMES = new int[NUM_DICE + 1];
+    private static final int[] OUTCOME_BITS = new int[NUM_DICE + 1];
+
+    // DiceCatalogue index, among the multisets of as many dice, of each ordered outcome of n dice
+    private static final short[][] MULTISET_INDICES = new short[NUM_DICE + 1][];
+
+    // ScoreTable roll id of each ordered outcome of five dice
+    private static final short[] ROLL_IDS;
+
+    static {
+        int outcomes = 1;
+        for (int numDice = 0; numDice <= NUM_DICE; numDice++) {
+            OUTCOMES[numDice] = outcomes;
+            OUTCOME_BITS[numDice] = WORD_BITS - Long.numberOfLeadingZeros(outcomes - 1);
+            short[] indices = new short[outcomes];
+            for (int outcome = 0; outcome < outcomes; outcome++) {
+                int id = DiceCatalogue.getIdForKey(packOutcome(outcome, numDice));
+                indices[outcome] = (short) (id - DiceCatalogue.firstId(numDice));
+            }
+            MULTISET_INDICES[numDice] = indices;
+            outcomes *= 6;
+        }
+
+        ROLL_IDS = new short[OUTCOMES[NUM_DICE]];
+        for (int outcome = 0; outcome < ROLL_IDS.length; outcome++) {
+            ROLL_IDS[outcome] = (short) ScoreTable.getRollIdForKey(packOutcome(outcome, NUM_DICE));
+        }
+    }
+
+    private final RandomSource random;
+    private long word;
+    private int bitsLeft;
+
+    /**
+     * *********************************************************************
+     * Function Name: DiceRoller
+     * Purpose: Creates a roller that draws from a random source.
+     * Parameters:
+     * - random (RandomSource): The source of the random words; a seeded source
+     * gives the same rolls.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if there is no source.
+     * 2. Store the source, with no bits drawn yet.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceRoller(RandomSource random) {
+        if (random == null) {
+            throw new IllegalArgumentException("No random source");
+        }
+        this.random = random;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getOutcomeCount
+     * Purpose: Returns the number of ordered outcomes of a number of dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to 5).
+     * Return Value: 6 to the power of the number of dice.
+     * Algorithm:
+     * 1. Validate the count and read the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getOutcomeCount(int numDice) {
+        return OUTCOMES[checkNumDice(numDice)];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollOutcome
+     * Purpose: Rolls dice from one fresh draw of a random source.
+     * Parameters:
+     * - random (RandomSource): The source to draw from.
+     * - numDice (int): The number of dice (0 to 5).
+     * Return Value: The ordered outcome, from 0 to 6^n - 1, each equally likely.
+     * Algorithm:
+     * 1. With no dice there is one outcome, and nothing is drawn.
+     * 2. Otherwise, draw a 64-bit word and take chunks of bits from it until one
+     * is below the number of outcomes; a whole word is rejected with a chance
+     * far below one in a million, and then another word is drawn.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int rollOutcome(RandomSource random, int numDice) {
+        int outcomes = OUTCOMES[checkNumDice(numDice)];
+        if (outcomes == 1) {
+            return 0;
+        }
+        int bits = OUTCOME_BITS[numDice];
+        int mask = (1 << bits) - 1;
+        while (true) {
+            long word = random.nextLong();
+            for (int used = bits; used <= WORD_BITS; used += bits) {
+                int outcome = (int) word & mask;
+                if (outcome < outcomes) {
+                    return outcome;
+                }
+                word >>>= bits;
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollFaces
+     * Purpose: Rolls dice from one fresh draw into an array of face values.
+     * Parameters:
+     * - random (RandomSource): The source to draw from.
+     * - faces (int[]): The array to write to. Passed by reference and changed.
+     * - offset (int): The first element to write.
+     * - numDice (int): The number of dice (0 to 5).
+     * Return Value: None.
+     * Algorithm:
+     * 1. Roll an ordered outcome and write its base-6 digits as faces.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static void rollFaces(RandomSource random, int[] faces, int offset, int numDice) {
+        writeFaces(rollOutcome(random, numDice), faces, offset, numDice);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollMultisetIndex
+     * Purpose: Rolls dice from one fresh draw as an index among the multisets
+     * of as many dice, drawing the same words as rollFaces.
+     * Parameters:
+     * - random (RandomSource): The source to draw from.
+     * - numDice (int): The number of dice (0 to 5).
+     * Return Value: The index in DiceCatalogue order, as used by
+     * DiceCatalogue.getFinalRollId.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the number of dice is out of
+     * range, before the table of that number is read.
+     * 2. Roll an ordered outcome and look up its multiset index.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int rollMultisetIndex(RandomSource random, int numDice) {
+        return MULTISET_INDICES[checkNumDice(numDice)][rollOutcome(random, numDice)];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextOutcome
+     * Purpose: Rolls dice, using the bits left from earlier rolls first.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to 5).
+     * Return Value: The ordered outcome, from 0 to 6^n - 1, each equally likely.
+     * Algorithm:
+     * 1. Take the next chunk of bits, drawing a new word when too few are left,
+     * until a chunk is below the number of outcomes.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int nextOutcome(int numDice) {
+        int outcomes = OUTCOMES[checkNumDice(numDice)];
+        int bits = OUTCOME_BITS[numDice];
+        int mask = (1 << bits) - 1;
+        while (true) {
+            if (bitsLeft < bits) {
+                word = random.nextLong();
+                bitsLeft = WORD_BITS;
+            }
+            int outcome = (int) word & mask;
+            word >>>= bits;
+            bitsLeft -= bits;
+            if (outcome < outcomes) {
+                return outcome;
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextRollId
+     * Purpose: Rolls five dice as a ScoreTable roll id.
+     * Parameters: None.
+     * Return Value: The roll id, with the chance of rolling its multiset.
+     * Algorithm:
+     * 1. Roll an ordered outcome of five dice and look up its roll id.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int nextRollId() {
+        return ROLL_IDS[nextOutcome(NUM_DICE)];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextMultisetIndex
+     * Purpose: Rolls dice as an index among the multisets of as many dice.
+     * Parameters:
+     * - numDice (int): The number of dice (0 to 5).
+     * Return Value: The index in DiceCatalogue order, as used by
+     * DiceCatalogue.getFinalRollId.
+     * Algorithm:
+     * 1. Roll an ordered outcome and look up its multiset index.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int nextMultisetIndex(int numDice) {
+        int outcome = nextOutcome(numDice);
+        return MULTISET_INDICES[numDice][outcome];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: fillRollIds
+     * Purpose: Rolls a batch of five-dice rolls as ScoreTable roll ids.
+     * Parameters:
+     * - rollIds (int[]): The array to write to. Passed by reference and changed.
+     * - offset (int): The first element to write.
+     * - count (int): The number of rolls.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the range is outside the array.
+     * 2. Write one rolled roll id per element.
+     * Reference: None.
+     *********************************************************************
+     */
+    public void fillRollIds(int[] rollIds, int offset, int count) {
+        checkRange(rollIds.length, offset, count);
+        for (int i = offset; i < offset + count; i++) {
+            rollIds[i] = ROLL_IDS[nextOutcome(NUM_DICE)];
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: fillFaces
+     * Purpose: Rolls a batch of rolls as face values, one roll after another.
+     * Parameters:
+     * - faces (int[]): The array to write to. Passed by reference and changed.
+     * - offset (int): The first element to write.
+     * - numDice (int): The number of dice of each roll (0 to 5).
+     * - count (int): The number of rolls; count * numDice elements are written.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the range is outside the array.
+     * 2. For each roll, roll an ordered outcome and write its faces.
+     * Reference: None.
+     *********************************************************************
+     */
+    public void fillFaces(int[] faces, int offset, int numDice, int count) {
+        checkNumDice(numDice);
+        checkRange(faces.length, offset, count * numDice);
+        for (int i = 0; i < count; i++) {
+            writeFaces(nextOutcome(numDice), faces, offset + i * numDice, numDice);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: writeFaces
+     * Purpose: Writes the faces of an ordered outcome.
+     * Parameters:
+     * - outcome (int): The ordered outcome.
+     * - faces (int[]): The array to write to.
+     * - offset (int): The first element to write.
+     * - numDice (int): The number of dice.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Write the base-6 digits of the outcome, lowest first, plus one.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static void writeFaces(int outcome, int[] faces, int offset, int numDice) {
+        for (int i = 0; i < numDice; i++) {
+            faces[offset + i] = outcome % 6 + 1;
+            outcome /= 6;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: packOutcome
+     * Purpose: Packs the faces of an ordered outcome as a histogram key.
+     * Parameters:
+     * - outcome (int): The ordered outcome.
+     * - numDice (int): The number of dice.
+     * Return Value: The packed face counts, as used by ScoreTable.
+     * Algorithm:
+     * 1. Add one to the 3-bit field of the face of each base-6 digit.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int packOutcome(int outcome, int numDice) {
+        int key = 0;
+        for (int i = 0; i < numDice; i++) {
+            key += 1 << outcome % 6 * ScoreTable.BITS_PER_FACE;
+            outcome /= 6;
+        }
+        return key;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkNumDice
+     * Purpose: Validates a number of dice.
+     * Parameters:
+     * - numDice (int): The number of dice.
+     * Return Value: The number of dice.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if it is outside 0 to 5.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int checkNumDice(int numDice) {
+        if (numDice < 0 || numDice > NUM_DICE) {
+            throw new IllegalArgumentException("Number of dice must be between 0 and " + NUM_DICE + ": " + numDice);
+        }
+        return numDice;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkRange
+     * Purpose: Validates a range of an array.
+     * Parameters:
+     * - length (int): The length of the array.
+     * - offset (int): The first element of the range.
+     * - count (int): The number of elements.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the range is outside the array.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static void checkRange(int length, int offset, int count) {
+        if (offset < 0 || count < 0 || offset > length - count) {
+            throw new IllegalArgumentException("Range " + offset + " + " + count + " is outside 0 to " + length);
+        }
+    }
+}
@@ -1,6 +1,21 @@
 package com.example.yahtzeegame.model;
 
 public class Die {
+    // One shared instance for each face and combination of flags, indexed by canonicalIndex
+    private static final Die[] CANONICAL = new Die[6 * 8];
+
+    static {
+        for (int value = 1; value <= 6; value++) {
+            for (int flags = 0; flags < 8; flags++) {
+                boolean locked = (flags & 4) != 0;
+                boolean markedForLock = (flags & 2) != 0;
+                boolean markedForHelp = (flags & 1) != 0;
+                CANONICAL[canonicalIndex(value, locked, markedForLock, markedForHelp)] =
+                        new Die(value, locked, markedForLock, markedForHelp);
+            }
+        }
+    }
+
     private final int value;
     private final boolean locked;
 
@@ -49,6 +64,88 @@ public class Die {
         this.markedForLock = !locked && markedForLock;
         this.markedForHelp = markedForHelp;
     }
+
+    /**
+     * *********************************************************************
+     * Function Name: of
+     * Purpose: Returns the shared Die with the given attributes, so that rolling
+     * and marking dice does not allocate new objects.
+     * Parameters:
+     * - value (int): The face value of the die. Passed by value.
+     * - locked (boolean): Indicates if the die is locked. Passed by value.
+     * - markedForLock (boolean): Indicates if the die is marked for locking.
+     *                            Passed by value.
+     * - markedForHelp (boolean): Indicates if the die is marked for strategic
+     *                            help. Passed by value.
+     * Return Value: The canonical Die for a face value of 1-6; a new Die for any
+     *               other value.
+     * Algorithm:
+     * 1. If the value is a face of the die, return the instance from the table.
+     * 2. Otherwise, create a new Die with the attributes.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static Die of(int value, boolean locked, boolean markedForLock, boolean markedForHelp) {
+        if (value < 1 || value > 6) {
+            return new Die(value, locked, markedForLock, markedForHelp);
+        }
+        return CANONICAL[canonicalIndex(value, locked, markedForLock, markedForHelp)];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: canonicalIndex
+     * Purpose: Computes the position of a Die in the table of shared instances.
+     * Parameters:
+     * - value (int): The face value of the die (1-6). Passed by value.
+     * - locked (boolean): Indicates if the die is locked. Passed by value.
+     * - markedForLock (boolean): Indicates if the die is marked for locking.
+     *                            Passed by value.
+     * - markedForHelp (boolean): Indicates if the die is marked for strategic
+     *                            help. Passed by value.
+     * Return Value: The index in the table (0-47).
+     * Algorithm:
+     * 1. Clear markedForLock if the die is locked, as the constructor does.
+     * 2. Combine the value and the three flags into one index.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int canonicalIndex(int value, boolean locked, boolean markedForLock, boolean markedForHelp) {
+        return (value - 1) * 8 + (locked ? 4 : 0) + (!locked && markedForLock ? 2 : 0) + (markedForHelp ? 1 : 0);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollValue
+     * Purpose: Generates a random face value without creating a Die.
+     * Parameters: None.
+     * Return Value: A random value between 1 and 6.
+     * Algorithm:
+     * 1. Roll with the default random source, which does not contend between
+     * threads.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int rollValue() {
+        return rollValue(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollValue
+     * Purpose: Generates a random face value from a given source without
+     * creating a Die.
+     * Parameters:
+     * - random (RandomSource): The source of the roll.
+     * Return Value: A random value between 1 and 6.
+     * Algorithm:
+     * 1. Roll a die with the source.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int rollValue(RandomSource random) {
+        return random.rollDie();
+    }
 /**
      * *********************************************************************
      * Function Name: getValue
@@ -69,22 +166,40 @@ public class Die {
      * Purpose: Rolls the die, generating a random value between 1 and 6, 
      *          unless the die is locked.
      * Parameters: None.
-     * Return Value: A new Die object with the rolled value if unlocked; 
+     * Return Value: The shared Die object with the rolled value if unlocked; 
      *               otherwise, the same Die object.
      * Algorithm:
      * 1. If the die is locked, return the current Die object.
      * 2. Generate a random value between 1 and 6.
-     * 3. Return a new Die object with the generated value.
+     * 3. Return the shared Die object with the generated value.
      * Reference: None.
      *********************************************************************
      */
     public Die roll() {
+        return roll(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: roll
+     * Purpose: Rolls the die with a given random source, unless it is locked.
+     * Parameters:
+     * - random (RandomSource): The source of the roll.
+     * Return Value: The shared Die object with the rolled value if unlocked;
+     *               otherwise, the same Die object.
+     * Algorithm:
+     * 1. If the die is locked, return the current Die object.
+     * 2. Roll a value with the source.
+     * 3. Return the shared Die object with the rolled value.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Die roll(RandomSource random) {
         if (locked) {
             return this;
         }
 
-        int newValue = (int) (Math.random() * 6) + 1;
-        return new Die(newValue, locked, false, false);
+        return of(rollValue(random), locked, false, false);
 
     }
 
@@ -94,10 +209,10 @@ public class Die {
      * Purpose: Increments the die's value by 1, wrapping around to 1 if it 
      *          exceeds 6.
      * Parameters: None.
-     * Return Value: A new Die object with the incremented value.
+     * Return Value: The shared Die object with the incremented value.
      * Algorithm:
      * 1. Calculate the new value as value + 1, wrapping from 6 to 1.
-     * 2. Return a new Die object with the calculated value.
+     * 2. Return the shared Die object with the calculated value.
      * Reference: None.
      *********************************************************************
      */
@@ -111,10 +226,10 @@ public class Die {
      * Purpose: Decrements the die's value by 1, wrapping around to 6 if it 
      *          goes below 1.
      * Parameters: None.
-     * Return Value: A new Die object with the decremented value.
+     * Return Value: The shared Die object with the decremented value.
      * Algorithm:
      * 1. Calculate the new value as value - 1, wrapping from 1 to 6.
-     * 2. Return a new Die object with the calculated value.
+     * 2. Return the shared Die object with the calculated value.
      * Reference: None.
      *********************************************************************
      */
@@ -129,7 +244,7 @@ public class Die {
      *          the specified value.
      * Parameters:
      * - value (int): The new value for the die. Passed by value.
-     * Return Value: A new Die object with the specified value.
+     * Return Value: The shared Die object with the specified value.
      * Algorithm:
      * 1. Call the private method newDieWithValue with the given value.
      * Reference: None.
@@ -146,17 +261,17 @@ public class Die {
      *          locked state is maintained.
      * Parameters:
      * - value (int): The value for the new Die object. Passed by value.
-     * Return Value: A new Die object with the specified value if unlocked; 
+     * Return Value: The shared Die object with the specified value if unlocked; 
      *               otherwise, the same Die object.
      * Algorithm:
      * 1. If the die is locked, return the current Die object.
-     * 2. Create and return a new Die object with the given value.
+     * 2. Return the shared Die object with the given value.
      * Reference: None.
      *********************************************************************
      */
     private Die newDieWithValue(int value) {
         if (locked) return this;
-        return new Die(value, false, false, false);
+        return of(value, false, false, false);
     }
 
 
@@ -165,15 +280,15 @@ public class Die {
      * Function Name: lock
      * Purpose: Locks the die, preventing it from being rolled in subsequent actions.
      * Parameters: None.
-     * Return Value: A new Die object with the same value but with the locked 
+     * Return Value: The shared Die object with the same value but with the locked 
      *               attribute set to true.
      * Algorithm:
-     * 1. Create and return a new Die object with the locked attribute set to true.
+     * 1. Return the shared Die object with the locked attribute set to true.
      * Reference: None.
      *********************************************************************
      */
     public Die lock() {
-        return new Die(value, true, false, false);
+        return of(value, true, false, false);
     }
 
     /**
@@ -196,14 +311,14 @@ public class Die {
      * Function Name: markForLock
      * Purpose: Marks the die as a candidate for locking without actually locking it.
      * Parameters: None.
-     * Return Value: A new Die object with the markedForLock attribute set to true.
+     * Return Value: The shared Die object with the markedForLock attribute set to true.
      * Algorithm:
-     * 1. Create and return a new Die object with the markedForLock attribute set to true.
+     * 1. Return the shared Die object with the markedForLock attribute set to true.
      * Reference: None.
      *********************************************************************
      */
     public Die markForLock() {
-        return new Die(value, locked, true, markedForHelp);
+        return of(value, locked, true, markedForHelp);
     }
 
     /**
@@ -211,14 +326,14 @@ public class Die {
      * Function Name: unmarkForLock
      * Purpose: Removes the mark indicating that the die should be locked.
      * Parameters: None.
-     * Return Value: A new Die object with the markedForLock attribute set to false.
+     * Return Value: The shared Die object with the markedForLock attribute set to false.
      * Algorithm:
-     * 1. Create and return a new Die object with the markedForLock attribute set to false.
+     * 1. Return the shared Die object with the markedForLock attribute set to false.
      * Reference: None.
      *********************************************************************
      */
     public Die unmarkForLock() {
-        return new Die(value, locked, false, markedForHelp);
+        return of(value, locked, false, markedForHelp);
     }
 
     /**
@@ -227,14 +342,14 @@ public class Die {
      * Purpose: Toggles the markedForLock status of the die, switching it 
      *          between true and false.
      * Parameters: None.
-     * Return Value: A new Die object with the markedForLock attribute toggled.
+     * Return Value: The shared Die object with the markedForLock attribute toggled.
      * Algorithm:
-     * 1. Create and return a new Die object with the markedForLock attribute negated.
+     * 1. Return the shared Die object with the markedForLock attribute negated.
      * Reference: None.
      *********************************************************************
      */
     public Die toggleMarkForLock() {
-        return new Die(value, locked, !markedForLock, markedForHelp);
+        return of(value, locked, !markedForLock, markedForHelp);
     }
 
     /**
@@ -244,15 +359,15 @@ public class Die {
      *          specified value.
      * Parameters:
      * - markedForLock (boolean): The desired markedForLock status. Passed by value.
-     * Return Value: A new Die object with the specified markedForLock status.
+     * Return Value: The shared Die object with the specified markedForLock status.
      * Algorithm:
-     * 1. Create and return a new Die object with the markedForLock attribute set 
+     * 1. Return the shared Die object with the markedForLock attribute set 
      *    to the specified value.
      * Reference: None.
      *********************************************************************
      */
     public Die setMarkedForLock(boolean markedForLock) {
-        return new Die(value, locked, markedForLock, markedForHelp);
+        return of(value, locked, markedForLock, markedForHelp);
     }
 
     /**
@@ -275,14 +390,14 @@ public class Die {
      * Function Name: markForHelp
      * Purpose: Marks the die for strategic consideration during game decisions.
      * Parameters: None.
-     * Return Value: A new Die object with the markedForHelp attribute set to true.
+     * Return Value: The shared Die object with the markedForHelp attribute set to true.
      * Algorithm:
-     * 1. Create and return a new Die object with the markedForHelp attribute set to true.
+     * 1. Return the shared Die object with the markedForHelp attribute set to true.
      * Reference: None.
      *********************************************************************
      */
     public Die markForHelp() {
-        return new Die(value, locked, markedForLock, true);
+        return of(value, locked, markedForLock, true);
     }
 
     /**
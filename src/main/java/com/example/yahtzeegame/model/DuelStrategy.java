@@ -0,0 +1,272 @@
+package com.example.yahtzeegame.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * *********************************************************************
+ * Class Name: DuelStrategy
+ * Purpose: A computer strategy that plays to win against one opponent rather
+ * than to score the most points. The scores of both players are read from the
+ * shared scorecard; once no more categories are open than the DuelTable has
+ * solved, decisions maximise the exact chance of winning, and before that they
+ * are left to a points strategy. The strategy plays for the player it is bound
+ * to with forPlayer, which a Computer does with itself; the opponent is every
+ * other player with scores on the scorecard. Until it is bound, every decision
+ * is left to the points strategy. The turn position in the round is the one
+ * Game or SimulationEngine gave the bound Computer; without one, a player who
+ * is ahead is taken to move second and any other player to move first.
+ * *********************************************************************
+ */
+public final class DuelStrategy implements Strategy {
+    private final DuelTable table;
+    private final Strategy fallback;
+    private final Player self;
+
+    /**
+     * *********************************************************************
+     * Function Name: DuelStrategy
+     * Purpose: Creates a strategy using the shared tables, not yet bound to a
+     * player.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Use DuelTable.getInstance for the end of the game and an
+     * ExpectimaxStrategy before it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DuelStrategy() {
+        this(DuelTable.getInstance(), new ExpectimaxStrategy(), null);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: DuelStrategy
+     * Purpose: Creates a strategy with a given table and fallback.
+     * Parameters:
+     * - table (DuelTable): The solved table for the end of the game.
+     * - fallback (Strategy): The strategy used while more categories are open
+     * than the table has solved.
+     * - self (Player): The player the strategy plays for, or null if it is not
+     * bound yet.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Store the arguments.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DuelStrategy(DuelTable table, Strategy fallback, Player self) {
+        this.table = table;
+        this.fallback = fallback;
+        this.self = self;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: forPlayer
+     * Purpose: Returns the strategy to play for a given player.
+     * Parameters:
+     * - player (Player): The player the strategy makes decisions for.
+     * Return Value: This strategy if it already plays for a player of that
+     * name, otherwise a new DuelStrategy with the same tables bound to the
+     * player.
+     * Algorithm:
+     * 1. Compare the player with the bound one by name.
+     * 2. Otherwise, bind the fallback and a new strategy to the player.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Strategy forPlayer(Player player) {
+        if (self != null && self.equals(player)) {
+            return this;
+        }
+        return new DuelStrategy(table, fallback.forPlayer(player), player);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Decides which of the rolled dice to keep.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. If the strategy is not bound to a player, the dice are not a five-dice
+     * roll or the open categories are not solved, use the fallback strategy.
+     * 2. Look up the multiset to lock with the best chance of winning; locking
+     * all five dice means standing.
+     * 3. The target is the category that would be scored when standing, or else
+     * the open category with the best chance of winning when the next roll is
+     * scored in it.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        int openMask = scoreCard.getOpenMask();
+        int keptKey = ScoreTable.packKey(keptDice);
+        int rollKey = ScoreTable.packKey(helperFunctions.concatenate(keptDice, diceRolls));
+        int keptId = keptKey < 0 ? -1 : DiceCatalogue.getIdForKey(keptKey);
+        int rollId = rollKey < 0 ? -1 : ScoreTable.getRollIdForKey(rollKey);
+        if (self == null || openMask == 0 || !table.isSolved(openMask) || keptId < 0 || rollId < 0) {
+            return fallback.getHelp(scoreCard, keptDice, diceRolls, rollsLeft);
+        }
+
+        int scoreDifference = getScoreDifference(scoreCard);
+        boolean movesFirst = movesFirst(scoreDifference);
+        int keepId = table.getBestKeep(openMask, scoreDifference, movesFirst, keptId, rollId, rollsLeft);
+        boolean stand = DiceCatalogue.getSize(keepId) == DiceCatalogue.MAX_DICE;
+        List<Integer> diceToKeep = DiceHistogram.fromPacked(DiceCatalogue.getKey(keepId) - keptKey).toList();
+
+        int ordinal = stand ? table.getBestCategory(openMask, scoreDifference, movesFirst, rollId) : -1;
+        if (ordinal < 0) {
+            ordinal = getTargetCategory(openMask, scoreDifference, movesFirst, keepId);
+        }
+        return new Help(diceToKeep, Category.values()[ordinal], stand);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Decides which category to score the final dice in.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (List<Integer>): The final dice.
+     * Return Value: The applicable open category with the best chance of
+     * winning after scoring it, or empty if none is applicable.
+     * Algorithm:
+     * 1. If the strategy is not bound to a player, the dice are not a five-dice
+     * roll or the open categories are not solved, use the fallback strategy.
+     * 2. Otherwise, look up the best category in the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Optional<Category> getCategorySelection(ScoreCard scoreCard, List<Integer> dice) {
+        int openMask = scoreCard.getOpenMask();
+        int rollId = ScoreTable.getRollId(dice);
+        if (self == null || openMask == 0 || !table.isSolved(openMask) || rollId < 0) {
+            return fallback.getCategorySelection(scoreCard, dice);
+        }
+        int scoreDifference = getScoreDifference(scoreCard);
+        int ordinal = table.getBestCategory(openMask, scoreDifference, movesFirst(scoreDifference), rollId);
+        return ordinal < 0 ? Optional.empty() : Optional.of(Category.values()[ordinal]);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isCacheable
+     * Purpose: Tells if the help can be kept in a HelpCache.
+     * Parameters: None.
+     * Return Value: False, since the help depends on the scores.
+     * Algorithm:
+     * 1. Return false.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getScoreDifference
+     * Purpose: Works out how far the player is ahead of the opponent.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * Return Value: The score of the player minus the score of the opponent.
+     * Algorithm:
+     * 1. Read the totals of the player and of every player who has won a
+     * category with ScoreCard.getPlayerScores.
+     * 2. Subtract the totals of the other players from the player's; an
+     * opponent who has not won a category yet has no points.
+     * Reference: None.
+     *********************************************************************
+     */
+    private int getScoreDifference(ScoreCard scoreCard) {
+        List<Player> players = scoreCard.getPlayers();
+        if (!players.contains(self)) {
+            players.add(self);
+        }
+        int difference = 0;
+        for (Map.Entry<Player, Integer> entry : scoreCard.getPlayerScores(players).entrySet()) {
+            difference += entry.getKey().equals(self) ? entry.getValue() : -entry.getValue();
+        }
+        return difference;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: movesFirst
+     * Purpose: Works out whether the player goes first in the round.
+     * Parameters:
+     * - scoreDifference (int): The score difference of the player.
+     * Return Value: True if the player goes first in the round.
+     * Algorithm:
+     * 1. A player who is ahead cannot go first, since the lower score goes
+     * first and nothing has been scored in the round before the first turn.
+     * 2. Otherwise, use the turn position of the bound Computer; the first
+     * player may already have scored and taken the lead.
+     * 3. Without a turn position, take the player to go first.
+     * Reference: None.
+     *********************************************************************
+     */
+    private boolean movesFirst(int scoreDifference) {
+        if (scoreDifference > 0) {
+            return false;
+        }
+        if (self instanceof Computer) {
+            return ((Computer) self).getMovesFirst().orElse(true);
+        }
+        return true;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTargetCategory
+     * Purpose: Picks the category to aim for after locking dice.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * - scoreDifference (int): The score difference of the player.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * - keepId (int): The DiceCatalogue id of the locked dice.
+     * Return Value: The ordinal of the open category with the best chance of
+     * winning when the next roll is scored in it.
+     * Algorithm:
+     * 1. For each open category, weight the chance after scoring each outcome of
+     * the TransitionTable in it by the chance of the outcome; an outcome that
+     * does not apply counts as a skipped turn.
+     * Reference: None.
+     *********************************************************************
+     */
+    private int getTargetCategory(int openMask, int scoreDifference, boolean movesFirst, int keepId) {
+        double skipValue = table.getEndChance(openMask, scoreDifference, movesFirst);
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int bits = openMask; bits != 0; bits &= bits - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(bits);
+            double value = 0;
+            for (int i = 0; i < TransitionTable.getOutcomeCount(keepId); i++) {
+                int rollId = TransitionTable.getOutcomeRollId(keepId, i);
+                double chance = ScoreTable.isApplicable(rollId, Category.values()[ordinal])
+                        ? table.getEndChance(openMask & ~(1 << ordinal),
+                                scoreDifference + ScoreTable.getScore(rollId, ordinal), movesFirst)
+                        : skipValue;
+                value += TransitionTable.getOutcomeProbability(keepId, i) * chance;
+            }
+            if (value >= bestValue) {
+                bestValue = value;
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+}
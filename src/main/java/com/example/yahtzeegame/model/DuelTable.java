@@ -0,0 +1,513 @@
+package com.example.yahtzeegame.model;
+
+import java.util.stream.IntStream;
+
+import com.example.yahtzeegame.model.TurnSolver.TurnValues;
+
+/**
+ * *********************************************************************
+ * Class Name: DuelTable
+ * Purpose: Solves the end of a two-player game exactly for the player who wants
+ * the highest chance of winning. The scorecard is shared, so a category filled
+ * by one player is closed to the other, and the game is zero-sum: one table,
+ * seen from the player to move, serves both players, because the chance of the
+ * other player is one minus it. A state is the set of open categories, the
+ * score of the player to move minus the score of the other player, and whether
+ * the player to move goes first or second in the round. The player with the
+ * lower score goes first in a round, and a tie is broken by a toss, so the
+ * player who goes first is never ahead. A drawn game counts as half a win.
+ * The full game has too many states to solve on a phone, so only the sets of
+ * at most maxOpen open categories are solved; states where the player behind
+ * cannot catch up even by scoring the most in every open category are decided
+ * and not stored. The sets in one layer by number of open categories are
+ * solved in parallel.
+ * *********************************************************************
+ */
+public final class DuelTable {
+    // Default largest number of open categories that is solved
+    public static final int DEFAULT_MAX_OPEN = 2;
+
+    // Largest number of Newton steps taken to solve a pair of states that skip into each other
+    private static final int MAX_STEPS = 64;
+
+    // Most points each category set can still give, indexed by the open category mask
+    private static final int[] MAX_REMAINING = new int[ExpectimaxTable.NUM_MASKS];
+
+    static {
+        int[] maxScores = new int[ScoreTable.NUM_CATEGORIES];
+        for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+            for (int ordinal = 0; ordinal < ScoreTable.NUM_CATEGORIES; ordinal++) {
+                maxScores[ordinal] = Math.max(maxScores[ordinal], ScoreTable.getScore(rollId, ordinal));
+            }
+        }
+        for (int openMask = 1; openMask < ExpectimaxTable.NUM_MASKS; openMask++) {
+            int ordinal = Integer.numberOfTrailingZeros(openMask);
+            MAX_REMAINING[openMask] = MAX_REMAINING[openMask & (openMask - 1)] + maxScores[ordinal];
+        }
+    }
+
+    // Chance of winning by mask; for a mask with r points left, the player moving second with score
+    // difference d is at [d + r] and the player moving first at [2r + 1 + d + r], d from -r to 0
+    private final double[][] values = new double[ExpectimaxTable.NUM_MASKS][];
+    private final int maxOpen;
+
+    // Values inside a turn for the state that was asked for last
+    private volatile StateTurn lastTurn;
+
+    /**
+     * *********************************************************************
+     * Class Name: Holder
+     * Purpose: Builds the shared table the first time it is used.
+     * *********************************************************************
+     */
+    private static final class Holder {
+        static final DuelTable INSTANCE = build(DEFAULT_MAX_OPEN);
+    }
+
+    private DuelTable(int maxOpen) {
+        this.maxOpen = maxOpen;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getInstance
+     * Purpose: Returns the shared table, solving it on first use.
+     * Parameters: None.
+     * Return Value: The shared DuelTable for DEFAULT_MAX_OPEN open categories.
+     * Algorithm:
+     * 1. Return the table built by the holder class.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static DuelTable getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: build
+     * Purpose: Solves the chance of winning in every state with few enough open
+     * categories.
+     * Parameters:
+     * - maxOpen (int): The largest number of open categories to solve (0 to
+     * the number of categories).
+     * Return Value: A new DuelTable.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if maxOpen is out of range.
+     * 2. For each number of open categories from one to maxOpen, solve the sets
+     * with that many open categories in a parallel stream; each set only reads
+     * the sets with one category fewer.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static DuelTable build(int maxOpen) {
+        if (maxOpen < 0 || maxOpen > ScoreTable.NUM_CATEGORIES) {
+            throw new IllegalArgumentException("Open categories must be between 0 and "
+                    + ScoreTable.NUM_CATEGORIES + ": " + maxOpen);
+        }
+        DuelTable table = new DuelTable(maxOpen);
+        for (int layer = 1; layer <= maxOpen; layer++) {
+            int numOpen = layer;
+            IntStream.range(1, ExpectimaxTable.NUM_MASKS)
+                    .filter(openMask -> Integer.bitCount(openMask) == numOpen)
+                    .parallel()
+                    .forEach(openMask -> table.values[openMask] = table.solveMask(openMask));
+        }
+        return table;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMaxOpen
+     * Purpose: Returns the largest number of open categories that is solved.
+     * Parameters: None.
+     * Return Value: The maxOpen the table was built with.
+     * Algorithm:
+     * 1. Return the stored value.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getMaxOpen() {
+        return maxOpen;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isSolved
+     * Purpose: Checks if the table holds the states of a set of open categories.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * Return Value: True if no more than maxOpen categories are open.
+     * Algorithm:
+     * 1. Count the open categories.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean isSolved(int openMask) {
+        return Integer.bitCount(openMask) <= maxOpen;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMaxRemaining
+     * Purpose: Returns the most points a set of open categories can still give.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * Return Value: The sum of the highest score of each open category.
+     * Algorithm:
+     * 1. Read the sum from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getMaxRemaining(int openMask) {
+        return MAX_REMAINING[openMask];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getWinChance
+     * Purpose: Returns the chance of winning from the start of a turn.
+     * Parameters:
+     * - openMask (int): The open categories (at most maxOpen of them).
+     * - scoreDifference (int): The score of the player to move minus the score
+     * of the other player.
+     * - movesFirst (boolean): True if the player to move goes first in the
+     * round, which needs a score difference of at most 0.
+     * Return Value: The chance of winning plus half the chance of a draw, with
+     * both players playing to win.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the state is not in the table.
+     * 2. Read the chance from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getWinChance(int openMask, int scoreDifference, boolean movesFirst) {
+        checkState(openMask, scoreDifference, movesFirst);
+        return value(openMask, scoreDifference, movesFirst);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getEndChance
+     * Purpose: Returns the chance of winning after the player to move ends the
+     * turn.
+     * Parameters:
+     * - openMask (int): The categories still open after the turn.
+     * - scoreDifference (int): The score difference of the player after the
+     * turn.
+     * - movesFirst (boolean): True if the player went first in the round.
+     * Return Value: The chance of winning plus half the chance of a draw.
+     * Algorithm:
+     * 1. With no open categories, the game is over; throw an
+     * IllegalArgumentException if the categories are not solved.
+     * 2. After going first, the other player moves next: one minus their chance.
+     * 3. After going second, a new round starts with the lower score first; on a
+     * tie the toss makes the chance one half.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getEndChance(int openMask, int scoreDifference, boolean movesFirst) {
+        if (openMask == 0) {
+            return scoreDifference > 0 ? 1 : scoreDifference < 0 ? 0 : 0.5;
+        }
+        if (!isSolved(openMask)) {
+            throw new IllegalArgumentException("Category set is not solved: " + Integer.toBinaryString(openMask));
+        }
+        if (movesFirst) {
+            return 1 - value(openMask, -scoreDifference, false);
+        }
+        if (scoreDifference < 0) {
+            return value(openMask, scoreDifference, true);
+        }
+        if (scoreDifference > 0) {
+            return 1 - value(openMask, -scoreDifference, true);
+        }
+        return 0.5;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestKeep
+     * Purpose: Picks the dice to lock after a roll.
+     * Parameters:
+     * - openMask (int): The open categories (at most maxOpen of them).
+     * - scoreDifference (int): The score difference of the player to move.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rollId (int): The ScoreTable roll id of all five dice.
+     * - rollsLeft (int): The rolls left in the turn (0-2).
+     * Return Value: The DiceCatalogue id of the dice to lock; an id of five dice
+     * means standing on the roll.
+     * Algorithm:
+     * 1. Solve the turn of the state, or reuse it if it was the last one asked
+     * for, and take the best multiset to lock with TurnSolver.getBestKeep.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getBestKeep(int openMask, int scoreDifference, boolean movesFirst, int keptId, int rollId, int rollsLeft) {
+        checkState(openMask, scoreDifference, movesFirst);
+        return TurnSolver.getBestKeep(turn(openMask, scoreDifference, movesFirst), keptId, rollId, rollsLeft);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestCategory
+     * Purpose: Picks the category to score a final roll in.
+     * Parameters:
+     * - openMask (int): The open categories (at most maxOpen of them).
+     * - scoreDifference (int): The score difference of the player to move.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * - rollId (int): The ScoreTable roll id of the final roll.
+     * Return Value: The ordinal of the applicable open category with the highest
+     * chance of winning after scoring it, or -1 if none applies.
+     * Algorithm:
+     * 1. For each applicable open category, add its points to the score
+     * difference and read the chance after the turn; ties go to the higher
+     * ordinal.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getBestCategory(int openMask, int scoreDifference, boolean movesFirst, int rollId) {
+        checkState(openMask, scoreDifference, movesFirst);
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int bits = openMask & ScoreTable.getApplicableMask(rollId); bits != 0; bits &= bits - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(bits);
+            double value = getEndChance(openMask & ~(1 << ordinal),
+                    scoreDifference + ScoreTable.getScore(rollId, ordinal), movesFirst);
+            if (value >= bestValue) {
+                bestValue = value;
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: value
+     * Purpose: Reads the chance of winning of a state from the start of a turn.
+     * Parameters:
+     * - openMask (int): The open categories (not empty, already solved).
+     * - scoreDifference (int): The score difference of the player to move.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * Return Value: The chance of winning plus half the chance of a draw.
+     * Algorithm:
+     * 1. A player further ahead than the points left has won, and one further
+     * behind has lost.
+     * 2. Otherwise, read the chance from the array of the mask.
+     * Reference: None.
+     *********************************************************************
+     */
+    private double value(int openMask, int scoreDifference, boolean movesFirst) {
+        int remaining = MAX_REMAINING[openMask];
+        if (scoreDifference > remaining) {
+            return 1;
+        }
+        if (scoreDifference < -remaining) {
+            return 0;
+        }
+        return values[openMask][index(remaining, scoreDifference, movesFirst)];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: index
+     * Purpose: Finds a state in the array of its mask.
+     * Parameters:
+     * - remaining (int): The most points the mask can still give.
+     * - scoreDifference (int): The score difference, from -remaining to
+     * remaining, and at most 0 when moving first.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * Return Value: The index of the state.
+     * Algorithm:
+     * 1. Place the states moving second first, then those moving first.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int index(int remaining, int scoreDifference, boolean movesFirst) {
+        return (movesFirst ? 2 * remaining + 1 : 0) + scoreDifference + remaining;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solveMask
+     * Purpose: Solves every state of one set of open categories, given all
+     * smaller sets.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * Return Value: The chances of winning of the states of the mask.
+     * Algorithm:
+     * 1. A skipped turn keeps the categories and the score difference, so the
+     * states of a mask depend on each other only through skips.
+     * 2. Moving second with a tie, a skip leads to a toss: solve it first, then
+     * moving first with a tie, which skips into it.
+     * 3. For each lead k, moving first k behind and moving second k ahead skip
+     * into each other; solve the pair together, then moving second k behind,
+     * which skips into moving first k behind.
+     * Reference: None.
+     *********************************************************************
+     */
+    private double[] solveMask(int openMask) {
+        int remaining = MAX_REMAINING[openMask];
+        double[] states = new double[3 * remaining + 2];
+
+        double tie = solveTurn(openMask, 0, false, 0.5).getValue();
+        states[index(remaining, 0, false)] = tie;
+        states[index(remaining, 0, true)] = solveTurn(openMask, 0, true, 1 - tie).getValue();
+
+        for (int lead = 1; lead <= remaining; lead++) {
+            double behind = solvePair(openMask, lead);
+            double ahead = solveTurn(openMask, lead, false, 1 - behind).getValue();
+            states[index(remaining, -lead, true)] = behind;
+            states[index(remaining, lead, false)] = ahead;
+            states[index(remaining, -lead, false)] = solveTurn(openMask, -lead, false, behind).getValue();
+        }
+        return states;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solvePair
+     * Purpose: Solves the pair of states of a mask that skip into each other.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - lead (int): The lead of the player ahead (at least 1).
+     * Return Value: The chance of winning of the player moving first, lead
+     * points behind.
+     * Algorithm:
+     * 1. The chance x behind is the fixed point of g(x) = f(1 - h(1 - x)), where
+     * f and h are the turn values behind and ahead as a function of the value
+     * of a skip.
+     * 2. Both are piecewise linear with slopes the chances of skipping, so take
+     * Newton steps with the product of the slopes until x stops changing.
+     * Reference: None.
+     *********************************************************************
+     */
+    private double solvePair(int openMask, int lead) {
+        double behind = 0.5;
+        for (int step = 0; step < MAX_STEPS; step++) {
+            TurnValues aheadTurn = solveTurn(openMask, lead, false, 1 - behind);
+            TurnValues behindTurn = solveTurn(openMask, -lead, true, 1 - aheadTurn.getValue());
+            double slope = aheadTurn.getSkipChance() * behindTurn.getSkipChance();
+            double next = slope < 1 ? (behindTurn.getValue() - slope * behind) / (1 - slope) : behindTurn.getValue();
+            next = Math.min(1, Math.max(0, next));
+            if (Math.abs(next - behind) <= 1e-12) {
+                return next;
+            }
+            behind = next;
+        }
+        return behind;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solveTurn
+     * Purpose: Works out the chance of winning in every state of one turn.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - scoreDifference (int): The score difference of the player to move.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * - skipValue (double): The chance of winning after skipping the turn.
+     * Return Value: The values of the turn.
+     * Algorithm:
+     * 1. For each final roll, take the applicable open category with the best
+     * chance after the turn, or skip the turn.
+     * 2. Solve the states inside the turn from those values with TurnSolver.
+     * Reference: None.
+     *********************************************************************
+     */
+    private TurnValues solveTurn(int openMask, int scoreDifference, boolean movesFirst, double skipValue) {
+        double[] endValues = new double[ScoreTable.NUM_ROLLS];
+        double[] endSkips = new double[ScoreTable.NUM_ROLLS];
+        for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+            int bits = openMask & ScoreTable.getApplicableMask(rollId);
+            if (bits == 0) {
+                endValues[rollId] = skipValue;
+                endSkips[rollId] = 1;
+                continue;
+            }
+            double best = Double.NEGATIVE_INFINITY;
+            for (; bits != 0; bits &= bits - 1) {
+                int ordinal = Integer.numberOfTrailingZeros(bits);
+                best = Math.max(best, getEndChance(openMask & ~(1 << ordinal),
+                        scoreDifference + ScoreTable.getScore(rollId, ordinal), movesFirst));
+            }
+            endValues[rollId] = best;
+        }
+        return TurnSolver.solve(endValues, endSkips);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: turn
+     * Purpose: Returns the values inside a turn for a state.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - scoreDifference (int): The score difference of the player to move.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * Return Value: The values of the turn.
+     * Algorithm:
+     * 1. Reuse the last values if they are for the same state.
+     * 2. Otherwise, solve the turn with the chance of a skipped turn and
+     * remember it.
+     * Reference: None.
+     *********************************************************************
+     */
+    private TurnValues turn(int openMask, int scoreDifference, boolean movesFirst) {
+        StateTurn turn = lastTurn;
+        if (turn == null || turn.openMask != openMask || turn.scoreDifference != scoreDifference
+                || turn.movesFirst != movesFirst) {
+            double skipValue = getEndChance(openMask, scoreDifference, movesFirst);
+            turn = new StateTurn(openMask, scoreDifference, movesFirst,
+                    solveTurn(openMask, scoreDifference, movesFirst, skipValue));
+            lastTurn = turn;
+        }
+        return turn.values;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkState
+     * Purpose: Validates a state asked for from outside the table.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - scoreDifference (int): The score difference of the player to move.
+     * - movesFirst (boolean): True if the player goes first in the round.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if no category is open, more than
+     * maxOpen are open, or a player moving first is ahead.
+     * Reference: None.
+     *********************************************************************
+     */
+    private void checkState(int openMask, int scoreDifference, boolean movesFirst) {
+        if (openMask <= 0 || openMask >= ExpectimaxTable.NUM_MASKS || !isSolved(openMask)) {
+            throw new IllegalArgumentException("Category set is not solved: " + Integer.toBinaryString(openMask));
+        }
+        if (movesFirst && scoreDifference > 0) {
+            throw new IllegalArgumentException("The player moving first cannot be ahead: " + scoreDifference);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: StateTurn
+     * Purpose: Pairs the values inside a turn with the state they were solved
+     * for.
+     * *********************************************************************
+     */
+    private static final class StateTurn {
+        final int openMask;
+        final int scoreDifference;
+        final boolean movesFirst;
+        final TurnValues values;
+
+        StateTurn(int openMask, int scoreDifference, boolean movesFirst, TurnValues values) {
+            this.openMask = openMask;
+            this.scoreDifference = scoreDifference;
+            this.movesFirst = movesFirst;
+            this.values = values;
+        }
+    }
+}
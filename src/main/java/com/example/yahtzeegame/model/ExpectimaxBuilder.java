@@ -0,0 +1,227 @@
+package com.example.yahtzeegame.model;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * *********************************************************************
+ * Class Name: ExpectimaxBuilder
+ * Purpose: Solves an ExpectimaxTable on a ForkJoinPool. The value of a set of
+ * open categories only depends on the sets with one category fewer, so the
+ * sets are solved in layers by the number of open categories, and the sets
+ * in one layer are split into tasks that run in parallel. The builder reports
+ * progress after each solved set and can be cancelled from another thread.
+ * *********************************************************************
+ */
+public final class ExpectimaxBuilder {
+    // Default number of category sets below which a task is not split any further
+    public static final int DEFAULT_THRESHOLD = 8;
+
+    // Category sets grouped by the number of open categories, each layer in ascending order
+    private static final int[][] LAYERS = new int[ScoreTable.NUM_CATEGORIES + 1][];
+
+    static {
+        int[] sizes = new int[ScoreTable.NUM_CATEGORIES + 1];
+        for (int openMask = 0; openMask < ExpectimaxTable.NUM_MASKS; openMask++) {
+            sizes[Integer.bitCount(openMask)]++;
+        }
+        for (int layer = 0; layer <= ScoreTable.NUM_CATEGORIES; layer++) {
+            LAYERS[layer] = new int[sizes[layer]];
+            sizes[layer] = 0;
+        }
+        for (int openMask = 0; openMask < ExpectimaxTable.NUM_MASKS; openMask++) {
+            int layer = Integer.bitCount(openMask);
+            LAYERS[layer][sizes[layer]++] = openMask;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Interface Name: ProgressListener
+     * Purpose: Receives the progress of a build. It is called from the worker
+     * threads of the pool, so it must be thread-safe.
+     * *********************************************************************
+     */
+    public interface ProgressListener {
+        void onProgress(int solvedMasks, int totalMasks);
+    }
+
+    private final ForkJoinPool pool;
+    private int threshold = DEFAULT_THRESHOLD;
+    private ProgressListener progressListener;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * *********************************************************************
+     * Function Name: ExpectimaxBuilder
+     * Purpose: Creates a builder that runs on the common pool.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Use ForkJoinPool.commonPool.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxBuilder() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: ExpectimaxBuilder
+     * Purpose: Creates a builder that runs on a given pool.
+     * Parameters:
+     * - pool (ForkJoinPool): The pool to run the tasks on.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Store the pool.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxBuilder(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: setThreshold
+     * Purpose: Sets the number of category sets below which a task solves its
+     * sets itself instead of splitting them.
+     * Parameters:
+     * - threshold (int): The threshold (at least 1).
+     * Return Value: This builder.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the threshold is below 1.
+     * 2. Store the threshold.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxBuilder setThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be at least 1: " + threshold);
+        }
+        this.threshold = threshold;
+        return this;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: setProgressListener
+     * Purpose: Sets the listener that is told each time a category set is
+     * solved.
+     * Parameters:
+     * - progressListener (ProgressListener): The listener, or null for none.
+     * Return Value: This builder.
+     * Algorithm:
+     * 1. Store the listener.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxBuilder setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: cancel
+     * Purpose: Asks a running or future build to stop.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Set the cancelled flag; tasks check it before each category set.
+     * Reference: None.
+     *********************************************************************
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isCancelled
+     * Purpose: Checks if the builder was cancelled.
+     * Parameters: None.
+     * Return Value: True if cancel was called.
+     * Algorithm:
+     * 1. Read the cancelled flag.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: build
+     * Purpose: Solves the value of every set of open categories in parallel.
+     * Parameters: None.
+     * Return Value: The solved ExpectimaxTable.
+     * Algorithm:
+     * 1. With no open categories, nothing more can be scored.
+     * 2. For each layer from one open category to all of them, run a task over
+     * the layer on the pool and wait for it, so every layer only reads values
+     * that are already solved.
+     * 3. Throw a CancellationException if the build was cancelled.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxTable build() {
+        DoubleBuffer values = DoubleBuffer.allocate(ExpectimaxTable.NUM_MASKS);
+        AtomicInteger solved = new AtomicInteger(1);
+        for (int layer = 1; layer <= ScoreTable.NUM_CATEGORIES; layer++) {
+            pool.invoke(new LayerTask(values, LAYERS[layer], 0, LAYERS[layer].length, solved));
+            if (cancelled.get()) {
+                throw new CancellationException("Expectimax table build cancelled");
+            }
+        }
+        return new ExpectimaxTable(values);
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: LayerTask
+     * Purpose: Solves a range of the category sets in one layer, splitting it
+     * in halves while it is larger than the threshold.
+     * *********************************************************************
+     */
+    private final class LayerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DoubleBuffer values;
+        private final int[] masks;
+        private final int from;
+        private final int to;
+        private final AtomicInteger solved;
+
+        LayerTask(DoubleBuffer values, int[] masks, int from, int to, AtomicInteger solved) {
+            this.values = values;
+            this.masks = masks;
+            this.from = from;
+            this.to = to;
+            this.solved = solved;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new LayerTask(values, masks, from, middle, solved),
+                        new LayerTask(values, masks, middle, to, solved));
+                return;
+            }
+            for (int i = from; i < to && !cancelled.get(); i++) {
+                values.put(masks[i], ExpectimaxTable.solveMask(values, masks[i]));
+                int solvedMasks = solved.incrementAndGet();
+                if (progressListener != null) {
+                    progressListener.onProgress(solvedMasks, ExpectimaxTable.NUM_MASKS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.yahtzeegame.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * *********************************************************************
+ * Class Name: ExpectimaxStrategy
+ * Purpose: A computer strategy that plays to maximise the expected total
+ * score, using the values of an ExpectimaxTable. Decisions are table
+ * reads: the dice to lock are the multiset with the highest value among those
+ * that can be locked, and the category to score is the one whose points plus
+ * the value of the categories left is highest. Dice that do not make up a
+ * five-dice roll are left to the heuristic strategy.
+ * *********************************************************************
+ */
+public final class ExpectimaxStrategy implements Strategy {
+    private final ExpectimaxTable table;
+
+    /**
+     * *********************************************************************
+     * Function Name: ExpectimaxStrategy
+     * Purpose: Creates a strategy that uses the shared table.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Use ExpectimaxTable.getInstance, which solves the table on first use.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxStrategy() {
+        this(ExpectimaxTable.getInstance());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: ExpectimaxStrategy
+     * Purpose: Creates a strategy that uses a given table.
+     * Parameters:
+     * - table (ExpectimaxTable): The solved table.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Store the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ExpectimaxStrategy(ExpectimaxTable table) {
+        this.table = table;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTable
+     * Purpose: Returns the table the strategy reads.
+     * Parameters: None.
+     * Return Value: The solved table.
+     * Algorithm:
+     * 1. Return the stored table.
+     * Reference: None.
+     *********************************************************************
+     */
+    ExpectimaxTable getTable() {
+        return table;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Decides which of the rolled dice to keep.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. If the dice are not a five-dice roll or no category is open, use the
+     * heuristic strategy.
+     * 2. Look up the best multiset to lock; locking all five dice means standing.
+     * 3. The dice to keep are the locked multiset less the dice already locked.
+     * 4. The target is the category that would be scored when standing, or else
+     * the open category with the highest expected score plus value of the
+     * categories left after rolling.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        int openMask = scoreCard.getOpenMask();
+        int keptKey = ScoreTable.packKey(keptDice);
+        int rollKey = ScoreTable.packKey(helperFunctions.concatenate(keptDice, diceRolls));
+        int keptId = keptKey < 0 ? -1 : DiceCatalogue.getIdForKey(keptKey);
+        int rollId = rollKey < 0 ? -1 : ScoreTable.getRollIdForKey(rollKey);
+        if (openMask == 0 || keptId < 0 || rollId < 0) {
+            return HeuristicStrategy.INSTANCE.getHelp(scoreCard, keptDice, diceRolls, rollsLeft);
+        }
+
+        int keepId = table.getBestKeep(openMask, keptId, rollId, rollsLeft);
+        boolean stand = DiceCatalogue.getSize(keepId) == DiceCatalogue.MAX_DICE;
+        List<Integer> diceToKeep = DiceHistogram.fromPacked(DiceCatalogue.getKey(keepId) - keptKey).toList();
+
+        int ordinal = stand ? table.getBestCategory(openMask, rollId) : -1;
+        if (ordinal < 0) {
+            ordinal = getTargetCategory(openMask, keepId);
+        }
+        return new Help(diceToKeep, Category.values()[ordinal], stand);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Decides which category to score the final dice in.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (List<Integer>): The final dice.
+     * Return Value: The applicable open category with the highest points plus
+     * value of the categories left, or empty if none is applicable.
+     * Algorithm:
+     * 1. If the dice are not a five-dice roll, use the heuristic strategy.
+     * 2. Otherwise, look up the best category in the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Optional<Category> getCategorySelection(ScoreCard scoreCard, List<Integer> dice) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId < 0) {
+            return HeuristicStrategy.INSTANCE.getCategorySelection(scoreCard, dice);
+        }
+        int ordinal = table.getBestCategory(scoreCard.getOpenMask(), rollId);
+        return ordinal < 0 ? Optional.empty() : Optional.of(Category.values()[ordinal]);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTargetCategory
+     * Purpose: Picks the category to aim for after locking dice.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * - keepId (int): The DiceCatalogue id of the locked dice.
+     * Return Value: The ordinal of the open category with the highest expected
+     * score after rolling plus the value of the categories left.
+     * Algorithm:
+     * 1. Read the expected score from the TransitionTable for each open
+     * category and add the value of the mask without it.
+     * Reference: None.
+     *********************************************************************
+     */
+    private int getTargetCategory(int openMask, int keepId) {
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int bits = openMask; bits != 0; bits &= bits - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(bits);
+            double value = TransitionTable.getExpectedScore(keepId, Category.values()[ordinal])
+                    + table.getValue(openMask & ~(1 << ordinal));
+            if (value >= bestValue) {
+                bestValue = value;
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,482 @@
+package com.example.yahtzeegame.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import com.example.yahtzeegame.model.TurnSolver.TurnValues;
+
+/**
+ * *********************************************************************
+ * Class Name: ExpectimaxTable
+ * Purpose: Approximates the best play for a single player who wants the
+ * highest expected total score. The value of every set of open categories is
+ * the expected score still to come from the start of a turn. Within a turn,
+ * the state is the dice locked so far and the number of rolls left; dice that
+ * are kept stay locked for the rest of the turn, as in Game, and the turn is
+ * solved exactly. The approximation is the skipped turn: when the final roll
+ * fits no open category, Game and SimulationEngine leave every category open
+ * and let the other player move, which may take a category. The table cannot
+ * see the other player, so it counts a skip as closing the open category that
+ * is worth the least for no points, much like scratching a box in solitaire
+ * Yahtzee. Counting it as a free replay instead would make missing on purpose
+ * until a near-perfect roll the best play, and games would run for thousands
+ * of rounds.
+ * The value of each category set is stored in the table; the values inside a
+ * turn are worked out from it for one category set at a time and kept until
+ * a different set is asked for.
+ * A solved table can be written to a file and mapped back read-only, so it is
+ * solved once and then opened in milliseconds. The file header holds a
+ * checksum of the scoring rules, and a file written for other rules is
+ * ignored.
+ * *********************************************************************
+ */
+public final class ExpectimaxTable {
+    // Number of sets of open categories; bit i is the category with ordinal i
+    public static final int NUM_MASKS = 1 << ScoreTable.NUM_CATEGORIES;
+
+    // Largest number of rolls left after the first roll of a turn
+    public static final int MAX_ROLLS_LEFT = Strategy.MAX_ROLLS_LEFT;
+
+    // Table file layout: magic, format version, rules checksum, number of masks, then one
+    // big-endian double per mask
+    private static final int FILE_MAGIC = 0x59544258;
+    private static final int FILE_VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+
+    // Expected score still to come from the start of a turn, indexed by the open category mask;
+    // either on the heap or mapped from a table file
+    private final DoubleBuffer values;
+
+    // Values inside a turn for the category set that was asked for last
+    private volatile MaskTurn lastTurn;
+
+    /**
+     * *********************************************************************
+     * Class Name: Holder
+     * Purpose: Builds the shared table the first time it is used.
+     * *********************************************************************
+     */
+    private static final class Holder {
+        static final ExpectimaxTable INSTANCE = build();
+    }
+
+    ExpectimaxTable(DoubleBuffer values) {
+        this.values = values;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getInstance
+     * Purpose: Returns the shared table, solving it on first use.
+     * Parameters: None.
+     * Return Value: The shared ExpectimaxTable.
+     * Algorithm:
+     * 1. Return the table built by the holder class.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static ExpectimaxTable getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: build
+     * Purpose: Solves the value of every set of open categories.
+     * Parameters: None.
+     * Return Value: A new ExpectimaxTable.
+     * Algorithm:
+     * 1. Solve the table in parallel on the common pool with an
+     * ExpectimaxBuilder.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static ExpectimaxTable build() {
+        return new ExpectimaxBuilder().build();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solveMask
+     * Purpose: Solves the value of one set of open categories, given the values
+     * of all smaller sets.
+     * Parameters:
+     * - values (DoubleBuffer): The values solved so far, by mask.
+     * - openMask (int): The open categories.
+     * Return Value: The expected score still to come from the start of a turn.
+     * Algorithm:
+     * 1. Solve the turn with the value of a skipped turn and return the value
+     * of its start.
+     * Reference: None.
+     *********************************************************************
+     */
+    static double solveMask(DoubleBuffer values, int openMask) {
+        return solveTurn(values, openMask, skipValue(values, openMask)).getValue();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: skipValue
+     * Purpose: Works out the approximate value of skipping a turn. Game keeps
+     * every category open after a skip, so this is a stand-in for the
+     * categories the other player may take, not the value of the real rules.
+     * Parameters:
+     * - values (DoubleBuffer): The values of the smaller category sets.
+     * - openMask (int): The open categories (not empty).
+     * Return Value: The highest value of the sets with one open category
+     * closed for no points.
+     * Algorithm:
+     * 1. For each open category, read the value of the mask without it and
+     * keep the highest.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static double skipValue(DoubleBuffer values, int openMask) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int bits = openMask; bits != 0; bits &= bits - 1) {
+            best = Math.max(best, values.get(openMask & ~Integer.lowestOneBit(bits)));
+        }
+        return best;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solveTurn
+     * Purpose: Works out the value of every state of one turn.
+     * Parameters:
+     * - values (DoubleBuffer): The values of the smaller category sets.
+     * - openMask (int): The open categories.
+     * - skipValue (double): The value of skipping the turn.
+     * Return Value: The values of the turn.
+     * Algorithm:
+     * 1. For each final roll, take the best open category that applies, scoring
+     * its points plus the value of the categories left, or skip the turn.
+     * 2. Solve the states inside the turn from those values with TurnSolver.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static TurnValues solveTurn(DoubleBuffer values, int openMask, double skipValue) {
+        double[] endValues = new double[ScoreTable.NUM_ROLLS];
+        double[] endSkips = new double[ScoreTable.NUM_ROLLS];
+        for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+            int bits = openMask & ScoreTable.getApplicableMask(rollId);
+            if (bits == 0) {
+                endValues[rollId] = skipValue;
+                endSkips[rollId] = 1;
+                continue;
+            }
+            double best = Double.NEGATIVE_INFINITY;
+            for (; bits != 0; bits &= bits - 1) {
+                int ordinal = Integer.numberOfTrailingZeros(bits);
+                best = Math.max(best, ScoreTable.getScore(rollId, ordinal) + values.get(openMask & ~(1 << ordinal)));
+            }
+            endValues[rollId] = best;
+        }
+
+        return TurnSolver.solve(endValues, endSkips);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getValue
+     * Purpose: Returns the expected score still to come from the start of a turn.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * Return Value: The expected score with best play, skips approximated.
+     * Algorithm:
+     * 1. Read the value from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getValue(int openMask) {
+        return values.get(openMask);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKeepValue
+     * Purpose: Returns the expected score still to come after locking dice and
+     * rolling the rest.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - keptId (int): The DiceCatalogue id of the locked dice.
+     * - rollsLeft (int): The rolls left after the coming roll (0-2).
+     * Return Value: The expected score with best play, skips approximated.
+     * Algorithm:
+     * 1. Read the value from the values of the turn.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getKeepValue(int openMask, int keptId, int rollsLeft) {
+        TurnSolver.checkRollsLeft(rollsLeft);
+        return turn(openMask).keepValues[rollsLeft][keptId];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getStandValue
+     * Purpose: Returns the expected score still to come after ending the turn on
+     * a roll.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - rollId (int): The ScoreTable roll id of the final roll.
+     * Return Value: The points of the best category plus the value of the
+     * categories left, or the value of a skipped turn.
+     * Algorithm:
+     * 1. Read the value of locking all five dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getStandValue(int openMask, int rollId) {
+        return turn(openMask).keepValues[0][TurnSolver.FIRST_ROLL_ID + rollId];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestKeep
+     * Purpose: Picks the dice to lock after a roll.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rollId (int): The ScoreTable roll id of all five dice.
+     * - rollsLeft (int): The rolls left in the turn (0-2).
+     * Return Value: The DiceCatalogue id of the dice to lock; an id of five dice
+     * means standing on the roll.
+     * Algorithm:
+     * 1. Take the best multiset to lock from the values of the turn with
+     * TurnSolver.getBestKeep.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getBestKeep(int openMask, int keptId, int rollId, int rollsLeft) {
+        return TurnSolver.getBestKeep(turn(openMask), keptId, rollId, rollsLeft);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTurnValues
+     * Purpose: Solves the values inside a turn for a set of open categories, for
+     * callers that keep the values of many sets themselves.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * Return Value: New values of the turn; they are not remembered here.
+     * Algorithm:
+     * 1. Solve the turn with the value of a skipped turn.
+     * Reference: None.
+     *********************************************************************
+     */
+    TurnValues getTurnValues(int openMask) {
+        return solveTurn(values, openMask, skipValue(values, openMask));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestCategory
+     * Purpose: Picks the category to score a final roll in.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - rollId (int): The ScoreTable roll id of the final roll.
+     * Return Value: The ordinal of the best applicable open category, or -1 if
+     * none applies.
+     * Algorithm:
+     * 1. For each applicable open category, add its points to the value of the
+     * categories left and keep the highest; ties go to the higher ordinal.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getBestCategory(int openMask, int rollId) {
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int bits = openMask & ScoreTable.getApplicableMask(rollId); bits != 0; bits &= bits - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(bits);
+            double value = ScoreTable.getScore(rollId, ordinal) + values.get(openMask & ~(1 << ordinal));
+            if (value >= bestValue) {
+                bestValue = value;
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: write
+     * Purpose: Saves the values of the table to a file that can be mapped back
+     * with open.
+     * Parameters:
+     * - file (File): The file to write; it is replaced if it exists.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Write the header and the values to a new temporary file with a unique
+     * name in the same directory.
+     * 2. Rename the temporary file over the file, so other processes never map
+     * a half-written table; delete it if writing or renaming fails.
+     * Reference: None.
+     *********************************************************************
+     */
+    public void write(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + NUM_MASKS * Double.BYTES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(FILE_MAGIC).putInt(FILE_VERSION).putLong(rulesChecksum()).putInt(NUM_MASKS);
+        for (int openMask = 0; openMask < NUM_MASKS; openMask++) {
+            buffer.putDouble(values.get(openMask));
+        }
+        buffer.flip();
+
+        // Each writer gets its own temporary file, so processes building at once never share one
+        File directory = file.getAbsoluteFile().getParentFile();
+        File temporary = File.createTempFile("." + file.getName() + ".", ".tmp", directory);
+        boolean replaced = false;
+        try {
+            try (RandomAccessFile output = new RandomAccessFile(temporary, "rw")) {
+                FileChannel channel = output.getChannel();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            replaced = temporary.renameTo(file);
+        } finally {
+            if (!replaced) {
+                temporary.delete();
+            }
+        }
+        if (!replaced) {
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: open
+     * Purpose: Maps a table file read-only, without copying its values to the
+     * heap. Processes that map the same file share its pages.
+     * Parameters:
+     * - file (File): The table file.
+     * Return Value: The table, or empty if the file does not exist or was written
+     * by another format version or for other scoring rules.
+     * Algorithm:
+     * 1. Map the file read-only.
+     * 2. Check the magic number, version, rules checksum, size and number of
+     * masks in the header.
+     * 3. View the values after the header as doubles.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static Optional<ExpectimaxTable> open(File file) throws IOException {
+        if (!file.isFile()) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer;
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            FileChannel channel = input.getChannel();
+            if (channel.size() != HEADER_SIZE + (long) NUM_MASKS * Double.BYTES) {
+                return Optional.empty();
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt(0) != FILE_MAGIC || buffer.getInt(4) != FILE_VERSION
+                || buffer.getLong(8) != rulesChecksum() || buffer.getInt(16) != NUM_MASKS) {
+            return Optional.empty();
+        }
+        buffer.position(HEADER_SIZE);
+        return Optional.of(new ExpectimaxTable(buffer.slice().order(ByteOrder.BIG_ENDIAN).asDoubleBuffer()));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: openOrBuild
+     * Purpose: Maps a table file, solving and writing the table first if the
+     * file is missing or stale.
+     * Parameters:
+     * - file (File): The table file.
+     * Return Value: The table.
+     * Algorithm:
+     * 1. Open the file if it holds a table for the current rules.
+     * 2. Otherwise, build the table, write it to the file and map it back.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static ExpectimaxTable openOrBuild(File file) throws IOException {
+        Optional<ExpectimaxTable> table = open(file);
+        if (table.isPresent()) {
+            return table.get();
+        }
+        ExpectimaxTable built = build();
+        built.write(file);
+        return open(file).orElse(built);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rulesChecksum
+     * Purpose: Fingerprints the scoring rules the table is solved for.
+     * Parameters: None.
+     * Return Value: A CRC-32 of the rules.
+     * Algorithm:
+     * 1. Feed the table sizes, the rolls left and, for every roll, its dice, its
+     * applicable categories and its score in each category to a CRC-32.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static long rulesChecksum() {
+        ByteBuffer rules = ByteBuffer.allocate(4 * (3 + ScoreTable.NUM_ROLLS * (2 + ScoreTable.NUM_CATEGORIES)));
+        rules.putInt(ScoreTable.NUM_ROLLS).putInt(ScoreTable.NUM_CATEGORIES).putInt(MAX_ROLLS_LEFT);
+        for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+            rules.putInt(ScoreTable.getKey(rollId)).putInt(ScoreTable.getApplicableMask(rollId));
+            for (int ordinal = 0; ordinal < ScoreTable.NUM_CATEGORIES; ordinal++) {
+                rules.putInt(ScoreTable.getScore(rollId, ordinal));
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(rules.array(), 0, rules.position());
+        return crc.getValue();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: turn
+     * Purpose: Returns the values inside a turn for a set of open categories.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * Return Value: The values of the turn.
+     * Algorithm:
+     * 1. Reuse the last values if they are for the same mask.
+     * 2. Otherwise, solve the turn with the value of a skipped turn
+     * and remember it.
+     * Reference: None.
+     *********************************************************************
+     */
+    private TurnValues turn(int openMask) {
+        MaskTurn turn = lastTurn;
+        if (turn == null || turn.openMask != openMask) {
+            turn = new MaskTurn(openMask, solveTurn(values, openMask, skipValue(values, openMask)));
+            lastTurn = turn;
+        }
+        return turn.values;
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: MaskTurn
+     * Purpose: Pairs the values inside a turn with the category set they were
+     * solved for.
+     * *********************************************************************
+     */
+    private static final class MaskTurn {
+        final int openMask;
+        final TurnValues values;
+
+        MaskTurn(int openMask, TurnValues values) {
+            this.openMask = openMask;
+            this.values = values;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static com.example.yahtzeegame.model.Category.CATEGORY_NAMES;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -12,26 +13,95 @@ import java.util.Queue;
 import java.util.stream.Collectors;
 
 public class Game {
+    // Number of dice, and the mask with one bit per die position
+    private static final int NUM_DICE = 5;
+    private static final int ALL_DICE = (1 << NUM_DICE) - 1;
+
     private ScoreCard scoreCard;
     private int currentRound;
     private List<Player> players;
-    private List<Die> dice = Arrays.asList(new Die().roll(), new Die().roll(), new Die().roll(), new Die().roll(),
-            new Die().roll());
+    private RandomSource randomSource;
+    // Source of the tie-breaker tosses, split from the dice source so tosses do not change the dice
+    private RandomSource tossSource;
+    // Seed and decisions of the game, when it was created from a seed
+    private GameRecord record;
+    // Dice of the current roll: face values by position and one bit per position for each flag
+    private int[] diceValues;
+    private int lockedMask;
+    private int markedMask;
+    private int helpMask;
+    // Die objects handed to the UI, rebuilt from the values and masks when they change
+    private List<Die> diceView;
     private Queue<Player> playerQueue = new LinkedList<>();
     private int rollCount = 1;
 
+    // Computer that gives the help for this game, so its help cache lasts for the whole game
+    private Computer helpAdvisor = new Computer();
+
     public Game(ScoreCard scoreCard, int currentRound, List<Player> players) {
+        this(scoreCard, currentRound, players, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: Game
+     * Purpose: Creates a game whose dice come from a given random source, so a
+     * seeded source replays the same dice.
+     * Parameters:
+     * ScoreCard scoreCard - the scorecard of the game.
+     * int currentRound - the current round.
+     * List<Player> players - the players.
+     * RandomSource randomSource - the source of every roll of the game.
+     * Return Value: None
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if there is no random source.
+     * 2. Store the arguments, roll the first dice and work out the player queue.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game(ScoreCard scoreCard, int currentRound, List<Player> players, RandomSource randomSource) {
+        if (randomSource == null) {
+            throw new IllegalArgumentException("No random source");
+        }
         this.scoreCard = scoreCard;
         this.currentRound = currentRound;
         this.players = players;
+        this.randomSource = randomSource;
+        this.tossSource = randomSource.split();
+        this.diceValues = rollValues();
         this.playerQueue = calculatePlayerQueue();
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: Game
+     * Purpose: Creates a game whose dice come from a seed and which records its
+     * decisions, so it can be replayed from its GameRecord.
+     * Parameters:
+     * ScoreCard scoreCard - the scorecard of the game.
+     * int currentRound - the current round.
+     * List<Player> players - the players.
+     * long seed - the seed of every roll of the game.
+     * Return Value: None
+     * Algorithm:
+     * 1. Create the game with a random source seeded with the seed.
+     * 2. Start a record with the seed and the serialized game.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game(ScoreCard scoreCard, int currentRound, List<Player> players, long seed) {
+        this(scoreCard, currentRound, players, new SplittableRandomSource(seed));
+        this.record = new GameRecord(seed, serialize());
+    }
+
     public Game(ScoreCard scoreCard, int currentRound, List<Player> players, Queue<Player> playerQueue) {
         this.scoreCard = scoreCard;
         this.currentRound = currentRound;
         this.players = players;
         this.playerQueue = playerQueue;
+        this.randomSource = ThreadLocalRandomSource.INSTANCE;
+        this.tossSource = randomSource.split();
+        this.diceValues = rollValues();
     }
 
     public Game(Game other) {
@@ -40,7 +110,15 @@ public class Game {
         this.currentRound = other.currentRound;
         this.playerQueue = other.playerQueue;
         this.rollCount = other.rollCount;
-        this.dice = other.dice;
+        this.randomSource = other.randomSource;
+        this.tossSource = other.tossSource;
+        this.record = other.record;
+        this.diceValues = other.diceValues.clone();
+        this.lockedMask = other.lockedMask;
+        this.markedMask = other.markedMask;
+        this.helpMask = other.helpMask;
+        this.diceView = other.diceView;
+        this.helpAdvisor = other.helpAdvisor;
     }
 
     /**
@@ -52,15 +130,34 @@ public class Game {
      * String serial - the string representation of a game state.
      * Return Value: Game - the deserialized game object.
      * Algorithm:
+     * 1. Deserialize the game with a new computer that uses the default
+     * strategy.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static Game deserialize(String serial) {
+        return deserialize(serial, new Computer());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: deserialize
+     * Purpose: Deserializes a game in which the given computer plays, so a
+     * loaded game keeps the strategy that was chosen for it.
+     * Parameters:
+     * String serial - the string representation of a game state.
+     * Computer computer - the computer player of the loaded game.
+     * Return Value: Game - the deserialized game object.
+     * Algorithm:
      * 1. Split the serialized string into lines.
-     * 2. Extract the round number and scorecard data from the string.
+     * 2. Extract the round number and scorecard data from the string, giving
+     * the computer's scores to the given computer.
      * 3. Create a new Game object using the parsed information.
      * Reference: None.
      *********************************************************************
      */
-    public static Game deserialize(String serial) {
+    public static Game deserialize(String serial, Computer computer) {
         Human human = new Human();
-        Computer computer = new Computer();
         List<Player> players = Arrays.asList(human, computer);
 
         List<String> lines = Arrays.asList(serial.split("\n"));
@@ -69,7 +166,6 @@ public class Game {
         for (String line : lines) {
             if (line.startsWith("Round: ")) {
                 roundNumber = Integer.parseInt(line.substring(7).trim());
-                System.out.println("Round number: " + roundNumber);
                 break;
             }
         }
@@ -84,12 +180,32 @@ public class Game {
 
         List<String> scorecardLines = lines.subList(scorecardStart, lines.size());
         String scorecardSerial = String.join("\n", scorecardLines);
-        System.out.println("Scorecard serial: " + scorecardSerial);
         ScoreCard scoreCard = ScoreCard.deserialize(scorecardSerial, human, computer);
 
         return new Game(scoreCard, roundNumber, players);
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: deserialize
+     * Purpose: Deserializes a game whose dice come from a seed, so that it is
+     * recorded and can be replayed.
+     * Parameters:
+     * String serial - the string representation of a game state.
+     * long seed - the seed of every roll of the game.
+     * Return Value: Game - the deserialized game object, recording from the
+     * loaded state.
+     * Algorithm:
+     * 1. Deserialize the game as usual.
+     * 2. Create a seeded, recorded game with its scorecard, round and players.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static Game deserialize(String serial, long seed) {
+        Game loaded = deserialize(serial);
+        return new Game(loaded.scoreCard, loaded.currentRound, loaded.players, seed);
+    }
+
     /**
      * *********************************************************************
      * Function Name: getScoreCard
@@ -221,20 +337,77 @@ public class Game {
      * Player player2 - the second player.
      * Return Value: Game - the current Game instance with updated player order.
      * Algorithm:
-     * 1. If a tiebreaker is needed, add players to the player queue.
-     * 2. Return the updated Game object with the new player order.
+     * 1. Throw an IllegalArgumentException if either player is not in the game,
+     * since the order is recorded by the index of each player.
+     * 2. If a tiebreaker is needed, add players to the player queue and record
+     * the order.
+     * 3. Return the updated Game object with the new player order.
      * Reference: None.
      *********************************************************************
      */
     public Game setPlayerOrder(Player player1, Player player2) {
+        int first = indexOfPlayer(player1);
+        int second = indexOfPlayer(player2);
+        if (first < 0 || second < 0) {
+            Player missing = first < 0 ? player1 : player2;
+            throw new IllegalArgumentException("Player is not in the game"
+                    + (missing != null ? ": " + missing.getName() : ""));
+        }
         if (needsTieBreaker()) {
             playerQueue.add(player1);
             playerQueue.add(player2);
+            record(GameRecord.order(first, second));
         }
 
         return this;
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: tossForOrder
+     * Purpose: Settles a tie-breaker without the screen, for games played by
+     * computers alone.
+     * Parameters: None
+     * Return Value: Game - the current Game instance, with the player order set
+     * if a tie-breaker was needed.
+     * Algorithm:
+     * 1. If no tie-breaker is needed, return the game as is.
+     * 2. Toss for the players in their order in the game with tossForFirst.
+     * 3. Set and record the player order with the winner first.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game tossForOrder() {
+        if (!needsTieBreaker()) {
+            return this;
+        }
+        int first = tossForFirst(tossSource);
+        return setPlayerOrder(players.get(first), players.get(1 - first));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: tossForFirst
+     * Purpose: Decides which of two players goes first on equal scores.
+     * Parameters:
+     * RandomSource tossSource - the source of the tosses.
+     * Return Value: int - 0 if the first player goes first, 1 otherwise.
+     * Algorithm:
+     * 1. The first player and then the second toss a die, until the tosses
+     * differ; the higher toss goes first.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int tossForFirst(RandomSource tossSource) {
+        while (true) {
+            int first = tossSource.rollDie();
+            int second = tossSource.rollDie();
+            if (first != second) {
+                return first > second ? 0 : 1;
+            }
+        }
+    }
+
     /**
      * *********************************************************************
      * Function Name: reRollDice
@@ -249,12 +422,11 @@ public class Game {
      *********************************************************************
      */
     public Game reRollDice() {
-        List<Die> rolledDice = dice.stream().filter(die -> !die.isLocked()).collect(Collectors.toList());
         if (rollCount < 3) {
             Log.getInstance().log(
                     getCurrentPlayer().map(Player::getName).orElse("Player")
                             + " rolls "
-                            + rolledDice.stream().map(Die::getValue).collect(Collectors.toList()));
+                            + valuesOf(~lockedMask));
         }
 
         if (currentPlayerIsComputer()) {
@@ -277,39 +449,56 @@ public class Game {
      * Return Value: Game - the updated game state after processing the roll.
      * Algorithm:
      * 1. Separate the dice into locked, marked-for-lock, and unkept dice.
-     * 2. Keep the marked dice and re-roll the unkept ones.
-     * 3. Return the updated game state with the new dice values.
+     * 2. Record the dice kept.
+     * 3. Keep the marked dice and re-roll the unkept ones together from one
+     * random draw.
+     * 4. Return the updated game state with the new dice values.
      * Reference: None.
      *********************************************************************
      */
     private Game processRoll() {
 
-        List<Die> lockedDice = dice.stream().filter(Die::isLocked).collect(Collectors.toList());
-        List<Die> markedForLock = dice.stream().filter(Die::isMarkedForLock).collect(Collectors.toList());
-        List<Die> unkeptDice = dice.stream().filter(die -> !die.isMarkedForLock() && !die.isLocked())
-                .collect(Collectors.toList());
-
         Log.getInstance().log(getCurrentPlayer()
                 .map(Player::getName)
                 .orElse("Player")
-                + " keeps " + markedForLock.stream().map(Die::getValue).collect(Collectors.toList()) + " and re-rolls "
-                + unkeptDice.stream().map(Die::getValue).collect(Collectors.toList()));
+                + " keeps " + valuesOf(markedMask) + " and re-rolls "
+                + valuesOf(~(markedMask | lockedMask)));
 
-        dice = new LinkedList<>();
-        dice.addAll(lockedDice);
-        for (Die die : markedForLock) {
-            dice.add(die.lock());
-        }
+        record(GameRecord.keep(markedMask));
+        keepAndRoll();
         Log.getInstance().log(getCurrentPlayer().map(Player::getName).orElse("Player") + "'s dice so far: "
-                + dice.stream().map(Die::getValue).collect(Collectors.toList()) + "\n");
+                + valuesOf(lockedMask) + "\n");
 
-        for (int i = 0; i < unkeptDice.size(); i++) {
-            dice.add(new Die().roll());
-        }
+        return this;
+    }
 
-        rollCount++;
+    /**
+     * *********************************************************************
+     * Function Name: keepAndRoll
+     * Purpose: Locks the marked dice and re-rolls the rest, without logging.
+     * Parameters: None
+     * Return Value: None
+     * Algorithm:
+     * 1. Move the locked dice to the front, followed by the marked dice, and
+     * lock both.
+     * 2. Re-roll the other dice together from one random draw and count the
+     * roll.
+     * Reference: None.
+     *********************************************************************
+     */
+    private void keepAndRoll() {
+        // Locked dice keep their flags and move to the front, followed by the marked dice, which get locked
+        int numLocked = Integer.bitCount(lockedMask);
+        int numKept = numLocked + Integer.bitCount(markedMask);
+        permute(keptFirstOrder(lockedMask, markedMask));
+        lockedMask = (1 << numKept) - 1;
+        markedMask = 0;
+        helpMask &= (1 << numLocked) - 1;
+
+        DiceRoller.rollFaces(randomSource, diceValues, numKept, NUM_DICE - numKept);
+        diceView = null;
 
-        return this;
+        rollCount++;
     }
 
     /**
@@ -319,7 +508,8 @@ public class Game {
      * Parameters: None
      * Return Value: Game - the updated game state after the computer's roll.
      * Algorithm:
-     * 1. Get the computer's strategy for keeping and re-rolling dice.
+     * 1. Tell the computer whether it goes first in the round, then get its
+     * decision on keeping and re-rolling dice once.
      * 2. Based on the computer's decision, either proceed with the roll or select a
      * category.
      * 3. Return the updated game state.
@@ -328,47 +518,39 @@ public class Game {
      */
     private Game processComputerRoll() {
         Computer computer = (Computer) playerQueue.peek();
-        List<Integer> keptDice = getKeptDice();
-        List<Integer> unkeptDice = getUnkeptDice();
+        DiceHistogram keptDice = getKeptHistogram();
+        DiceHistogram unkeptDice = getUnkeptHistogram();
 
         assert computer != null;
 
-        Help help = computer.getHelp(scoreCard, keptDice, unkeptDice);
-        if (rollCount < 3) {
-            Log.getInstance().log("Computer's target category: " + CATEGORY_NAMES.get(help.getCategory()));
+        computer.setMovesFirst(playerQueue.size() == players.size());
+        int rollsLeft = Math.max(3 - rollCount, 0);
+        Decision decision = computer.decide(scoreCard, keptDice, unkeptDice, rollsLeft);
+        if (rollCount < 3 && decision.getTargetCategory() != null) {
+            Log.getInstance().log("Computer's target category: " + CATEGORY_NAMES.get(decision.getTargetCategory()));
         }
 
-        if (computer.wantsToStand(scoreCard, keptDice, unkeptDice) || rollCount >= 3) {
-            List<Integer> diceValues = dice.stream().map(Die::getValue).collect(Collectors.toList());
-            Category selectedCategory = computer.getCategorySelection(scoreCard, diceValues);
+        if (decision.shouldStand() || rollCount >= 3) {
+            Category selectedCategory = computer.getCategorySelection(scoreCard, getDiceHistogram());
             return selectCategory(selectedCategory);
         } else {
-            List<Integer> diceToKeep = computer.getDiceToKeep(scoreCard, unkeptDice, keptDice);
+            DiceHistogram diceToKeep = DiceHistogram.of(decision.getDiceToKeep());
 
             int[] diceKeepValues = new int[7];
-            for (int dieValue : diceToKeep) {
-                diceKeepValues[dieValue]++;
+            for (int face = 1; face <= 6; face++) {
+                diceKeepValues[face] = diceToKeep.count(face);
             }
 
-            List<Die> newDice = dice.stream().filter(Die::isLocked).collect(Collectors.toList());
-            List<Die> unkeptDiceObjects = dice.stream().filter(die -> !die.isLocked()).collect(Collectors.toList());
-
-            List<Die> diceToReRoll = new ArrayList<>();
-
-            for (Die die : unkeptDiceObjects) {
-                if (diceKeepValues[die.getValue()] > 0) {
-                    newDice.add(die.markForLock());
-                    diceKeepValues[die.getValue()]--;
-                } else {
-                    diceToReRoll.add(die);
+            int keptMask = 0;
+            for (int i = 0; i < NUM_DICE; i++) {
+                if ((lockedMask & (1 << i)) == 0 && diceKeepValues[diceValues[i]] > 0) {
+                    keptMask |= 1 << i;
+                    diceKeepValues[diceValues[i]]--;
                 }
             }
 
-            for (Die die : diceToReRoll) {
-                newDice.add(die);
-            }
-
-            dice = newDice;
+            // processRoll moves the locked dice first, then the dice to keep, then the dice to re-roll
+            markedMask = keptMask;
             return processRoll();
         }
 
@@ -392,12 +574,9 @@ public class Game {
         if (playerQueue.isEmpty()) {
             return this;
         }
-        List<Integer> rolledDiceValues = dice.stream().filter(die -> !die.isLocked()).map(Die::getValue)
-                .collect(Collectors.toList());
-        Log.getInstance().log(getCurrentPlayer().map(Player::getName).orElse("Player") + " rolls " + rolledDiceValues);
+        Log.getInstance().log(getCurrentPlayer().map(Player::getName).orElse("Player") + " rolls " + valuesOf(~lockedMask));
 
-        List<Integer> diceValues = dice.stream().map(Die::getValue).collect(Collectors.toList());
-        return playTurn(diceValues, category);
+        return playTurn(valuesOf(ALL_DICE), category);
     }
 
     /**
@@ -417,12 +596,9 @@ public class Game {
             return this;
         }
 
-        List<Integer> rolledDiceValues = dice.stream().filter(die -> !die.isLocked()).map(Die::getValue)
-                .collect(Collectors.toList());
-        Log.getInstance().log(getCurrentPlayer().map(Player::getName).orElse("Player") + " rolls " + rolledDiceValues);
+        Log.getInstance().log(getCurrentPlayer().map(Player::getName).orElse("Player") + " rolls " + valuesOf(~lockedMask));
 
-        List<Integer> diceValues = dice.stream().map(Die::getValue).collect(Collectors.toList());
-        return playTurn(diceValues, null);
+        return playTurn(valuesOf(ALL_DICE), null);
     }
 
     /**
@@ -434,8 +610,9 @@ public class Game {
      * Category category - the category to be selected.
      * Return Value: Game - the updated game state after the turn.
      * Algorithm:
-     * 1. Validate the category selection and add the entry to the scorecard.
-     * 2. Update the score and move to the next player's turn.
+     * 1. Record the dice and the category.
+     * 2. Validate the category selection and add the entry to the scorecard.
+     * 3. Update the score and move to the next player's turn.
      * Reference: None.
      *********************************************************************
      */
@@ -444,12 +621,19 @@ public class Game {
             return this;
         }
 
-        Player currentPlayer = playerQueue.poll();
-        List<Category> applicableCategories = scoreCard.getApplicableCategories(dice);
-        if (category != null && applicableCategories.contains(category)) {
+        Player currentPlayer = playerQueue.peek();
+        int round = currentRound;
+        if (record != null) {
+            int[] values = new int[NUM_DICE];
+            for (int i = 0; i < values.length && i < dice.size(); i++) {
+                values[i] = dice.get(i);
+            }
+            record(GameRecord.turn(values, category));
+        }
+
+        if (endTurn(dice, category)) {
             String categoryString = CATEGORY_NAMES.get(category);
             Log.getInstance().log(currentPlayer.getName() + " selects " + categoryString + "\n");
-            scoreCard = scoreCard.addEntry(category, currentRound, currentPlayer, dice);
             int points = scoreCard.getEntry(category).get().getPoints();
             Log.getInstance()
                     .log(currentPlayer.getName() + " scores " + points + " points for " + categoryString + "\n");
@@ -459,9 +643,7 @@ public class Game {
 
         Log.getInstance().log("End of " + currentPlayer.getName() + "'s turn\n");
 
-        if (playerQueue.isEmpty() && !isOver()) {
-            currentRound++;
-            playerQueue = calculatePlayerQueue();
+        if (currentRound != round) {
             Log.getInstance().log("Starting round " + currentRound);
             if (needsTieBreaker()) {
                 Log.getInstance().log("Tiebreaker needed as two or more players have the same score" + "\n");
@@ -476,10 +658,59 @@ public class Game {
             Log.getInstance().log(getResult());
         }
 
-        this.dice = getNewDice();
+        return this;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: endTurn
+     * Purpose: Scores the turn of the current player and sets up the next turn,
+     * without logging.
+     * Parameters:
+     * List<Integer> dice - the dice values scored.
+     * Category category - the category selected, or null to skip.
+     * Return Value: boolean - true if the category was applicable and scored.
+     * Algorithm:
+     * 1. Take the current player off the queue and add the entry if the
+     * category applies to the dice.
+     * 2. If the round is over and the game is not, start the next round.
+     * 3. Roll new dice for the next turn.
+     * Reference: None.
+     *********************************************************************
+     */
+    private boolean endTurn(List<Integer> dice, Category category) {
+        Player currentPlayer = playerQueue.poll();
+        boolean scored = category != null && scoreCard.getApplicableCategories(dice).contains(category);
+        if (scored) {
+            scoreCard = scoreCard.addEntry(category, currentRound, currentPlayer, dice);
+        }
+
+        if (playerQueue.isEmpty() && !isOver()) {
+            currentRound++;
+            playerQueue = calculatePlayerQueue();
+        }
+
+        rollNewDice();
         this.rollCount = 1;
+        return scored;
+    }
 
-        return this;
+    /**
+     * *********************************************************************
+     * Function Name: playTurn
+     * Purpose: Plays a turn for the current player with the dice given as a
+     * histogram.
+     * Parameters:
+     * DiceHistogram dice - the dice rolled.
+     * Category category - the category to be selected.
+     * Return Value: Game - the updated game state after the turn.
+     * Algorithm:
+     * 1. Convert the histogram to a list and play the turn with it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game playTurn(DiceHistogram dice, Category category) {
+        return playTurn(dice.toList(), category);
     }
 
     /**
@@ -606,14 +837,25 @@ public class Game {
      * Function Name: getDice
      * Purpose: Retrieves the list of dice used in the current game.
      * Parameters: None
-     * Return Value: List<Die> - the current list of dice.
+     * Return Value: List<Die> - a read-only list of the current dice.
      * Algorithm:
-     * 1. Return the list of dice.
+     * 1. If the dice changed since the last call, build the list from the shared
+     * Die instances for each value and its flags.
+     * 2. Return the list of dice.
      * Reference: None.
      *********************************************************************
      */
     public List<Die> getDice() {
-        return dice;
+        if (diceView == null) {
+            Die[] dice = new Die[NUM_DICE];
+            for (int i = 0; i < NUM_DICE; i++) {
+                int bit = 1 << i;
+                dice[i] = Die.of(diceValues[i], (lockedMask & bit) != 0, (markedMask & bit) != 0,
+                        (helpMask & bit) != 0);
+            }
+            diceView = Collections.unmodifiableList(Arrays.asList(dice));
+        }
+        return diceView;
     }
 
     /**
@@ -628,29 +870,29 @@ public class Game {
      * 2. If the current die is locked, preserve its state.
      * 3. If the current player is the computer or if the roll count exceeds 3, mark
      * the die as not locked.
-     * 4. Return the updated game state.
+     * 4. Record the new dice and flags, and return the updated game state.
      * Reference: None.
      *********************************************************************
      */
     public Game setDice(List<Die> dice) {
         // If current player is computer set markForLock as false
-        List<Die> newDice = new ArrayList<>();
-        for (int i = 0; i < this.dice.size(); i++) {
-
-            Die currentDie = this.dice.get(i);
+        boolean clearMarks = currentPlayerIsComputer() || rollCount >= 3;
+        for (int i = 0; i < NUM_DICE; i++) {
+            int bit = 1 << i;
             Die newDie = dice.get(i);
 
-            if (currentDie.isLocked() && !newDie.isLocked()) {
-                newDie = currentDie;
-            }
-
-            if (currentPlayerIsComputer() || rollCount >= 3) {
-                newDie = newDie.setMarkedForLock(false);
+            // A locked die stays as it is
+            if ((lockedMask & bit) != 0 && !newDie.isLocked()) {
+                continue;
             }
 
-            newDice.add(newDie);
+            diceValues[i] = newDie.getValue();
+            lockedMask = newDie.isLocked() ? lockedMask | bit : lockedMask & ~bit;
+            markedMask = newDie.isMarkedForLock() && !clearMarks ? markedMask | bit : markedMask & ~bit;
+            helpMask = newDie.isMarkedForHelp() ? helpMask | bit : helpMask & ~bit;
         }
-        this.dice = newDice;
+        diceView = null;
+        record(GameRecord.dice(diceValues, lockedMask, markedMask, helpMask));
         return this;
     }
 
@@ -686,6 +928,54 @@ public class Game {
         return rollCount;
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: getRandomSource
+     * Purpose: Retrieves the source of the dice of the game.
+     * Parameters: None
+     * Return Value: RandomSource - the random source of the game.
+     * Algorithm:
+     * 1. Return the random source.
+     * Reference: None.
+     *********************************************************************
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTossSource
+     * Purpose: Retrieves the source of the tie-breaker tosses. It is split from
+     * the dice source, so the dice of a replayed game do not depend on how many
+     * tosses a tie took.
+     * Parameters: None
+     * Return Value: RandomSource - the random source of the tosses.
+     * Algorithm:
+     * 1. Return the toss source.
+     * Reference: None.
+     *********************************************************************
+     */
+    public RandomSource getTossSource() {
+        return tossSource;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRecord
+     * Purpose: Retrieves the record of the seed and decisions of the game.
+     * Parameters: None
+     * Return Value: Optional<GameRecord> - the record, or empty if the game was
+     * not created from a seed.
+     * Algorithm:
+     * 1. Return the record wrapped in an Optional.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Optional<GameRecord> getRecord() {
+        return Optional.ofNullable(record);
+    }
+
     /**
      * *********************************************************************
      * Function Name: getPlayers
@@ -725,13 +1015,12 @@ public class Game {
      * Parameters: None
      * Return Value: List<Integer> - the list of values of the locked dice.
      * Algorithm:
-     * 1. Filter the dice list to keep only the locked dice.
-     * 2. Return a list of the values of the locked dice.
+     * 1. Collect the values of the dice in the locked mask.
      * Reference: None.
      *********************************************************************
      */
     public List<Integer> getKeptDice() {
-        return dice.stream().filter(Die::isLocked).map(Die::getValue).collect(Collectors.toList());
+        return valuesOf(lockedMask);
     }
 
     /**
@@ -742,14 +1031,58 @@ public class Game {
      * Parameters: None
      * Return Value: List<Integer> - the list of values of the unkept dice.
      * Algorithm:
-     * 1. Filter the dice list to exclude locked or marked-for-keep dice.
-     * 2. Return a list of the values of the unkept dice.
+     * 1. Collect the values of the dice in neither the locked nor the marked mask.
      * Reference: None.
      *********************************************************************
      */
     public List<Integer> getUnkeptDice() {
-        return dice.stream().filter(die -> !die.isMarkedForLock() && !die.isLocked()).map(Die::getValue)
-                .collect(Collectors.toList());
+        return valuesOf(~(lockedMask | markedMask));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKeptHistogram
+     * Purpose: Retrieves the locked (kept) dice as a histogram.
+     * Parameters: None
+     * Return Value: DiceHistogram - the values of the locked dice.
+     * Algorithm:
+     * 1. Add the value of every locked die to an empty histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceHistogram getKeptHistogram() {
+        return histogramOf(lockedMask);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getUnkeptHistogram
+     * Purpose: Retrieves the dice that are neither locked nor marked for keeping
+     * as a histogram.
+     * Parameters: None
+     * Return Value: DiceHistogram - the values of the unkept dice.
+     * Algorithm:
+     * 1. Add the value of every unlocked, unmarked die to an empty histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceHistogram getUnkeptHistogram() {
+        return histogramOf(~(lockedMask | markedMask));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDiceHistogram
+     * Purpose: Retrieves all dice of the current roll as a histogram.
+     * Parameters: None
+     * Return Value: DiceHistogram - the values of all dice.
+     * Algorithm:
+     * 1. Add the value of every die to an empty histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public DiceHistogram getDiceHistogram() {
+        return histogramOf(ALL_DICE);
     }
 
     /**
@@ -761,13 +1094,12 @@ public class Game {
      * Return Value: List<Integer> - the list of values of the dice marked for
      * keeping.
      * Algorithm:
-     * 1. Filter the dice list to include only the marked-for-keep dice.
-     * 2. Return a list of the values of the marked-for-keep dice.
+     * 1. Collect the values of the dice in the marked mask.
      * Reference: None.
      *********************************************************************
      */
     public List<Integer> getMarkedForKeepDice() {
-        return dice.stream().filter(Die::isMarkedForLock).map(Die::getValue).collect(Collectors.toList());
+        return valuesOf(markedMask);
     }
 
     /**
@@ -779,15 +1111,12 @@ public class Game {
      * Return Value: List<Integer> - the list of values of the marked or locked
      * dice.
      * Algorithm:
-     * 1. Filter the dice list to include dice that are either marked for keeping or
-     * locked.
-     * 2. Return a list of the values of the marked or locked dice.
+     * 1. Collect the values of the dice in either the marked or the locked mask.
      * Reference: None.
      *********************************************************************
      */
     public List<Integer> getMarkedAndLockedDice() {
-        return dice.stream().filter(die -> die.isMarkedForLock() || die.isLocked()).map(Die::getValue)
-                .collect(Collectors.toList());
+        return valuesOf(markedMask | lockedMask);
     }
 
     /**
@@ -798,14 +1127,14 @@ public class Game {
      * Return Value: boolean - true if there are no dice left to reroll, false
      * otherwise.
      * Algorithm:
-     * 1. Check if all dice are either locked or marked for keeping, or if the roll
-     * count has exceeded 3.
+     * 1. Check if the locked and marked masks together cover all dice, or if the
+     * roll count has exceeded 3.
      * 2. Return true if no dice can be rerolled, otherwise return false.
      * Reference: None.
      *********************************************************************
      */
     public boolean noDieToReRoll() {
-        boolean allDiceKept = dice.stream().allMatch(die -> die.isMarkedForLock() || die.isLocked());
+        boolean allDiceKept = (markedMask | lockedMask) == ALL_DICE;
         boolean turnOver = rollCount >= 3;
         return allDiceKept || turnOver;
     }
@@ -820,8 +1149,9 @@ public class Game {
      * 1. Log the start of the new game.
      * 2. Reset the scorecard, current round, and players.
      * 3. Initialize the player queue and roll count.
-     * 4. Set the dice to their initial values.
-     * 5. Return the updated game state.
+     * 4. If the game is recorded, draw a new seed and start a new record.
+     * 5. Set the dice to their initial values.
+     * 6. Return the updated game state.
      * Reference: None.
      *********************************************************************
      */
@@ -832,24 +1162,151 @@ public class Game {
         players = Arrays.asList(new Human(), new Computer());
         playerQueue = new LinkedList<>();
         rollCount = 1;
-        dice = getNewDice();
+        helpAdvisor = new Computer();
+        if (record != null) {
+            long seed = randomSource.nextLong();
+            randomSource = new SplittableRandomSource(seed);
+            tossSource = randomSource.split();
+            record = new GameRecord(seed, serialize());
+        }
+        rollNewDice();
         return this;
     }
 
     /**
      * *********************************************************************
-     * Function Name: getNewDice
-     * Purpose: Generates and returns a list of new dice for the start of the game.
+     * Function Name: rollNewDice
+     * Purpose: Rolls a fresh set of dice for the start of a turn.
      * Parameters: None
-     * Return Value: List<Die> - a list of newly rolled dice.
+     * Return Value: None
      * Algorithm:
-     * 1. Create and roll 5 new dice.
-     * 2. Return the list of rolled dice.
+     * 1. Roll 5 new values.
+     * 2. Clear the locked, marked and help flags of every die.
      * Reference: None.
      *********************************************************************
      */
-    private List<Die> getNewDice() {
-        return Arrays.asList(new Die().roll(), new Die().roll(), new Die().roll(), new Die().roll(), new Die().roll());
+    private void rollNewDice() {
+        diceValues = rollValues();
+        lockedMask = 0;
+        markedMask = 0;
+        helpMask = 0;
+        diceView = null;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollValues
+     * Purpose: Generates the values of a new set of dice.
+     * Parameters: None
+     * Return Value: int[] - 5 random face values.
+     * Algorithm:
+     * 1. Roll the five dice from one draw of the random source of the game.
+     * Reference: None.
+     *********************************************************************
+     */
+    private int[] rollValues() {
+        int[] values = new int[NUM_DICE];
+        DiceRoller.rollFaces(randomSource, values, 0, NUM_DICE);
+        return values;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: valuesOf
+     * Purpose: Retrieves the values of the dice in a mask.
+     * Parameters: int mask - bit i selects the die at position i.
+     * Return Value: List<Integer> - the values of the selected dice, in position
+     * order.
+     * Algorithm:
+     * 1. Add the value of every die whose bit is set.
+     * Reference: None.
+     *********************************************************************
+     */
+    private List<Integer> valuesOf(int mask) {
+        List<Integer> values = new ArrayList<>(NUM_DICE);
+        for (int i = 0; i < NUM_DICE; i++) {
+            if ((mask & (1 << i)) != 0) {
+                values.add(diceValues[i]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: histogramOf
+     * Purpose: Retrieves the dice in a mask as a histogram.
+     * Parameters: int mask - bit i selects the die at position i.
+     * Return Value: DiceHistogram - the values of the selected dice.
+     * Algorithm:
+     * 1. Add the value of every die whose bit is set to an empty histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    private DiceHistogram histogramOf(int mask) {
+        int packed = 0;
+        for (int i = 0; i < NUM_DICE; i++) {
+            if ((mask & (1 << i)) != 0) {
+                packed = DiceHistogram.addFace(packed, diceValues[i]);
+            }
+        }
+        return DiceHistogram.fromPacked(packed);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: keptFirstOrder
+     * Purpose: Orders the dice positions so that two groups of dice come first.
+     * Parameters:
+     * int firstMask - the dice to put first.
+     * int secondMask - the dice to put next; must not overlap firstMask.
+     * Return Value: int[] - the old position of the die at each new position.
+     * Algorithm:
+     * 1. List the positions in firstMask, then those in secondMask, then the rest,
+     * each in their current order.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int[] keptFirstOrder(int firstMask, int secondMask) {
+        int[] order = new int[NUM_DICE];
+        int next = 0;
+        for (int mask : new int[] { firstMask, secondMask & ~firstMask, ~(firstMask | secondMask) }) {
+            for (int i = 0; i < NUM_DICE; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    order[next++] = i;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: permute
+     * Purpose: Moves the dice and their flags to new positions.
+     * Parameters: int[] order - the old position of the die at each new position.
+     * Return Value: None
+     * Algorithm:
+     * 1. Copy each value and flag bit from its old position to its new one.
+     * Reference: None.
+     *********************************************************************
+     */
+    private void permute(int[] order) {
+        int[] values = new int[NUM_DICE];
+        int locked = 0;
+        int marked = 0;
+        int help = 0;
+        for (int i = 0; i < NUM_DICE; i++) {
+            values[i] = diceValues[order[i]];
+            locked |= ((lockedMask >>> order[i]) & 1) << i;
+            marked |= ((markedMask >>> order[i]) & 1) << i;
+            help |= ((helpMask >>> order[i]) & 1) << i;
+        }
+        diceValues = values;
+        lockedMask = locked;
+        markedMask = marked;
+        helpMask = help;
+        diceView = null;
     }
 
     /**
@@ -861,17 +1318,34 @@ public class Game {
      * turn.
      * Algorithm:
      * 1. If it's the third roll, provide help based on the current dice values.
-     * 2. Otherwise, provide help based on the kept and unkept dice.
+     * 2. Otherwise, provide help based on the kept and unkept dice and the
+     * rolls left after this one.
+     * 3. Ask the help advisor of the game, so repeated requests for the same
+     * position are answered from its help cache.
      * Reference: None.
      *********************************************************************
      */
     public Help getHelp() {
-        Computer computer = new Computer();
+        Computer computer = helpAdvisor;
         if (rollCount == 3) {
-            return computer.getHelp(scoreCard, dice.stream().map(Die::getValue).collect(Collectors.toList()),
-                    new ArrayList<>());
+            return computer.getHelp(scoreCard, valuesOf(ALL_DICE), new ArrayList<>(), 0);
         }
-        return computer.getHelp(scoreCard, getKeptDice(), getUnkeptDice());
+        return computer.getHelp(scoreCard, getKeptDice(), getUnkeptDice(), Math.max(3 - rollCount, 0));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelpCache
+     * Purpose: Returns the help cache of the game, for profiling.
+     * Parameters: None
+     * Return Value: HelpCache - the cache behind getHelp.
+     * Algorithm:
+     * 1. Return the help cache of the help advisor.
+     * Reference: None.
+     *********************************************************************
+     */
+    public HelpCache getHelpCache() {
+        return helpAdvisor.getHelpCache();
     }
 
     /**
@@ -883,7 +1357,8 @@ public class Game {
      * Return Value: Game - the updated game state after marking the dice for help.
      * Algorithm:
      * 1. Apply the computer's strategy to mark dice for keeping.
-     * 2. Return the updated game state.
+     * 2. Record the marked dice, so a replay does not ask for help again.
+     * 3. Return the updated game state.
      * Reference: None.
      *********************************************************************
      */
@@ -896,17 +1371,16 @@ public class Game {
             numberFrequency[die]++;
         }
 
-        List<Die> newDice = new ArrayList<>(dice.stream().filter(Die::isLocked).collect(Collectors.toList()));
-        for (Die die : dice.stream().filter(die -> !die.isLocked()).collect(Collectors.toList())) {
-            if (numberFrequency[die.getValue()] > 0) {
-                newDice.add(die.markForHelp());
-                numberFrequency[die.getValue()]--;
-            } else {
-                newDice.add(die);
+        for (int i = 0; i < NUM_DICE; i++) {
+            if ((lockedMask & (1 << i)) == 0 && numberFrequency[diceValues[i]] > 0) {
+                helpMask |= 1 << i;
+                numberFrequency[diceValues[i]]--;
             }
         }
 
-        dice = newDice;
+        // Locked dice come first, as in processRoll
+        permute(keptFirstOrder(lockedMask, 0));
+        record(GameRecord.dice(diceValues, lockedMask, markedMask, helpMask));
 
         return this;
 
@@ -935,17 +1409,102 @@ public class Game {
         System.out.println("Round " + currentRound);
         showScores();
 
-        ScoreCard newScoreCard = Round.playRound(currentRound, scoreCard, players);
+        ScoreCard newScoreCard = Round.playRound(currentRound, scoreCard, players, randomSource);
 
         System.out.println(newScoreCard.getString());
 
-        Game result = new Game(newScoreCard, currentRound + 1, players);
+        Game result = new Game(newScoreCard, currentRound + 1, players, randomSource);
 
         result.showScores();
 
         return result;
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: record
+     * Purpose: Adds a decision to the record of the game, if it has one.
+     * Parameters:
+     * int decision - the encoded decision.
+     * Return Value: None
+     * Algorithm:
+     * 1. Append the decision to the record.
+     * Reference: None.
+     *********************************************************************
+     */
+    private void record(int decision) {
+        if (record != null) {
+            record.add(decision);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: indexOfPlayer
+     * Purpose: Finds a player among the players of the game by name.
+     * Parameters:
+     * Player player - the player to find.
+     * Return Value: int - the index of the player, or -1 if there is none.
+     * Algorithm:
+     * 1. Compare the player with each player of the game.
+     * Reference: None.
+     *********************************************************************
+     */
+    private int indexOfPlayer(Player player) {
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).equals(player)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: applyDecision
+     * Purpose: Replays one recorded decision, without logging or asking any
+     * player, and records it again.
+     * Parameters:
+     * int decision - the encoded decision.
+     * Return Value: None
+     * Algorithm:
+     * 1. For a re-roll, mark the kept dice, lock them and re-roll the rest.
+     * 2. For a change to the dice, set the values and flags.
+     * 3. For the end of a turn, score the recorded dice in the recorded category.
+     * 4. For a tie-breaker, queue the players in the recorded order.
+     * Reference: None.
+     *********************************************************************
+     */
+    void applyDecision(int decision) {
+        record(decision);
+        switch (GameRecord.kindOf(decision)) {
+            case GameRecord.KEEP:
+                markedMask = GameRecord.keptMaskOf(decision);
+                keepAndRoll();
+                break;
+            case GameRecord.DICE:
+                GameRecord.facesOf(decision, diceValues);
+                lockedMask = GameRecord.flagsOf(decision, 0);
+                markedMask = GameRecord.flagsOf(decision, 1);
+                helpMask = GameRecord.flagsOf(decision, 2);
+                diceView = null;
+                break;
+            case GameRecord.TURN:
+                int[] values = new int[NUM_DICE];
+                GameRecord.facesOf(decision, values);
+                List<Integer> dice = new ArrayList<>(NUM_DICE);
+                for (int value : values) {
+                    dice.add(value);
+                }
+                endTurn(dice, GameRecord.categoryOf(decision));
+                break;
+            default:
+                playerQueue.add(players.get(GameRecord.firstOf(decision)));
+                playerQueue.add(players.get(GameRecord.secondOf(decision)));
+                break;
+        }
+    }
+
     /**
      * *********************************************************************
      * Function Name: showScores
@@ -0,0 +1,479 @@
+package com.example.yahtzeegame.model;
+
+import java.util.Arrays;
+
+/**
+ * *********************************************************************
+ * Class Name: GameRecord
+ * Purpose: Records a game as the seed of its dice, the state it started from
+ * and the decisions made in it, so the game can be rebuilt exactly at any turn
+ * without asking the players again. Each decision is one int: the kind in the
+ * top two bits and its data below. A re-roll stores the dice kept, a change to
+ * the dice from the screen or from help stores the dice and their flags, the
+ * end of a turn stores the dice scored and the category (or a skip), and a
+ * tie-breaker stores the order of the players. Since the dice come from the
+ * seed, replaying the decisions rolls the same dice; nothing is decided again.
+ * A record is not thread-safe.
+ * *********************************************************************
+ */
+public final class GameRecord {
+    static final int KEEP = 0;
+    static final int DICE = 1;
+    static final int TURN = 2;
+    static final int ORDER = 3;
+
+    private static final int KIND_SHIFT = 30;
+    private static final int PAYLOAD_MASK = (1 << KIND_SHIFT) - 1;
+    private static final int NUM_DICE = DiceCatalogue.MAX_DICE;
+    private static final int BITS_PER_DIE = 3;
+    private static final int DIE_MASK = (1 << BITS_PER_DIE) - 1;
+    // Bits of the face values of five dice, followed by the 5-bit flag masks
+    private static final int FACE_BITS = NUM_DICE * BITS_PER_DIE;
+    private static final int FLAG_MASK = (1 << NUM_DICE) - 1;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final long seed;
+    private final String start;
+    private int[] decisions = new int[64];
+    private int size;
+    private int turns;
+
+    /**
+     * *********************************************************************
+     * Function Name: GameRecord
+     * Purpose: Creates an empty record of a game.
+     * Parameters:
+     * - seed (long): The seed of the random source of the game.
+     * - start (String): The game as Game.serialize wrote it before its first
+     * decision.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if there is no start.
+     * 2. Store the seed and start, with no decisions yet.
+     * Reference: None.
+     *********************************************************************
+     */
+    public GameRecord(long seed, String start) {
+        if (start == null) {
+            throw new IllegalArgumentException("No start state");
+        }
+        this.seed = seed;
+        this.start = start;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: deserialize
+     * Purpose: Reads a record written by serialize, for example from a crash
+     * report.
+     * Parameters:
+     * - serial (String): The serialized record.
+     * Return Value: The record.
+     * Algorithm:
+     * 1. Read the seed from the "Seed: " line and the decisions, in hex, from
+     * the "Decisions: " line.
+     * 2. Keep the rest as the start state.
+     * 3. Throw an IllegalArgumentException if a line is missing or malformed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static GameRecord deserialize(String serial) {
+        String[] lines = serial.split("\n", 3);
+        if (lines.length < 3 || !lines[0].startsWith("Seed: ") || !lines[1].startsWith("Decisions:")) {
+            throw new IllegalArgumentException("Not a game record");
+        }
+        try {
+            GameRecord record = new GameRecord(Long.parseLong(lines[0].substring(6).trim()), lines[2]);
+            for (String decision : lines[1].substring(10).trim().split(" ")) {
+                if (!decision.isEmpty()) {
+                    record.add(Integer.parseUnsignedInt(decision, 16));
+                }
+            }
+            return record;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a game record", e);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: serialize
+     * Purpose: Writes the record as text, for a log or a crash report.
+     * Parameters: None.
+     * Return Value: The seed line, the decisions line with one hex number per
+     * decision, and the start state.
+     * Algorithm:
+     * 1. Join the seed, the decisions and the start.
+     * Reference: None.
+     *********************************************************************
+     */
+    public String serialize() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Seed: ").append(seed).append("\nDecisions:");
+        for (int i = 0; i < size; i++) {
+            sb.append(' ').append(Integer.toHexString(decisions[i]));
+        }
+        return sb.append('\n').append(start).toString();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSeed
+     * Purpose: Returns the seed of the dice of the game.
+     * Parameters: None.
+     * Return Value: The seed.
+     * Algorithm:
+     * 1. Return the stored seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getStart
+     * Purpose: Returns the state the game started from.
+     * Parameters: None.
+     * Return Value: The serialized game before its first decision.
+     * Algorithm:
+     * 1. Return the stored start.
+     * Reference: None.
+     *********************************************************************
+     */
+    public String getStart() {
+        return start;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDecisionCount
+     * Purpose: Returns the number of decisions recorded.
+     * Parameters: None.
+     * Return Value: The decision count.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getDecisionCount() {
+        return size;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTurnCount
+     * Purpose: Returns the number of turns finished.
+     * Parameters: None.
+     * Return Value: The number of turns scored or skipped.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getTurnCount() {
+        return turns;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: replay
+     * Purpose: Rebuilds the game with every recorded decision.
+     * Parameters: None.
+     * Return Value: The game as it is after the last decision.
+     * Algorithm:
+     * 1. Replay all the decisions.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game replay() {
+        return replayDecisions(size);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: replay
+     * Purpose: Rebuilds the game at the start of a turn.
+     * Parameters:
+     * - turn (int): The number of turns finished, from 0 to getTurnCount().
+     * Return Value: The game right after that many turns ended, with the dice of
+     * the next turn rolled; turn 0 is the game before any decision.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the turn is out of range.
+     * 2. Find the decision that ended the turn and replay up to it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game replay(int turn) {
+        if (turn < 0 || turn > turns) {
+            throw new IllegalArgumentException("Turn must be between 0 and " + turns + ": " + turn);
+        }
+        int count = 0;
+        for (int ended = 0; ended < turn; count++) {
+            if (kindOf(decisions[count]) == TURN) {
+                ended++;
+            }
+        }
+        return replayDecisions(count);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: replayDecisions
+     * Purpose: Rebuilds the game after a number of decisions.
+     * Parameters:
+     * - count (int): The number of decisions to replay, from 0 to
+     * getDecisionCount().
+     * Return Value: The rebuilt game. Its players are a human and a computer, as
+     * for a saved game, and it keeps recording from there.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the count is out of range.
+     * 2. Load the start state with the seed of the record.
+     * 3. Apply the decisions one by one, with no logging or players asked.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Game replayDecisions(int count) {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Decision count must be between 0 and " + size + ": " + count);
+        }
+        Game game = Game.deserialize(start, seed);
+        for (int i = 0; i < count; i++) {
+            game.applyDecision(decisions[i]);
+        }
+        return game;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: add
+     * Purpose: Appends a decision.
+     * Parameters:
+     * - decision (int): The encoded decision.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Grow the array by half when it is full, then store the decision.
+     * 2. Count it as a turn if it ended one.
+     * Reference: None.
+     *********************************************************************
+     */
+    void add(int decision) {
+        if (size == decisions.length) {
+            decisions = Arrays.copyOf(decisions, size + (size >> 1));
+        }
+        decisions[size++] = decision;
+        if (kindOf(decision) == TURN) {
+            turns++;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: keep
+     * Purpose: Encodes a re-roll.
+     * Parameters:
+     * - keptMask (int): The dice marked to keep, one bit per position.
+     * Return Value: The decision.
+     * Algorithm:
+     * 1. Put the kind above the mask.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int keep(int keptMask) {
+        return KEEP << KIND_SHIFT | keptMask & FLAG_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: dice
+     * Purpose: Encodes a change to the dice and their flags.
+     * Parameters:
+     * - values (int[]): The face values by position.
+     * - lockedMask (int): The locked dice.
+     * - markedMask (int): The dice marked to keep.
+     * - helpMask (int): The dice marked by help.
+     * Return Value: The decision.
+     * Algorithm:
+     * 1. Pack the faces, 3 bits each, then the three masks, below the kind.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int dice(int[] values, int lockedMask, int markedMask, int helpMask) {
+        int flags = (lockedMask & FLAG_MASK) | (markedMask & FLAG_MASK) << NUM_DICE
+                | (helpMask & FLAG_MASK) << 2 * NUM_DICE;
+        return DICE << KIND_SHIFT | flags << FACE_BITS | packFaces(values);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: turn
+     * Purpose: Encodes the end of a turn.
+     * Parameters:
+     * - values (int[]): The face values scored.
+     * - category (Category): The category chosen, or null for a skip.
+     * Return Value: The decision.
+     * Algorithm:
+     * 1. Pack the faces, then the category ordinal plus one (0 for a skip).
+     * Reference: None.
+     *********************************************************************
+     */
+    static int turn(int[] values, Category category) {
+        int choice = category == null ? 0 : category.ordinal() + 1;
+        return TURN << KIND_SHIFT | choice << FACE_BITS | packFaces(values);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: order
+     * Purpose: Encodes the order set by a tie-breaker.
+     * Parameters:
+     * - first (int): The index of the first player in the game's players.
+     * - second (int): The index of the second player.
+     * Return Value: The decision.
+     * Algorithm:
+     * 1. Put the two indices, 8 bits each, below the kind.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int order(int first, int second) {
+        return ORDER << KIND_SHIFT | (first & 0xFF) << 8 | second & 0xFF;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: kindOf
+     * Purpose: Decodes the kind of a decision.
+     * Parameters:
+     * - decision (int): The encoded decision.
+     * Return Value: KEEP, DICE, TURN or ORDER.
+     * Algorithm:
+     * 1. Read the top two bits.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int kindOf(int decision) {
+        return decision >>> KIND_SHIFT;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: keptMaskOf
+     * Purpose: Decodes the dice kept by a re-roll.
+     * Parameters:
+     * - decision (int): A KEEP decision.
+     * Return Value: The kept dice, one bit per position.
+     * Algorithm:
+     * 1. Read the low five bits.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int keptMaskOf(int decision) {
+        return decision & FLAG_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: flagsOf
+     * Purpose: Decodes one flag mask of a change to the dice.
+     * Parameters:
+     * - decision (int): A DICE decision.
+     * - flag (int): 0 for locked, 1 for marked to keep, 2 for marked by help.
+     * Return Value: The flag, one bit per position.
+     * Algorithm:
+     * 1. Read the five bits of the flag above the faces.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int flagsOf(int decision, int flag) {
+        return (decision & PAYLOAD_MASK) >>> FACE_BITS + flag * NUM_DICE & FLAG_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: categoryOf
+     * Purpose: Decodes the category of the end of a turn.
+     * Parameters:
+     * - decision (int): A TURN decision.
+     * Return Value: The category, or null for a skip.
+     * Algorithm:
+     * 1. Read the bits above the faces and look up the category.
+     * Reference: None.
+     *********************************************************************
+     */
+    static Category categoryOf(int decision) {
+        int choice = (decision & PAYLOAD_MASK) >>> FACE_BITS;
+        return choice == 0 ? null : CATEGORIES[choice - 1];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: firstOf
+     * Purpose: Decodes the first player of a tie-breaker.
+     * Parameters:
+     * - decision (int): An ORDER decision.
+     * Return Value: The index of the first player.
+     * Algorithm:
+     * 1. Read bits 8 to 15.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int firstOf(int decision) {
+        return decision >>> 8 & 0xFF;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: secondOf
+     * Purpose: Decodes the second player of a tie-breaker.
+     * Parameters:
+     * - decision (int): An ORDER decision.
+     * Return Value: The index of the second player.
+     * Algorithm:
+     * 1. Read the low 8 bits.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int secondOf(int decision) {
+        return decision & 0xFF;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: facesOf
+     * Purpose: Decodes the face values of a decision.
+     * Parameters:
+     * - decision (int): A DICE or TURN decision.
+     * - values (int[]): The array to write the five faces to.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Read the 3-bit field of each position.
+     * Reference: None.
+     *********************************************************************
+     */
+    static void facesOf(int decision, int[] values) {
+        for (int i = 0; i < NUM_DICE; i++) {
+            values[i] = decision >>> i * BITS_PER_DIE & DIE_MASK;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: packFaces
+     * Purpose: Packs five face values.
+     * Parameters:
+     * - values (int[]): The face values by position.
+     * Return Value: The faces, 3 bits per position.
+     * Algorithm:
+     * 1. Put each face in the field of its position.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int packFaces(int[] values) {
+        int packed = 0;
+        for (int i = 0; i < NUM_DICE; i++) {
+            packed |= (values[i] & DIE_MASK) << i * BITS_PER_DIE;
+        }
+        return packed;
+    }
+}
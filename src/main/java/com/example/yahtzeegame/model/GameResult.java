@@ -0,0 +1,347 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Class Name: GameResult
+ * Purpose: The outcome of one headless game: the seed it was played with, the
+ * final score of each seat, the rounds played and whether the game ended with
+ * a full scorecard. A result also packs into one long, so that millions of
+ * games can be stored in a long array without an object each.
+ * *********************************************************************
+ */
+public final class GameResult {
+    // Bit layout of a packed result: score of seat 0, score of seat 1, rounds, finished flag
+    private static final int SCORE_BITS = 16;
+    private static final int ROUND_BITS = 16;
+    private static final int SCORE_MASK = (1 << SCORE_BITS) - 1;
+    private static final int ROUND_MASK = (1 << ROUND_BITS) - 1;
+    private static final int ROUND_SHIFT = 2 * SCORE_BITS;
+    private static final int FINISHED_SHIFT = ROUND_SHIFT + ROUND_BITS;
+
+    private final long seed;
+    private final int firstScore;
+    private final int secondScore;
+    private final int rounds;
+    private final boolean finished;
+
+    /**
+     * *********************************************************************
+     * Function Name: GameResult
+     * Purpose: Creates a result.
+     * Parameters:
+     * - seed (long): The seed the game was played with.
+     * - firstScore (int): The final score of seat 0 (0 to 65535).
+     * - secondScore (int): The final score of seat 1 (0 to 65535).
+     * - rounds (int): The rounds played (0 to 65535).
+     * - finished (boolean): True if the scorecard was filled.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if a count does not fit its field.
+     * 2. Store the arguments.
+     * Reference: None.
+     *********************************************************************
+     */
+    public GameResult(long seed, int firstScore, int secondScore, int rounds, boolean finished) {
+        checkField("Score", firstScore, SCORE_MASK);
+        checkField("Score", secondScore, SCORE_MASK);
+        checkField("Rounds", rounds, ROUND_MASK);
+        this.seed = seed;
+        this.firstScore = firstScore;
+        this.secondScore = secondScore;
+        this.rounds = rounds;
+        this.finished = finished;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: pack
+     * Purpose: Packs the outcome of a game into one long.
+     * Parameters:
+     * - firstScore (int): The final score of seat 0 (0 to 65535).
+     * - secondScore (int): The final score of seat 1 (0 to 65535).
+     * - rounds (int): The rounds played (0 to 65535).
+     * - finished (boolean): True if the scorecard was filled.
+     * Return Value: The packed outcome; the seed is not part of it.
+     * Algorithm:
+     * 1. Place each field at its own bit offset.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static long pack(int firstScore, int secondScore, int rounds, boolean finished) {
+        return (long) (firstScore & SCORE_MASK)
+                | (long) (secondScore & SCORE_MASK) << SCORE_BITS
+                | (long) (rounds & ROUND_MASK) << ROUND_SHIFT
+                | (finished ? 1L : 0L) << FINISHED_SHIFT;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: unpack
+     * Purpose: Rebuilds a result from a packed outcome.
+     * Parameters:
+     * - seed (long): The seed the game was played with.
+     * - packed (long): The packed outcome.
+     * Return Value: The result.
+     * Algorithm:
+     * 1. Read each field from its bit offset.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static GameResult unpack(long seed, long packed) {
+        return new GameResult(seed, getFirstScore(packed), getSecondScore(packed), getRounds(packed),
+                isFinished(packed));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getFirstScore
+     * Purpose: Reads the score of seat 0 from a packed outcome.
+     * Parameters:
+     * - packed (long): The packed outcome.
+     * Return Value: The score.
+     * Algorithm:
+     * 1. Mask the field.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getFirstScore(long packed) {
+        return (int) packed & SCORE_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSecondScore
+     * Purpose: Reads the score of seat 1 from a packed outcome.
+     * Parameters:
+     * - packed (long): The packed outcome.
+     * Return Value: The score.
+     * Algorithm:
+     * 1. Shift and mask the field.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getSecondScore(long packed) {
+        return (int) (packed >>> SCORE_BITS) & SCORE_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRounds
+     * Purpose: Reads the rounds played from a packed outcome.
+     * Parameters:
+     * - packed (long): The packed outcome.
+     * Return Value: The rounds.
+     * Algorithm:
+     * 1. Shift and mask the field.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getRounds(long packed) {
+        return (int) (packed >>> ROUND_SHIFT) & ROUND_MASK;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isFinished
+     * Purpose: Reads from a packed outcome whether the scorecard was filled.
+     * Parameters:
+     * - packed (long): The packed outcome.
+     * Return Value: True if the game ended with a full scorecard.
+     * Algorithm:
+     * 1. Test the flag bit.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static boolean isFinished(long packed) {
+        return (packed >>> FINISHED_SHIFT & 1) != 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getWinner
+     * Purpose: Reads the winning seat from a packed outcome.
+     * Parameters:
+     * - packed (long): The packed outcome.
+     * Return Value: 0 or 1 for the seat with the higher score, or -1 for a draw.
+     * Algorithm:
+     * 1. Compare the scores.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getWinner(long packed) {
+        int difference = getFirstScore(packed) - getSecondScore(packed);
+        return difference > 0 ? 0 : difference < 0 ? 1 : -1;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSeed
+     * Purpose: Returns the seed the game was played with.
+     * Parameters: None.
+     * Return Value: The seed; playing it again gives the same game.
+     * Algorithm:
+     * 1. Return the stored seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getScore
+     * Purpose: Returns the final score of a seat.
+     * Parameters:
+     * - seat (int): The seat, 0 or 1.
+     * Return Value: The score.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException for any other seat.
+     * 2. Return the stored score.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getScore(int seat) {
+        if (seat != 0 && seat != 1) {
+            throw new IllegalArgumentException("Seat must be 0 or 1: " + seat);
+        }
+        return seat == 0 ? firstScore : secondScore;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getWinner
+     * Purpose: Returns the winning seat.
+     * Parameters: None.
+     * Return Value: 0 or 1 for the seat with the higher score, or -1 for a draw.
+     * Algorithm:
+     * 1. Compare the scores.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getWinner() {
+        return getWinner(toPacked());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRounds
+     * Purpose: Returns the rounds played.
+     * Parameters: None.
+     * Return Value: The rounds.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isFinished
+     * Purpose: Tells if the game ended with a full scorecard.
+     * Parameters: None.
+     * Return Value: False if it was stopped at the round limit.
+     * Algorithm:
+     * 1. Return the stored flag.
+     * Reference: None.
+     *********************************************************************
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toPacked
+     * Purpose: Packs the outcome into one long.
+     * Parameters: None.
+     * Return Value: The packed outcome, without the seed.
+     * Algorithm:
+     * 1. Pack the fields.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long toPacked() {
+        return pack(firstScore, secondScore, rounds, finished);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: equals
+     * Purpose: Compares two results.
+     * Parameters:
+     * - obj (Object): The object to compare with.
+     * Return Value: True if it is a result with the same seed and outcome.
+     * Algorithm:
+     * 1. Compare the seeds and the packed outcomes.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GameResult)) {
+            return false;
+        }
+        GameResult other = (GameResult) obj;
+        return seed == other.seed && toPacked() == other.toPacked();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: hashCode
+     * Purpose: Returns a hash code consistent with equals.
+     * Parameters: None.
+     * Return Value: The hash code.
+     * Algorithm:
+     * 1. Combine the hashes of the seed and the packed outcome.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(seed) + Long.hashCode(toPacked());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toString
+     * Purpose: Describes the result.
+     * Parameters: None.
+     * Return Value: The seed, scores, rounds and finished flag.
+     * Algorithm:
+     * 1. Format the fields.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public String toString() {
+        return "GameResult[seed=" + seed + ", scores=" + firstScore + ":" + secondScore + ", rounds=" + rounds
+                + (finished ? "" : ", unfinished") + "]";
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkField
+     * Purpose: Validates a count against the width of its packed field.
+     * Parameters:
+     * - label (String): The name of the count, for the message.
+     * - value (int): The count.
+     * - max (int): The largest value of the field.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if it is outside 0 to max.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static void checkField(String label, int value, int max) {
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException(label + " must be between 0 and " + max + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * *********************************************************************
+ * Class Name: HelpCache
+ * Purpose: Remembers the help given for recent positions, so that a position
+ * asked about several times in a turn is worked out once. A position is the
+ * set of open categories, the kept dice, the rolled dice and the rolls left,
+ * packed into one long. The cache holds a bounded number of positions and
+ * drops the least recently used one when it is full. It counts hits, misses
+ * and evictions for profiling. All methods are synchronized.
+ * *********************************************************************
+ */
+public final class HelpCache {
+    // Default number of positions kept
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Bit offsets of the fields of a key: rolls left, open mask, kept dice, rolled dice
+    private static final int MASK_SHIFT = 2;
+    // Largest rolls left a key can hold; one more than MAX_ROLLS_LEFT, so callers can key a
+    // final selection apart from the rolls of a turn
+    private static final int MAX_KEY_ROLLS = (1 << MASK_SHIFT) - 1;
+    private static final int KEPT_SHIFT = MASK_SHIFT + ScoreTable.NUM_CATEGORIES;
+    private static final int ROLLED_SHIFT = KEPT_SHIFT + 6 * ScoreTable.BITS_PER_FACE;
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Help> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * *********************************************************************
+     * Function Name: HelpCache
+     * Purpose: Creates a cache that holds DEFAULT_CAPACITY positions.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Use the default capacity.
+     * Reference: None.
+     *********************************************************************
+     */
+    public HelpCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: HelpCache
+     * Purpose: Creates a cache that holds a given number of positions.
+     * Parameters:
+     * - capacity (int): The most positions kept (at least 1).
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the capacity is below 1.
+     * 2. Keep the entries in access order, so the eldest entry is the least
+     * recently used, and evict it when the capacity is exceeded.
+     * Reference: None.
+     *********************************************************************
+     */
+    public HelpCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, Help>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Help> eldest) {
+                if (size() > HelpCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: key
+     * Purpose: Packs a position into a cache key.
+     * Parameters:
+     * - openMask (int): The open categories, one bit per category.
+     * - keptKey (int): The packed counts of the kept dice.
+     * - rolledKey (int): The packed counts of the rolled dice.
+     * - rollsLeft (int): The rolls left in the turn (0 to 3).
+     * Return Value: The key, or -1 if a packed count is negative.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the open mask or the rolls left
+     * do not fit their fields, since they would run into the next field.
+     * 2. Place each field at its own bit offset.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static long key(int openMask, int keptKey, int rolledKey, int rollsLeft) {
+        if (openMask < 0 || openMask >= 1 << ScoreTable.NUM_CATEGORIES) {
+            throw new IllegalArgumentException("Open mask must fit in " + ScoreTable.NUM_CATEGORIES + " bits: "
+                    + openMask);
+        }
+        if (rollsLeft < 0 || rollsLeft > MAX_KEY_ROLLS) {
+            throw new IllegalArgumentException("Rolls left must be between 0 and " + MAX_KEY_ROLLS + ": " + rollsLeft);
+        }
+        if (keptKey < 0 || rolledKey < 0) {
+            return -1;
+        }
+        return (long) rolledKey << ROLLED_SHIFT | (long) keptKey << KEPT_SHIFT
+                | (long) openMask << MASK_SHIFT | rollsLeft;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: get
+     * Purpose: Returns the help for a position, working it out only if the
+     * position is not cached.
+     * Parameters:
+     * - key (long): The key of the position.
+     * - loader (Supplier<Help>): Works out the help on a miss.
+     * Return Value: The cached help; its dice to keep cannot be modified.
+     * Algorithm:
+     * 1. On a hit, count it and return the entry, which makes it the most
+     * recently used.
+     * 2. On a miss, count it, work out the help, store a copy with an
+     * unmodifiable list of dice and return it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized Help get(long key, Supplier<Help> loader) {
+        Help help = entries.get(key);
+        if (help != null) {
+            hits++;
+            return help;
+        }
+        misses++;
+        Help loaded = loader.get();
+        help = new Help(Collections.unmodifiableList(new ArrayList<>(loaded.getDiceToKeep())),
+                loaded.getCategory(), loaded.getStand());
+        entries.put(key, help);
+        return help;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: clear
+     * Purpose: Drops every cached position and resets the counters.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Clear the entries and set the counters to 0.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCapacity
+     * Purpose: Returns the most positions the cache keeps.
+     * Parameters: None.
+     * Return Value: The capacity.
+     * Algorithm:
+     * 1. Return the stored capacity.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: size
+     * Purpose: Returns the number of cached positions.
+     * Parameters: None.
+     * Return Value: The number of entries.
+     * Algorithm:
+     * 1. Return the size of the map.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHits
+     * Purpose: Returns the number of lookups answered from the cache.
+     * Parameters: None.
+     * Return Value: The hit count.
+     * Algorithm:
+     * 1. Return the counter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMisses
+     * Purpose: Returns the number of lookups that had to work out the help.
+     * Parameters: None.
+     * Return Value: The miss count.
+     * Algorithm:
+     * 1. Return the counter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getEvictions
+     * Purpose: Returns the number of positions dropped to make room.
+     * Parameters: None.
+     * Return Value: The eviction count.
+     * Algorithm:
+     * 1. Return the counter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHitRate
+     * Purpose: Returns the share of lookups answered from the cache.
+     * Parameters: None.
+     * Return Value: Hits over all lookups, or 0 before the first lookup.
+     * Algorithm:
+     * 1. Divide the hits by the hits plus the misses.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toString
+     * Purpose: Describes the cache statistics for logs and profiling.
+     * Parameters: None.
+     * Return Value: The size, capacity, counters and hit rate.
+     * Algorithm:
+     * 1. Format the statistics.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ROOT, "HelpCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+                entries.size(), capacity, hits, misses, evictions, getHitRate() * 100);
+    }
+}
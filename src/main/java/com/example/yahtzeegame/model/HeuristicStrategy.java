@@ -0,0 +1,60 @@
+package com.example.yahtzeegame.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * *********************************************************************
+ * Class Name: HeuristicStrategy
+ * Purpose: The original computer strategy: keep the dice that lead to the
+ * highest immediate score and score the highest scoring open category. It
+ * does not look at the rolls left.
+ * *********************************************************************
+ */
+public final class HeuristicStrategy implements Strategy {
+    // The shared instance; the strategy has no state
+    public static final HeuristicStrategy INSTANCE = new HeuristicStrategy();
+
+    private HeuristicStrategy() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Decides which of the rolled dice to keep.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn; not used.
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. Return the help of Computer.getHeuristicHelp.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        return Computer.getHeuristicHelp(scoreCard, keptDice, diceRolls);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Decides which category to score the final dice in.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (List<Integer>): The final dice.
+     * Return Value: The open category with the highest score, or empty if none
+     * is applicable.
+     * Algorithm:
+     * 1. Retrieve the category with the maximum score for the dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Optional<Category> getCategorySelection(ScoreCard scoreCard, List<Integer> dice) {
+        return scoreCard.getMaxScoringCategory(dice);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Class Name: KeepEvaluator
+ * Purpose: Compares every choice of dice to keep after a roll directly. The
+ * subsets of the rolled dice are merged into distinct multisets, the kept dice
+ * added, and each is valued by the points expected this turn under the open
+ * categories: the best applicable score of each final roll, weighted by its
+ * chance through the rolls left, with the best dice kept after each of them.
+ * The turn values are solved once per set of open categories and reused, and
+ * the candidates are ranked in arrays owned by the evaluator, so evaluating a
+ * roll allocates nothing. An evaluator is not thread-safe; use one per thread.
+ * *********************************************************************
+ */
+public final class KeepEvaluator {
+    // Most distinct multisets that can be kept after a roll: every subset of five dice
+    public static final int MAX_CANDIDATES = 1 << DiceCatalogue.MAX_DICE;
+
+    private final double[] endValues = new double[ScoreTable.NUM_ROLLS];
+    private final double[] endSkips = new double[ScoreTable.NUM_ROLLS];
+    private final TurnSolver.TurnValues turn = new TurnSolver.TurnValues();
+    private int solvedMask = -1;
+
+    private final int[] keepIds = new int[MAX_CANDIDATES];
+    private final double[] values = new double[MAX_CANDIDATES];
+    private int count;
+    private int evaluatedRollsLeft;
+
+    /**
+     * *********************************************************************
+     * Function Name: evaluate
+     * Purpose: Values and ranks every multiset that can be kept after a roll.
+     * Parameters:
+     * - openMask (int): The open categories (bit i = ordinal i).
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rollId (int): The ScoreTable roll id of all five dice.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: The number of candidates, read with getKeepId and
+     * getValue from best (rank 0) to worst.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if an argument is out of range.
+     * 2. If the open categories changed, solve the turn values for them.
+     * 3. With no rolls left, the only candidate is standing on the roll.
+     * 4. Otherwise, list the distinct multisets to lock and read the value of
+     * each with one roll fewer; locking all five dice means standing.
+     * 5. Sort the candidates by value, best first, with a stable insertion
+     * sort, so the best is the one TurnSolver.getBestKeep would pick.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int evaluate(int openMask, int keptId, int rollId, int rollsLeft) {
+        if (openMask < 0 || openMask > Category.ALL_CATEGORIES_MASK) {
+            throw new IllegalArgumentException("Not a category mask: " + openMask);
+        }
+        if (keptId < 0 || keptId >= DiceCatalogue.NUM_MULTISETS) {
+            throw new IllegalArgumentException("Not a DiceCatalogue id: " + keptId);
+        }
+        if (rollId < 0 || rollId >= ScoreTable.NUM_ROLLS) {
+            throw new IllegalArgumentException("Not a roll id: " + rollId);
+        }
+        TurnSolver.checkRollsLeft(rollsLeft);
+        evaluatedRollsLeft = rollsLeft;
+        if (openMask != solvedMask) {
+            solve(openMask);
+        }
+
+        if (rollsLeft == 0) {
+            keepIds[0] = TurnSolver.FIRST_ROLL_ID + rollId;
+            values[0] = endValues[rollId];
+            count = 1;
+            return count;
+        }
+        count = TurnSolver.getKeepIds(keptId, rollId, keepIds);
+        double[] keepValues = turn.keepValues[rollsLeft - 1];
+        for (int i = 0; i < count; i++) {
+            int keepId = keepIds[i];
+            double value = keepValues[keepId];
+            int j = i;
+            while (j > 0 && value > values[j - 1]) {
+                keepIds[j] = keepIds[j - 1];
+                values[j] = values[j - 1];
+                j--;
+            }
+            keepIds[j] = keepId;
+            values[j] = value;
+        }
+        return count;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCount
+     * Purpose: Returns the number of candidates of the last evaluation.
+     * Parameters: None.
+     * Return Value: The candidate count, 0 before the first evaluation.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKeepId
+     * Purpose: Returns a ranked candidate of the last evaluation.
+     * Parameters:
+     * - rank (int): The rank, 0 being the best.
+     * Return Value: The DiceCatalogue id of the dice locked by the candidate.
+     * Algorithm:
+     * 1. Validate the rank and read the ranked array.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getKeepId(int rank) {
+        checkRank(rank);
+        return keepIds[rank];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getValue
+     * Purpose: Returns the value of a ranked candidate of the last evaluation.
+     * Parameters:
+     * - rank (int): The rank, 0 being the best.
+     * Return Value: The points expected this turn after locking the candidate.
+     * Algorithm:
+     * 1. Validate the rank and read the ranked array.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getValue(int rank) {
+        checkRank(rank);
+        return values[rank];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSkipChance
+     * Purpose: Returns the chance that the turn ends with no applicable open
+     * category after locking a ranked candidate of the last evaluation.
+     * Parameters:
+     * - rank (int): The rank, 0 being the best.
+     * Return Value: The chance of skipping with the best play from there.
+     * Algorithm:
+     * 1. Validate the rank and read the solved skip chance of the candidate.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getSkipChance(int rank) {
+        checkRank(rank);
+        return turn.skipChances[Math.max(evaluatedRollsLeft - 1, 0)][keepIds[rank]];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solve
+     * Purpose: Solves the turn values of a set of open categories.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Ending on a roll is worth its best applicable open score, and skips the
+     * turn if no open category is applicable.
+     * 2. Solve the turn into the values owned by the evaluator.
+     * Reference: None.
+     *********************************************************************
+     */
+    private void solve(int openMask) {
+        for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+            int applicableMask = openMask & ScoreTable.getApplicableMask(rollId);
+            endValues[rollId] = ScoreTable.getBestScore(rollId, applicableMask);
+            endSkips[rollId] = applicableMask == 0 ? 1 : 0;
+        }
+        TurnSolver.solve(endValues, endSkips, turn);
+        solvedMask = openMask;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkRank
+     * Purpose: Validates a rank of the last evaluation.
+     * Parameters:
+     * - rank (int): The rank.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if it is outside 0 to the count.
+     * Reference: None.
+     *********************************************************************
+     */
+    private void checkRank(int rank) {
+        if (rank < 0 || rank >= count) {
+            throw new IllegalArgumentException("Rank must be between 0 and " + (count - 1) + ": " + rank);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.example.yahtzeegame.model;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * *********************************************************************
+ * Class Name: MeteredStrategy
+ * Purpose: Wraps a strategy and measures every call to it: how many calls,
+ * how long they took and how many bytes the calling thread allocated during
+ * them. Help and category selection are measured apart. Allocation is read
+ * from the JVM where it can be (com.sun.management.ThreadMXBean); where it
+ * cannot, such as on Android, it reads as -1. Work a strategy hands to other
+ * threads, such as the streams of a Monte Carlo search, is timed but its
+ * allocation is not counted. The counters can be read while calls run.
+ * *********************************************************************
+ */
+public final class MeteredStrategy implements Strategy {
+    private final String name;
+    private final Strategy delegate;
+    private final Meter helpMeter;
+    private final Meter selectionMeter;
+
+    /**
+     * *********************************************************************
+     * Function Name: MeteredStrategy
+     * Purpose: Wraps a strategy.
+     * Parameters:
+     * - name (String): The name of the strategy, used in reports.
+     * - delegate (Strategy): The strategy to measure; a metered strategy is
+     * unwrapped first, so meters never nest.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if there is no strategy.
+     * 2. Store the name and the unwrapped strategy.
+     * Reference: None.
+     *********************************************************************
+     */
+    public MeteredStrategy(String name, Strategy delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("No strategy to meter");
+        }
+        this.name = name;
+        this.delegate = delegate instanceof MeteredStrategy ? ((MeteredStrategy) delegate).getDelegate() : delegate;
+        this.helpMeter = new Meter("getHelp");
+        this.selectionMeter = new Meter("getCategorySelection");
+    }
+
+    private MeteredStrategy(MeteredStrategy meters, Strategy delegate) {
+        this.name = meters.name;
+        this.delegate = delegate;
+        this.helpMeter = meters.helpMeter;
+        this.selectionMeter = meters.selectionMeter;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Asks the wrapped strategy for help and measures the call.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: The help of the wrapped strategy.
+     * Algorithm:
+     * 1. Read the clock and the allocated bytes, call the strategy and record
+     * the differences, even if the call throws.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        long bytes = Allocation.getAllocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return delegate.getHelp(scoreCard, keptDice, diceRolls, rollsLeft);
+        } finally {
+            helpMeter.record(System.nanoTime() - start, bytes);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Asks the wrapped strategy for a category and measures the call.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (List<Integer>): The final dice.
+     * Return Value: The category of the wrapped strategy, or empty to skip.
+     * Algorithm:
+     * 1. Read the clock and the allocated bytes, call the strategy and record
+     * the differences, even if the call throws.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Optional<Category> getCategorySelection(ScoreCard scoreCard, List<Integer> dice) {
+        long bytes = Allocation.getAllocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return delegate.getCategorySelection(scoreCard, dice);
+        } finally {
+            selectionMeter.record(System.nanoTime() - start, bytes);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isCacheable
+     * Purpose: Tells if the help of the wrapped strategy can be cached.
+     * Parameters: None.
+     * Return Value: The answer of the wrapped strategy.
+     * Algorithm:
+     * 1. Ask the wrapped strategy.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public boolean isCacheable() {
+        return delegate.isCacheable();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: forPlayer
+     * Purpose: Returns the metered strategy to play for a given player.
+     * Parameters:
+     * - player (Player): The player the strategy makes decisions for.
+     * Return Value: This strategy if the wrapped strategy is the same for the
+     * player, otherwise a new MeteredStrategy around the bound strategy that
+     * shares the name and the meters of this one.
+     * Algorithm:
+     * 1. Bind the wrapped strategy to the player.
+     * 2. Keep this strategy if it did not change, otherwise wrap the bound
+     * strategy with these meters, so calls made for the player are counted
+     * where the strategy was created.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Strategy forPlayer(Player player) {
+        Strategy bound = delegate.forPlayer(player);
+        return bound == delegate ? this : new MeteredStrategy(this, bound);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: sharingMeters
+     * Purpose: Measures calls to another strategy made on behalf of this one,
+     * such as the searches an AnytimeDecider runs for it.
+     * Parameters:
+     * - other (Strategy): The strategy to measure.
+     * Return Value: A MeteredStrategy around the other strategy that records
+     * its calls in the meters of this one.
+     * Algorithm:
+     * 1. Unwrap the other strategy if it is metered and wrap it with these
+     * meters.
+     * Reference: None.
+     *********************************************************************
+     */
+    MeteredStrategy sharingMeters(Strategy other) {
+        return new MeteredStrategy(this, other instanceof MeteredStrategy ? ((MeteredStrategy) other).getDelegate()
+                : other);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getName
+     * Purpose: Returns the name of the strategy.
+     * Parameters: None.
+     * Return Value: The name given when it was wrapped.
+     * Algorithm:
+     * 1. Return the stored name.
+     * Reference: None.
+     *********************************************************************
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDelegate
+     * Purpose: Returns the wrapped strategy.
+     * Parameters: None.
+     * Return Value: The strategy that makes the decisions.
+     * Algorithm:
+     * 1. Return the stored strategy.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Strategy getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelpMeter
+     * Purpose: Returns the measurements of the help calls.
+     * Parameters: None.
+     * Return Value: The meter of getHelp.
+     * Algorithm:
+     * 1. Return the meter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Meter getHelpMeter() {
+        return helpMeter;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSelectionMeter
+     * Purpose: Returns the measurements of the category selection calls.
+     * Parameters: None.
+     * Return Value: The meter of getCategorySelection.
+     * Algorithm:
+     * 1. Return the meter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Meter getSelectionMeter() {
+        return selectionMeter;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: reset
+     * Purpose: Sets both meters back to 0.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Reset each meter.
+     * Reference: None.
+     *********************************************************************
+     */
+    public void reset() {
+        helpMeter.reset();
+        selectionMeter.reset();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isAllocationMetered
+     * Purpose: Tells if the JVM reports allocated bytes.
+     * Parameters: None.
+     * Return Value: True if allocations are counted; false if they read as -1.
+     * Algorithm:
+     * 1. Ask the allocation reader.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static boolean isAllocationMetered() {
+        return Allocation.SUPPORTED;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toString
+     * Purpose: Describes the measurements for logs and profiling.
+     * Parameters: None.
+     * Return Value: The name and both meters.
+     * Algorithm:
+     * 1. Format the meters.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public String toString() {
+        return "MeteredStrategy[" + name + ", " + helpMeter + ", " + selectionMeter + "]";
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: Meter
+     * Purpose: Counts the calls of one method with their total and longest
+     * time and their total allocation. The counters are updated without
+     * locking, so a reading taken while calls run may mix calls.
+     * *********************************************************************
+     */
+    public static final class Meter {
+        private final String method;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Meter(String method) {
+            this.method = method;
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: record
+         * Purpose: Adds one call.
+         * Parameters:
+         * - elapsedNanos (long): How long the call took.
+         * - startBytes (long): The allocated bytes of the thread before the
+         * call, or -1 if unknown.
+         * Return Value: None.
+         * Algorithm:
+         * 1. Count the call and its time, and raise the longest time if needed.
+         * 2. If allocation is known, add the bytes allocated since the start.
+         * Reference: None.
+         *********************************************************************
+         */
+        private void record(long elapsedNanos, long startBytes) {
+            calls.increment();
+            nanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            if (startBytes >= 0) {
+                bytes.add(Allocation.getAllocatedBytes() - startBytes);
+            }
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getCalls
+         * Purpose: Returns the number of calls.
+         * Parameters: None.
+         * Return Value: The call count.
+         * Algorithm:
+         * 1. Sum the counter.
+         * Reference: None.
+         *********************************************************************
+         */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getTotalNanos
+         * Purpose: Returns the time spent in the calls.
+         * Parameters: None.
+         * Return Value: The total time in nanoseconds.
+         * Algorithm:
+         * 1. Sum the counter.
+         * Reference: None.
+         *********************************************************************
+         */
+        public long getTotalNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getMeanNanos
+         * Purpose: Returns the mean time of a call.
+         * Parameters: None.
+         * Return Value: The mean time in nanoseconds, or 0 before the first
+         * call.
+         * Algorithm:
+         * 1. Divide the total time by the calls.
+         * Reference: None.
+         *********************************************************************
+         */
+        public double getMeanNanos() {
+            long count = getCalls();
+            return count == 0 ? 0 : (double) getTotalNanos() / count;
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getMaxNanos
+         * Purpose: Returns the time of the longest call.
+         * Parameters: None.
+         * Return Value: The longest time in nanoseconds.
+         * Algorithm:
+         * 1. Read the counter.
+         * Reference: None.
+         *********************************************************************
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getAllocatedBytes
+         * Purpose: Returns the bytes the calling threads allocated in the calls.
+         * Parameters: None.
+         * Return Value: The total bytes, or -1 if allocation is not metered.
+         * Algorithm:
+         * 1. Sum the counter if allocation is metered.
+         * Reference: None.
+         *********************************************************************
+         */
+        public long getAllocatedBytes() {
+            return Allocation.SUPPORTED ? bytes.sum() : -1;
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getMeanAllocatedBytes
+         * Purpose: Returns the mean bytes allocated by a call.
+         * Parameters: None.
+         * Return Value: The mean bytes, 0 before the first call, or -1 if
+         * allocation is not metered.
+         * Algorithm:
+         * 1. Divide the total bytes by the calls.
+         * Reference: None.
+         *********************************************************************
+         */
+        public double getMeanAllocatedBytes() {
+            if (!Allocation.SUPPORTED) {
+                return -1;
+            }
+            long count = getCalls();
+            return count == 0 ? 0 : (double) bytes.sum() / count;
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: reset
+         * Purpose: Sets the counters back to 0.
+         * Parameters: None.
+         * Return Value: None.
+         * Algorithm:
+         * 1. Reset every counter.
+         * Reference: None.
+         *********************************************************************
+         */
+        public void reset() {
+            calls.reset();
+            nanos.reset();
+            bytes.reset();
+            maxNanos.set(0);
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: toString
+         * Purpose: Describes the counters.
+         * Parameters: None.
+         * Return Value: The method, calls, mean and longest time and mean
+         * allocation.
+         * Algorithm:
+         * 1. Format the counters, times in microseconds.
+         * Reference: None.
+         *********************************************************************
+         */
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s[calls=%d, mean=%.1fus, max=%.1fus, meanBytes=%.0f]", method,
+                    getCalls(), getMeanNanos() / 1000, getMaxNanos() / 1000.0, getMeanAllocatedBytes());
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: Allocation
+     * Purpose: Reads the bytes allocated by the current thread. The JVM
+     * interface is only touched once it is known to be there, so the class
+     * also loads where it is missing.
+     * *********************************************************************
+     */
+    private static final class Allocation {
+        static final boolean SUPPORTED = isSupported();
+
+        /**
+         * *********************************************************************
+         * Function Name: getAllocatedBytes
+         * Purpose: Returns the bytes allocated by the current thread so far.
+         * Parameters: None.
+         * Return Value: The bytes, or -1 if they cannot be read.
+         * Algorithm:
+         * 1. Ask the JVM if it reports allocation.
+         * Reference: None.
+         *********************************************************************
+         */
+        static long getAllocatedBytes() {
+            return SUPPORTED ? JvmAllocation.getAllocatedBytes() : -1;
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: isSupported
+         * Purpose: Checks if the JVM reports allocation per thread.
+         * Parameters: None.
+         * Return Value: True if it does and the report is enabled.
+         * Algorithm:
+         * 1. Look for the JVM interface and try a reading; any failure means
+         * not supported.
+         * Reference: None.
+         *********************************************************************
+         */
+        private static boolean isSupported() {
+            try {
+                Class.forName("com.sun.management.ThreadMXBean");
+                return JvmAllocation.getAllocatedBytes() >= 0;
+            } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: JvmAllocation
+     * Purpose: Reads the allocated bytes from com.sun.management.ThreadMXBean.
+     * Only loaded once that interface is known to exist.
+     * *********************************************************************
+     */
+    private static final class JvmAllocation {
+        static final com.sun.management.ThreadMXBean BEAN =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+
+        static long getAllocatedBytes() {
+            return BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
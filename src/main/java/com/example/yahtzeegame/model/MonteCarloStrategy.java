@@ -0,0 +1,565 @@
+package com.example.yahtzeegame.model;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * *********************************************************************
+ * Class Name: MonteCarloStrategy
+ * Purpose: A computer strategy that needs no precomputed table. Each dice
+ * multiset that can be locked, and each category the final dice can be scored
+ * in, is valued by simulating the rest of the turn, or the rest of the game,
+ * with a fast default policy and averaging the points. It is meant for games
+ * that no table has been solved for. The rollouts of a decision are split into
+ * a fixed number of streams, each with its own random generator split from a
+ * seed and the position, and run in parallel. The streams are summed in a
+ * fixed order, so the decisions for a given seed and stream count are the same
+ * on every run, whatever threads run the streams. A strategy made with a
+ * cancel flag checks it before every rollout and stops its decision with a
+ * CancellationException once the flag is set.
+ * *********************************************************************
+ */
+public final class MonteCarloStrategy implements Strategy {
+    // Default number of rollouts per decision, shared by the candidates
+    public static final int DEFAULT_SAMPLES = 4096;
+
+    // Smallest score the default policy stands on instead of rolling again
+    private static final int STAND_SCORE = 25;
+
+    // Rolls left used in the key of a category selection, never used by a keep
+    private static final int SELECTION_ROLLS = Strategy.MAX_ROLLS_LEFT + 1;
+
+    // Ranks the candidates to keep; an evaluator is not thread-safe, so each thread has its own
+    private static final ThreadLocal<KeepEvaluator> EVALUATORS = ThreadLocal.withInitial(KeepEvaluator::new);
+
+    /**
+     * *********************************************************************
+     * Enum Name: Horizon
+     * Purpose: How far a rollout is simulated: to the end of the turn, which
+     * only counts the points scored this turn, or to the end of the game, which
+     * also counts the points of the categories left.
+     * *********************************************************************
+     */
+    public enum Horizon {
+        TURN,
+        GAME
+    }
+
+    private final Horizon horizon;
+    private final int samples;
+    private final int streams;
+    private final long seed;
+    private final AtomicBoolean cancelled;
+
+    /**
+     * *********************************************************************
+     * Function Name: MonteCarloStrategy
+     * Purpose: Creates a strategy that simulates to the end of the game with the
+     * default budget, one stream per processor and a random seed.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Use the defaults, drawing the seed from a new SplittableRandom.
+     * Reference: None.
+     *********************************************************************
+     */
+    public MonteCarloStrategy() {
+        this(Horizon.GAME, DEFAULT_SAMPLES, Runtime.getRuntime().availableProcessors(),
+                new SplittableRandom().nextLong());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: MonteCarloStrategy
+     * Purpose: Creates a strategy with a given horizon, budget, stream count
+     * and seed.
+     * Parameters:
+     * - horizon (Horizon): How far each rollout is simulated.
+     * - samples (int): The rollouts per decision (at least 1), shared evenly by
+     * the candidates; each candidate gets at least one rollout per stream.
+     * - streams (int): The number of random streams the rollouts are split into
+     * and run in parallel (at least 1).
+     * - seed (long): The seed the streams are split from.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Create the strategy with a cancel flag that is never set.
+     * Reference: None.
+     *********************************************************************
+     */
+    public MonteCarloStrategy(Horizon horizon, int samples, int streams, long seed) {
+        this(horizon, samples, streams, seed, new AtomicBoolean());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: MonteCarloStrategy
+     * Purpose: Creates a strategy whose decisions can be stopped, for searches
+     * with a deadline.
+     * Parameters:
+     * - horizon (Horizon): How far each rollout is simulated.
+     * - samples (int): The rollouts per decision (at least 1).
+     * - streams (int): The number of random streams (at least 1).
+     * - seed (long): The seed the streams are split from.
+     * - cancelled (AtomicBoolean): Set to stop the decisions in progress and
+     * every later one.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if an argument is out of range.
+     * 2. Store the arguments.
+     * Reference: None.
+     *********************************************************************
+     */
+    MonteCarloStrategy(Horizon horizon, int samples, int streams, long seed, AtomicBoolean cancelled) {
+        if (horizon == null) {
+            throw new IllegalArgumentException("Horizon must not be null");
+        }
+        if (samples < 1) {
+            throw new IllegalArgumentException("Samples must be at least 1: " + samples);
+        }
+        if (streams < 1) {
+            throw new IllegalArgumentException("Streams must be at least 1: " + streams);
+        }
+        this.horizon = horizon;
+        this.samples = samples;
+        this.streams = streams;
+        this.seed = seed;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Decides which of the rolled dice to keep.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm:
+     * 1. If the dice are not a five-dice roll or no category is open, use the
+     * heuristic strategy.
+     * 2. The candidates are the distinct multisets of kept dice plus a subset of
+     * the rolled dice, ranked by a KeepEvaluator; with no rolls left the only
+     * candidate is standing.
+     * 3. Estimate the value of each candidate by rollouts and keep the best;
+     * locking all five dice means standing.
+     * 4. The target is the category the default policy would score when
+     * standing, or else the open category with the highest expected score
+     * after rolling.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft) {
+        TurnSolver.checkRollsLeft(rollsLeft);
+        int openMask = scoreCard.getOpenMask();
+        int keptKey = ScoreTable.packKey(keptDice);
+        int rolledKey = ScoreTable.packKey(diceRolls);
+        int rollKey = ScoreTable.packKey(helperFunctions.concatenate(keptDice, diceRolls));
+        int rollId = rollKey < 0 ? -1 : ScoreTable.getRollIdForKey(rollKey);
+        if (openMask == 0 || keptKey < 0 || rolledKey < 0 || rollId < 0) {
+            return HeuristicStrategy.INSTANCE.getHelp(scoreCard, keptDice, diceRolls, rollsLeft);
+        }
+
+        int[] candidates = getKeepKeys(openMask, DiceCatalogue.getIdForKey(keptKey), rollId, rollsLeft);
+        double[] values = estimate(HelpCache.key(openMask, keptKey, rolledKey, rollsLeft), candidates.length,
+                (candidate, random) -> playTurn(openMask, candidates[candidate], rollsLeft, random));
+        int keepKey = candidates[argMax(values)];
+
+        boolean stand = keepKey == rollKey;
+        List<Integer> diceToKeep = DiceHistogram.fromPacked(keepKey - keptKey).toList();
+        int ordinal = stand ? getPolicyCategory(openMask, rollId) : getTargetCategory(openMask, keepKey);
+        return new Help(diceToKeep, Category.values()[ordinal], stand);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Decides which category to score the final dice in.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (List<Integer>): The final dice.
+     * Return Value: The applicable open category with the highest estimated
+     * value, or empty if none is applicable.
+     * Algorithm:
+     * 1. If the dice are not a five-dice roll, use the heuristic strategy.
+     * 2. With the turn horizon, or a single applicable category, take the
+     * highest score.
+     * 3. Otherwise, value each applicable category by its points plus rollouts
+     * of the rest of the game without it, and take the best.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public Optional<Category> getCategorySelection(ScoreCard scoreCard, List<Integer> dice) {
+        int rollKey = ScoreTable.packKey(dice);
+        int rollId = rollKey < 0 ? -1 : ScoreTable.getRollIdForKey(rollKey);
+        if (rollId < 0) {
+            return HeuristicStrategy.INSTANCE.getCategorySelection(scoreCard, dice);
+        }
+        int openMask = scoreCard.getOpenMask();
+        int applicableMask = openMask & ScoreTable.getApplicableMask(rollId);
+        if (applicableMask == 0) {
+            return Optional.empty();
+        }
+        if (horizon == Horizon.TURN || Integer.bitCount(applicableMask) == 1) {
+            return Optional.of(Category.values()[getPolicyCategory(applicableMask, rollId)]);
+        }
+
+        int[] ordinals = new int[Integer.bitCount(applicableMask)];
+        for (int bits = applicableMask, i = 0; bits != 0; bits &= bits - 1, i++) {
+            ordinals[i] = Integer.numberOfTrailingZeros(bits);
+        }
+        double[] values = estimate(HelpCache.key(openMask, 0, rollKey, SELECTION_ROLLS), ordinals.length,
+                (candidate, random) -> ScoreTable.getScore(rollId, ordinals[candidate])
+                        + playGame(openMask & ~(1 << ordinals[candidate]), random));
+        return Optional.of(Category.values()[ordinals[argMax(values)]]);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHorizon
+     * Purpose: Returns how far each rollout is simulated.
+     * Parameters: None.
+     * Return Value: The horizon.
+     * Algorithm:
+     * 1. Return the stored horizon.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Horizon getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSamples
+     * Purpose: Returns the rollout budget of a decision.
+     * Parameters: None.
+     * Return Value: The rollouts per decision.
+     * Algorithm:
+     * 1. Return the stored budget.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getStreams
+     * Purpose: Returns the number of random streams of a decision.
+     * Parameters: None.
+     * Return Value: The stream count.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getStreams() {
+        return streams;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSeed
+     * Purpose: Returns the seed the streams are split from.
+     * Parameters: None.
+     * Return Value: The seed.
+     * Algorithm:
+     * 1. Return the stored seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * *********************************************************************
+     * Interface Name: Rollout
+     * Purpose: Simulates one rollout of a candidate and returns its points.
+     * *********************************************************************
+     */
+    private interface Rollout {
+        double play(int candidate, SplittableRandom random);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: estimate
+     * Purpose: Estimates the value of each candidate by averaging rollouts.
+     * Parameters:
+     * - position (long): A key of the position, mixed into the seed so each
+     * position gets its own streams.
+     * - candidates (int): The number of candidates.
+     * - rollout (Rollout): Simulates one rollout of a candidate.
+     * Return Value: The mean points of each candidate.
+     * Algorithm:
+     * 1. Split one generator per stream, in order, from a generator seeded with
+     * the seed and the position.
+     * 2. Share the budget evenly by the candidates and each candidate's share
+     * evenly by the streams, giving every stream at least one rollout.
+     * 3. Run the streams in parallel; each plays its rollouts of every
+     * candidate in order and sums them in its own row, and throws a
+     * CancellationException if the cancel flag is set before a rollout.
+     * 4. Add the rows up in stream order and divide by the rollouts.
+     * Reference: None.
+     *********************************************************************
+     */
+    private double[] estimate(long position, int candidates, Rollout rollout) {
+        SplittableRandom root = new SplittableRandom(seed ^ position * 0x9E3779B97F4A7C15L);
+        SplittableRandom[] randoms = new SplittableRandom[streams];
+        for (int stream = 0; stream < streams; stream++) {
+            randoms[stream] = root.split();
+        }
+
+        int perCandidate = Math.max(samples / candidates, streams);
+        double[][] sums = new double[streams][candidates];
+        IntStream.range(0, streams).parallel().forEach(stream -> {
+            int count = perCandidate / streams + (stream < perCandidate % streams ? 1 : 0);
+            SplittableRandom random = randoms[stream];
+            double[] row = sums[stream];
+            for (int candidate = 0; candidate < candidates; candidate++) {
+                for (int i = 0; i < count; i++) {
+                    if (cancelled.get()) {
+                        throw new CancellationException("Search cancelled");
+                    }
+                    row[candidate] += rollout.play(candidate, random);
+                }
+            }
+        });
+
+        double[] means = new double[candidates];
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            double sum = 0;
+            for (int stream = 0; stream < streams; stream++) {
+                sum += sums[stream][candidate];
+            }
+            means[candidate] = sum / perCandidate;
+        }
+        return means;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playTurn
+     * Purpose: Plays the rest of a turn after locking dice, and the rest of the
+     * game with the game horizon.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * - lockedKey (int): The packed counts of the locked dice.
+     * - rollsLeft (int): The rolls left in the turn.
+     * - random (SplittableRandom): The generator of the stream.
+     * Return Value: The points scored.
+     * Algorithm:
+     * 1. If fewer than five dice are locked, roll the rest and continue the turn
+     * with the default policy.
+     * 2. Score the dice in the category the default policy picks, or scratch the
+     * first open category if none is applicable.
+     * 3. With the game horizon, add the points of the rest of the game.
+     * Reference: None.
+     *********************************************************************
+     */
+    private double playTurn(int openMask, int lockedKey, int rollsLeft, SplittableRandom random) {
+        int rollId = ScoreTable.getRollIdForKey(lockedKey);
+        if (rollId < 0) {
+            int lockedCount = DiceCatalogue.getSize(DiceCatalogue.getIdForKey(lockedKey));
+            rollId = playRolls(openMask, lockedKey, lockedCount, rollsLeft - 1, random);
+        }
+        int ordinal = getPolicyCategory(openMask, rollId);
+        double points = ScoreTable.getScore(rollId, ordinal);
+        return horizon == Horizon.GAME ? points + playGame(openMask & ~(1 << ordinal), random) : points;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playGame
+     * Purpose: Plays the rest of the game with the default policy.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - random (SplittableRandom): The generator of the stream.
+     * Return Value: The points scored.
+     * Algorithm:
+     * 1. While a category is open, play a whole turn and score it in the
+     * category the default policy picks.
+     * Reference: None.
+     *********************************************************************
+     */
+    private double playGame(int openMask, SplittableRandom random) {
+        int points = 0;
+        while (openMask != 0) {
+            int rollId = playRolls(openMask, 0, 0, Strategy.MAX_ROLLS_LEFT, random);
+            int ordinal = getPolicyCategory(openMask, rollId);
+            points += ScoreTable.getScore(rollId, ordinal);
+            openMask &= ~(1 << ordinal);
+        }
+        return points;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playRolls
+     * Purpose: Rolls the unlocked dice and follows the default policy for the
+     * rolls left.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * - lockedKey (int): The packed counts of the locked dice.
+     * - lockedCount (int): The number of locked dice.
+     * - rollsLeft (int): The rolls left after this roll.
+     * - random (SplittableRandom): The generator of the stream.
+     * Return Value: The roll id of the final dice.
+     * Algorithm:
+     * 1. Roll the unlocked dice.
+     * 2. Stand if no rolls are left or an open category scores at least
+     * STAND_SCORE.
+     * 3. Otherwise, lock every die of the most common face (the highest face
+     * on a tie) and roll again.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int playRolls(int openMask, int lockedKey, int lockedCount, int rollsLeft,
+            SplittableRandom random) {
+        while (true) {
+            int key = lockedKey;
+            for (int i = lockedCount; i < DiceCatalogue.MAX_DICE; i++) {
+                key = DiceHistogram.addFace(key, 1 + random.nextInt(6));
+            }
+            int rollId = ScoreTable.getRollIdForKey(key);
+            if (rollsLeft == 0 || ScoreTable.getBestScore(rollId,
+                    openMask & ScoreTable.getApplicableMask(rollId)) >= STAND_SCORE) {
+                return rollId;
+            }
+
+            int bestFace = 1;
+            int bestCount = 0;
+            for (int face = 1; face <= 6; face++) {
+                int count = (key >>> ((face - 1) * ScoreTable.BITS_PER_FACE)) & 7;
+                if (count >= bestCount) {
+                    bestCount = count;
+                    bestFace = face;
+                }
+            }
+            lockedKey = bestCount << ((bestFace - 1) * ScoreTable.BITS_PER_FACE);
+            lockedCount = bestCount;
+            rollsLeft--;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getPolicyCategory
+     * Purpose: Picks the category the default policy scores a roll in.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * - rollId (int): The roll id of the final dice.
+     * Return Value: The ordinal of the applicable open category with the
+     * highest score, or the first open category if none is applicable.
+     * Algorithm:
+     * 1. Take the highest score among the applicable open categories.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int getPolicyCategory(int openMask, int rollId) {
+        int applicableMask = openMask & ScoreTable.getApplicableMask(rollId);
+        if (applicableMask == 0) {
+            return Integer.numberOfTrailingZeros(openMask);
+        }
+        int best = -1;
+        int bestScore = -1;
+        for (int bits = applicableMask; bits != 0; bits &= bits - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(bits);
+            int score = ScoreTable.getScore(rollId, ordinal);
+            if (score > bestScore) {
+                bestScore = score;
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getTargetCategory
+     * Purpose: Picks the category to aim for after locking dice.
+     * Parameters:
+     * - openMask (int): The open categories (not empty).
+     * - keepKey (int): The packed counts of the locked dice.
+     * Return Value: The ordinal of the open category with the highest expected
+     * score after rolling.
+     * Algorithm:
+     * 1. Read the expected score of each open category from the
+     * TransitionTable.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int getTargetCategory(int openMask, int keepKey) {
+        int keepId = DiceCatalogue.getIdForKey(keepKey);
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int bits = openMask; bits != 0; bits &= bits - 1) {
+            int ordinal = Integer.numberOfTrailingZeros(bits);
+            double value = TransitionTable.getExpectedScore(keepId, Category.values()[ordinal]);
+            if (value >= bestValue) {
+                bestValue = value;
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKeepKeys
+     * Purpose: Lists the distinct multisets that can be locked.
+     * Parameters:
+     * - openMask (int): The open categories.
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rollId (int): The roll id of all five dice.
+     * - rollsLeft (int): The rolls left in the turn.
+     * Return Value: The packed keys of the candidates, best first by the
+     * points expected this turn.
+     * Algorithm:
+     * 1. Rank the candidates with the KeepEvaluator of the thread and copy
+     * their keys, since the evaluator is reused.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int[] getKeepKeys(int openMask, int keptId, int rollId, int rollsLeft) {
+        KeepEvaluator evaluator = EVALUATORS.get();
+        int[] keys = new int[evaluator.evaluate(openMask, keptId, rollId, rollsLeft)];
+        for (int rank = 0; rank < keys.length; rank++) {
+            keys[rank] = DiceCatalogue.getKey(evaluator.getKeepId(rank));
+        }
+        return keys;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: argMax
+     * Purpose: Finds the best of the estimated values.
+     * Parameters:
+     * - values (double[]): The values (not empty).
+     * Return Value: The index of the highest value, the first one on a tie.
+     * Algorithm:
+     * 1. Scan the values.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int argMax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
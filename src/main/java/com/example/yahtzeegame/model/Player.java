@@ -153,6 +153,24 @@ public class Player implements Serializable {
         return ioFunctions.getDiceRoll(numDice);
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: getDiceRoll
+     * Purpose: Gets the dice roll for the player, rolling automatically with a
+     * given random source.
+     * Parameters:
+     * int numDice - the number of dice to roll.
+     * RandomSource random - the source of automatic rolls.
+     * Return Value: List<Integer> - a list of rolled dice values.
+     * Algorithm:
+     * 1. Call ioFunctions.getDiceRoll with the source and return the result.
+     * Reference: None.
+     *********************************************************************
+     */
+    public List<Integer> getDiceRoll(int numDice, RandomSource random) {
+        return ioFunctions.getDiceRoll(numDice, random);
+    }
+
     /**
      * *********************************************************************
      * Function Name: getDiceToKeep
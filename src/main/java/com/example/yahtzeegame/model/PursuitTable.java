@@ -0,0 +1,167 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Class Name: PursuitTable
+ * Purpose: Holds, for each multiset of kept dice in the DiceCatalogue, the
+ * categories that can still be reached by rolling the remaining dice and, for
+ * each category, the lowest and highest score over all final rolls together
+ * with the dice to roll to get them. The table is built once when the class is
+ * loaded, so pursuits and possible categories are lookups instead of a search
+ * over every final roll.
+ * *********************************************************************
+ */
+public final class PursuitTable {
+    private static final int NUM_CATEGORIES = ScoreTable.NUM_CATEGORIES;
+
+    // Bit i is set when the category with ordinal i applies to some final roll of the kept dice
+    private static final int[] REACHABLE = new int[DiceCatalogue.NUM_MULTISETS];
+
+    // Scores and DiceCatalogue ids of the rolled dice, stored as [keptId * NUM_CATEGORIES + ordinal]
+    private static final int[] MIN_SCORES = new int[DiceCatalogue.NUM_MULTISETS * NUM_CATEGORIES];
+    private static final int[] MAX_SCORES = new int[DiceCatalogue.NUM_MULTISETS * NUM_CATEGORIES];
+    private static final int[] MIN_ROLLS = new int[DiceCatalogue.NUM_MULTISETS * NUM_CATEGORIES];
+    private static final int[] MAX_ROLLS = new int[DiceCatalogue.NUM_MULTISETS * NUM_CATEGORIES];
+
+    static {
+        for (int keptId = 0; keptId < DiceCatalogue.NUM_MULTISETS; keptId++) {
+            int numRolled = DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId);
+            int firstRolledId = DiceCatalogue.firstId(numRolled);
+            int base = keptId * NUM_CATEGORIES;
+
+            for (int ordinal = 0; ordinal < NUM_CATEGORIES; ordinal++) {
+                MIN_SCORES[base + ordinal] = Integer.MAX_VALUE;
+                MAX_SCORES[base + ordinal] = Integer.MIN_VALUE;
+            }
+
+            // Walk the rolls in catalogue order: the minimum keeps the first roll that
+            // reaches it and the maximum keeps the last one, as the pursuit search did
+            for (int i = 0; i < DiceCatalogue.count(numRolled); i++) {
+                int rollId = DiceCatalogue.getFinalRollId(keptId, i);
+                REACHABLE[keptId] |= ScoreTable.getApplicableMask(rollId);
+                for (int ordinal = 0; ordinal < NUM_CATEGORIES; ordinal++) {
+                    int score = ScoreTable.getScore(rollId, ordinal);
+                    if (score < MIN_SCORES[base + ordinal]) {
+                        MIN_SCORES[base + ordinal] = score;
+                        MIN_ROLLS[base + ordinal] = firstRolledId + i;
+                    }
+                    if (score >= MAX_SCORES[base + ordinal]) {
+                        MAX_SCORES[base + ordinal] = score;
+                        MAX_ROLLS[base + ordinal] = firstRolledId + i;
+                    }
+                }
+            }
+        }
+    }
+
+    private PursuitTable() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getReachableMask
+     * Purpose: Returns the categories that can still apply after rolling the dice
+     * that are not kept.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * Return Value: A mask where bit i is set if the category with ordinal i
+     * applies to at least one final roll.
+     * Algorithm:
+     * 1. Read the mask from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getReachableMask(int keptId) {
+        return REACHABLE[keptId];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isReachable
+     * Purpose: Checks if a category can still apply after rolling the dice that
+     * are not kept.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to check.
+     * Return Value: True if the category applies to at least one final roll.
+     * Algorithm:
+     * 1. Test the bit of the category in the reachable mask.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static boolean isReachable(int keptId, Category category) {
+        return (REACHABLE[keptId] & category.getMask()) != 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMinScore
+     * Purpose: Returns the lowest score in a category over all final rolls of the
+     * kept dice.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to score.
+     * Return Value: The lowest score, 0 if some final roll does not apply.
+     * Algorithm:
+     * 1. Read the score from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getMinScore(int keptId, Category category) {
+        return MIN_SCORES[keptId * NUM_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMaxScore
+     * Purpose: Returns the highest score in a category over all final rolls of the
+     * kept dice.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to score.
+     * Return Value: The highest score.
+     * Algorithm:
+     * 1. Read the score from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getMaxScore(int keptId, Category category) {
+        return MAX_SCORES[keptId * NUM_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRollToGetMin
+     * Purpose: Returns the dice to roll to get the lowest score in a category.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to score.
+     * Return Value: The DiceCatalogue id of the first rolled dice, in catalogue
+     * order, that give the lowest score.
+     * Algorithm:
+     * 1. Read the id from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getRollToGetMin(int keptId, Category category) {
+        return MIN_ROLLS[keptId * NUM_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRollToGetMax
+     * Purpose: Returns the dice to roll to get the highest score in a category.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to score.
+     * Return Value: The DiceCatalogue id of the last rolled dice, in catalogue
+     * order, that give the highest score.
+     * Algorithm:
+     * 1. Read the id from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getRollToGetMax(int keptId, Category category) {
+        return MAX_ROLLS[keptId * NUM_CATEGORIES + category.ordinal()];
+    }
+}
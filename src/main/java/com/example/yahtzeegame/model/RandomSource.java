@@ -0,0 +1,82 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Interface Name: RandomSource
+ * Purpose: Supplies the random numbers of dice rolls and die tosses, so games
+ * can be played with a seeded source and replayed, and simulations on many
+ * threads each use their own source instead of one shared generator.
+ * SplittableRandomSource is seedable and meant for one thread at a time;
+ * ThreadLocalRandomSource.INSTANCE is the default, and is safe and uncontended
+ * on any thread but cannot be seeded.
+ * *********************************************************************
+ */
+public interface RandomSource {
+    /**
+     * *********************************************************************
+     * Function Name: nextInt
+     * Purpose: Returns a uniform random integer below a bound.
+     * Parameters:
+     * - bound (int): The exclusive upper bound (positive).
+     * Return Value: A value from 0 to bound - 1.
+     * Algorithm: Depends on the source.
+     * Reference: None.
+     *********************************************************************
+     */
+    int nextInt(int bound);
+
+    /**
+     * *********************************************************************
+     * Function Name: nextLong
+     * Purpose: Returns a uniform random long, for example to seed a game.
+     * Parameters: None.
+     * Return Value: Any long value.
+     * Algorithm: Depends on the source.
+     * Reference: None.
+     *********************************************************************
+     */
+    long nextLong();
+
+    /**
+     * *********************************************************************
+     * Function Name: split
+     * Purpose: Creates an independent source for another thread or game.
+     * Parameters: None.
+     * Return Value: A new source; for a seeded source, the same sequence of
+     * calls gives the same new source.
+     * Algorithm: Depends on the source.
+     * Reference: None.
+     *********************************************************************
+     */
+    RandomSource split();
+
+    /**
+     * *********************************************************************
+     * Function Name: rollDie
+     * Purpose: Rolls one die.
+     * Parameters: None.
+     * Return Value: A face value from 1 to 6.
+     * Algorithm:
+     * 1. Draw one of six values and shift it to the faces.
+     * Reference: None.
+     *********************************************************************
+     */
+    default int rollDie() {
+        return nextInt(6) + 1;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextBoolean
+     * Purpose: Returns a fair random boolean.
+     * Parameters: None.
+     * Return Value: True or false with equal chance.
+     * Algorithm:
+     * 1. Draw one of two values.
+     * Reference: None.
+     *********************************************************************
+     */
+    default boolean nextBoolean() {
+        return nextInt(2) == 0;
+    }
+}
@@ -21,14 +21,27 @@ public class Reason {
     // The dice values the player would need to roll in order to achieve the minimum score in this category
     private final List<Integer> rollToGetMin;
 
+    // The expected score in this category after rolling the remaining dice, NaN if unknown
+    private final double expectedScore;
+
+    // The chance that this category applies after rolling the remaining dice, NaN if unknown
+    private final double hitProbability;
+
     // Constructor
     public Reason(List<Integer> currentDice, Category pursuedCategory, int maxScore, List<Integer> rollToGetMax, int minScore, List<Integer> rollToGetMin) {
+        this(currentDice, pursuedCategory, maxScore, rollToGetMax, minScore, rollToGetMin, Double.NaN, Double.NaN);
+    }
+
+    // Constructor with the odds of the category
+    public Reason(List<Integer> currentDice, Category pursuedCategory, int maxScore, List<Integer> rollToGetMax, int minScore, List<Integer> rollToGetMin, double expectedScore, double hitProbability) {
         this.currentDice = currentDice;
         this.pursuedCategory = pursuedCategory;
         this.maxScore = maxScore;
         this.rollToGetMax = rollToGetMax;
         this.minScore = minScore;
         this.rollToGetMin = rollToGetMin;
+        this.expectedScore = expectedScore;
+        this.hitProbability = hitProbability;
     }
 
    /**
@@ -120,4 +133,34 @@ public int getMinScore() {
 public List<Integer> getRollToGetMin() {
     return rollToGetMin;
 }
-}
\ No newline at end of file
+
+/**
+ * *********************************************************************
+ * Function Name: getExpectedScore
+ * Purpose: Retrieves the expected score in the pursued category after rolling the remaining dice.
+ * Parameters: None.
+ * Return Value: The expected score as a double, or NaN if it was not computed.
+ * Algorithm:
+ * 1. Return the expectedScore value.
+ * Reference: None.
+ *********************************************************************
+ */
+public double getExpectedScore() {
+    return expectedScore;
+}
+
+/**
+ * *********************************************************************
+ * Function Name: getHitProbability
+ * Purpose: Retrieves the chance that the pursued category applies after rolling the remaining dice.
+ * Parameters: None.
+ * Return Value: The probability as a double, or NaN if it was not computed.
+ * Algorithm:
+ * 1. Return the hitProbability value.
+ * Reference: None.
+ *********************************************************************
+ */
+public double getHitProbability() {
+    return hitProbability;
+}
+}
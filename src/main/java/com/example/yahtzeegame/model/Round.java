@@ -33,8 +33,33 @@ public class Round {
      *********************************************************************
      */
     public static ScoreCard playRound(int roundNumber, ScoreCard scoreCard, List<Player> players) {
+        return playRound(roundNumber, scoreCard, players, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playRound
+     * Purpose: Plays a round of Yahtzee with the dice and tie-breaker tosses
+     * drawn from a given random source.
+     * Parameters:
+     * - roundNumber (int): The number of the current round.
+     * - scoreCard (ScoreCard): The scorecard to track the players' scores.
+     * - players (List<Player>): A list of players participating in the round.
+     * - random (RandomSource): The source of the automatic rolls.
+     * Return Value: The updated ScoreCard after the round is complete.
+     * Algorithm:
+     * 1. Get the current player scores from the scorecard.
+     * 2. Create a player queue based on the scores using getPlayerQueue().
+     * 3. Play each player's turn with the source until the round is over or
+     * the scorecard is full, and update the scorecard.
+     * 4. Return the updated scorecard after the round ends.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static ScoreCard playRound(int roundNumber, ScoreCard scoreCard, List<Player> players,
+            RandomSource random) {
         Map<Player, Integer> playerScores = scoreCard.getPlayerScores(players);
-        Queue<Player> playerQueue = getPlayerQueue(playerScores);
+        Queue<Player> playerQueue = getPlayerQueue(playerScores, random);
         System.out.println("Player Queue: " + playerQueue);
 
         ScoreCard currentScoreCard = scoreCard;
@@ -47,7 +72,7 @@ public class Round {
 
             System.out.println("It's " + player.getName() + "'s turn.");
 
-            List<Integer> dice = Turn.playTurn(player, scoreCard);
+            List<Integer> dice = Turn.playTurn(player, scoreCard, random);
 
             Optional<Category> scoredCategory = scoreCard.getMaxScoringCategory(dice);
 
@@ -88,7 +113,7 @@ public class Round {
      * Reference: None.
      *********************************************************************
      */
-    private static Queue<Player> getPlayerQueue(Map<Player, Integer> playerScores) {
+    private static Queue<Player> getPlayerQueue(Map<Player, Integer> playerScores, RandomSource random) {
         Queue<Player> playerQueue = new LinkedList<>();
 
         Iterator<Map.Entry<Player, Integer>> iterator = playerScores.entrySet().iterator();
@@ -104,7 +129,7 @@ public class Round {
             } else {
                 System.out.println("Both players have a score of " + player1Score + ". Conducting a tie breaker.");
             }
-            return queueFromTieBreaker(player1, player2);
+            return queueFromTieBreaker(player1, player2, random);
         }
 
         return enqueuePlayersByScore(playerScores);
@@ -126,13 +151,13 @@ public class Round {
      * Reference: None.
      *********************************************************************
      */
-    private static Queue<Player> queueFromTieBreaker(Player player1, Player player2) {
+    private static Queue<Player> queueFromTieBreaker(Player player1, Player player2, RandomSource random) {
         Queue<Player> playerQueue = new LinkedList<>();
 
         Player humanPlayer = player1.getName().equals("Human") ? player1 : player2;
         Player computerPlayer = player1.getName().equals("Computer") ? player1 : player2;
 
-        if (ioFunctions.humanWonTieBreaker()) {
+        if (ioFunctions.humanWonTieBreaker(random)) {
             playerQueue.add(humanPlayer);
             playerQueue.add(computerPlayer);
         } else {
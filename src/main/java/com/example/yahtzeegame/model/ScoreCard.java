@@ -12,6 +12,9 @@ import java.util.Optional;
 public class ScoreCard {
     private final Map<Category, Optional<ScoreCardEntry>> scoreCard;
 
+    // Bit i is set while the category with ordinal i has no entry
+    private final int openMask;
+
     /**
      * *********************************************************************
      * Function Name: ScoreCard
@@ -26,6 +29,7 @@ public class ScoreCard {
      */
     public ScoreCard() {
         this.scoreCard = initializeScoreCard();
+        this.openMask = computeOpenMask(scoreCard);
     }
 
     /**
@@ -39,11 +43,13 @@ public class ScoreCard {
      * the provided map.
      * Algorithm:
      * 1. Initialize the scoreCard attribute with the provided map.
+     * 2. Compute the mask of open categories from the map.
      * Reference: None.
      *********************************************************************
      */
     public ScoreCard(Map<Category, Optional<ScoreCardEntry>> scoreCard) {
         this.scoreCard = scoreCard;
+        this.openMask = computeOpenMask(scoreCard);
     }
 
     /**
@@ -61,6 +67,7 @@ public class ScoreCard {
      */
     public ScoreCard(ScoreCard other) {
         this.scoreCard = other.scoreCard;
+        this.openMask = other.openMask;
     }
 
     /**
@@ -143,6 +150,47 @@ public class ScoreCard {
         return tempScoreCard;
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: computeOpenMask
+     * Purpose: Computes the bitmask of the categories that have no entry in a
+     * scorecard map.
+     * Parameters:
+     * - scoreCard (Map<Category, Optional<ScoreCardEntry>>): The scorecard
+     * entries. Passed by reference, not modified.
+     * Return Value: A mask where bit i is set if the category with ordinal i is
+     * open.
+     * Algorithm:
+     * 1. Set the bit of every category whose entry is empty.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int computeOpenMask(Map<Category, Optional<ScoreCardEntry>> scoreCard) {
+        int mask = 0;
+        for (Map.Entry<Category, Optional<ScoreCardEntry>> entry : scoreCard.entrySet()) {
+            if (!entry.getValue().isPresent()) {
+                mask |= entry.getKey().getMask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getOpenMask
+     * Purpose: Returns the categories that have not yet been filled as a bitmask.
+     * Parameters: None.
+     * Return Value: A mask where bit i is set if the category with ordinal i is
+     * open.
+     * Algorithm:
+     * 1. Return the openMask attribute.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getOpenMask() {
+        return openMask;
+    }
+
     /**
      * *********************************************************************
      * Function Name: getScore
@@ -164,6 +212,25 @@ public class ScoreCard {
         return Category.getScore(dice, category);
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: getScore
+     * Purpose: Retrieves the score for a given category based on dice given as a
+     * histogram.
+     * Parameters:
+     * - dice (DiceHistogram): The dice values.
+     * - category (Category): The category for which the score needs to be
+     * calculated.
+     * Return Value: The score (int) for the specified category.
+     * Algorithm:
+     * 1. Call the Category.getScore method with the given dice and category.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getScore(DiceHistogram dice, Category category) {
+        return Category.getScore(dice, category);
+    }
+
     /**
      * *********************************************************************
      * Function Name: isPossibleCategory
@@ -353,6 +420,31 @@ public class ScoreCard {
         return this;
     }
 
+    /**
+     * *********************************************************************
+     * Function Name: addEntry
+     * Purpose: Adds an entry to the scorecard using dice given as a histogram to
+     * calculate the score.
+     * Parameters:
+     * - category: The category to which the entry is added.
+     * - round: The round number for the entry.
+     * - winner: The player who won the category.
+     * - dice: A DiceHistogram of the dice values.
+     * Return Value: A new ScoreCard with the added entry.
+     * Algorithm:
+     * 1. Check if the category is open.
+     * 2. If open, calculate the score for the given category and add the entry.
+     * 3. If the category is not open, return the current ScoreCard.
+     * Reference: None.
+     *********************************************************************
+     */
+    public ScoreCard addEntry(Category category, int round, Player winner, DiceHistogram dice) {
+        if (isCategoryOpen(category)) {
+            return addEntry(category, round, winner, Category.getScore(dice, category));
+        }
+        return this;
+    }
+
     /**
      * *********************************************************************
      * Function Name: addEntry
@@ -388,49 +480,145 @@ public class ScoreCard {
      * Return Value: The category with the highest score, or empty if no applicable
      * category is found.
      * Algorithm:
-     * 1. Get the list of open categories and applicable categories for the dice
-     * roll.
-     * 2. Find the intersection between open and applicable categories.
-     * 3. For each assignable category, calculate the score.
-     * 4. Select the category with the highest score. If multiple categories have
-     * the same score, select the best one.
-     * 5. Return the category with the highest score.
+     * 1. Intersect the open mask with the applicable mask of the dice.
+     * 2. If the dice are a five-dice roll, select the category from the score
+     * table.
+     * 3. Otherwise, score each assignable category from the highest ordinal down
+     * and keep the first one with the highest score, so that a tie goes to the
+     * later category (FIVE_STRAIGHT over FOUR_STRAIGHT).
      * Reference: None.
      *********************************************************************
      */
     public Optional<Category> getMaxScoringCategory(List<Integer> dice) {
-        List<Category> openCategories = getOpenCategories();
-        List<Category> applicableCategories = Category.getApplicableCategories(dice);
-        List<Category> assignableCategories = helperFunctions.intersection(openCategories, applicableCategories);
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return toCategory(getMaxScoringCategory(rollId));
+        }
 
-        if (assignableCategories.isEmpty()) {
-            return Optional.empty();
+        int best = -1;
+        int maxScore = -1;
+        for (int bits = openMask & Category.getApplicableMask(dice); bits != 0; ) {
+            int ordinal = 31 - Integer.numberOfLeadingZeros(bits);
+            bits &= ~(1 << ordinal);
+            int score = Category.getScore(dice, Category.CATEGORIES.get(ordinal));
+            if (score > maxScore) {
+                maxScore = score;
+                best = ordinal;
+            }
         }
+        return toCategory(best);
+    }
 
-        Map<Category, Integer> categoryScores = new HashMap<>();
-        for (Category category : assignableCategories) {
-            int score = Category.getScore(dice, category);
-            categoryScores.put(category, score);
+    /**
+     * *********************************************************************
+     * Function Name: getMaxScoringCategory
+     * Purpose: Determines the category with the highest score for dice given as a
+     * histogram.
+     * Parameters:
+     * - dice: A DiceHistogram of the dice values.
+     * Return Value: The category with the highest score, or empty if no applicable
+     * category is found.
+     * Algorithm:
+     * 1. If the dice are a five-dice roll, select the category from the score
+     * table.
+     * 2. Otherwise, select the category as for a list.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Optional<Category> getMaxScoringCategory(DiceHistogram dice) {
+        int rollId = ScoreTable.getRollId(dice);
+        if (rollId >= 0) {
+            return toCategory(getMaxScoringCategory(rollId));
         }
+        return getMaxScoringCategory(dice.toList());
+    }
 
-        List<Category> maxCategories = new ArrayList<>();
-        int maxScore = 0;
-        for (Map.Entry<Category, Integer> entry : categoryScores.entrySet()) {
-            if (entry.getValue() == maxScore) {
-                maxCategories.add(entry.getKey());
-            } else if (entry.getValue() > maxScore) {
-                maxScore = entry.getValue();
-                maxCategories.clear();
-                maxCategories.add(entry.getKey());
+    /**
+     * *********************************************************************
+     * Function Name: getMaxScoringCategory
+     * Purpose: Determines the open category with the highest score for a five-dice
+     * roll without allocating.
+     * Parameters:
+     * - rollId: The roll id (0-251) from the score table.
+     * Return Value: The ordinal of the category with the highest score, or -1 if no
+     * open category is applicable.
+     * Algorithm:
+     * 1. Intersect the open mask with the applicable mask of the roll.
+     * 2. Walk the set bits from the highest ordinal down, keeping the first
+     * category with the highest score, so that a tie goes to the later category
+     * (FIVE_STRAIGHT over FOUR_STRAIGHT).
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getMaxScoringCategory(int rollId) {
+        int best = -1;
+        int maxScore = -1;
+        for (int bits = openMask & ScoreTable.getApplicableMask(rollId); bits != 0; ) {
+            int ordinal = 31 - Integer.numberOfLeadingZeros(bits);
+            bits &= ~(1 << ordinal);
+            int score = ScoreTable.getScore(rollId, ordinal);
+            if (score > maxScore) {
+                maxScore = score;
+                best = ordinal;
             }
         }
+        return best;
+    }
 
-        if (maxCategories.contains(Category.FIVE_STRAIGHT) && maxCategories.contains(Category.FOUR_STRAIGHT)) {
-            return Optional.of(Category.FIVE_STRAIGHT);
-        }
+    /**
+     * *********************************************************************
+     * Function Name: scoreRolls
+     * Purpose: Scores a batch of rolls in the open categories of the scorecard.
+     * Parameters:
+     * - rollIds: The ScoreTable roll ids to score.
+     * - count: The number of roll ids to read from the array.
+     * - scores: The output matrix of at least count * 12 entries, filled as
+     * scores[i * 12 + ordinal]; filled categories get 0.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Score the rolls against the open mask.
+     * Reference: None.
+     *********************************************************************
+     */
+    public void scoreRolls(int[] rollIds, int count, int[] scores) {
+        Category.scoreRolls(rollIds, count, openMask, scores);
+    }
 
-        Category maxCategory = maxCategories.get(0);
-        return Optional.of(maxCategory);
+    /**
+     * *********************************************************************
+     * Function Name: topRolls
+     * Purpose: Finds the rolls of a batch with the highest score in any open
+     * category.
+     * Parameters:
+     * - rollIds: The ScoreTable roll ids to score.
+     * - count: The number of roll ids to read from the array.
+     * - topIndices: Filled with the indices into rollIds of the best rolls, best
+     * first.
+     * - topScores: Filled with the best score of each of those rolls.
+     * Return Value: The number of rolls written.
+     * Algorithm:
+     * 1. Rank the rolls against the open mask.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int topRolls(int[] rollIds, int count, int[] topIndices, int[] topScores) {
+        return Category.topRolls(rollIds, count, openMask, topIndices, topScores);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toCategory
+     * Purpose: Converts a category ordinal to an optional category.
+     * Parameters:
+     * - ordinal: The ordinal of the category, or -1 for none.
+     * Return Value: The category, or empty if the ordinal is negative.
+     * Algorithm:
+     * 1. Look the category up in the list of categories.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static Optional<Category> toCategory(int ordinal) {
+        return ordinal < 0 ? Optional.empty() : Optional.of(Category.CATEGORIES.get(ordinal));
     }
 
     /**
@@ -441,19 +629,12 @@ public class ScoreCard {
      * Parameters: None.
      * Return Value: True if the scorecard is full, false otherwise.
      * Algorithm:
-     * 1. Iterate through all categories in the scorecard.
-     * 2. Check if any category is missing a score. If so, return false.
-     * 3. If all categories have scores, return true.
+     * 1. Check that no category is left in the open mask.
      * Reference: None.
      *********************************************************************
      */
     public boolean isFull() {
-        for (Map.Entry<Category, Optional<ScoreCardEntry>> entry : scoreCard.entrySet()) {
-            if (!entry.getValue().isPresent()) {
-                return false;
-            }
-        }
-        return true;
+        return openMask == 0;
     }
 
     /**
@@ -464,21 +645,20 @@ public class ScoreCard {
      * Parameters: None.
      * Return Value: A list of open categories that are not yet scored.
      * Algorithm:
-     * 1. Iterate through the scorecard and collect categories with no entries.
-     * 2. Reverse the list to prioritize categories from highest to lowest.
-     * 3. Return the list of open categories.
+     * 1. Walk the open mask from the highest ordinal down, so the categories are
+     * prioritized from highest to lowest.
+     * 2. Return the list of open categories.
      * Reference: None.
      *********************************************************************
      */
     public List<Category> getOpenCategories() {
-        List<Category> openCategories = new ArrayList<>();
-        for (Map.Entry<Category, Optional<ScoreCardEntry>> entry : scoreCard.entrySet()) {
-            if (!entry.getValue().isPresent()) {
-                openCategories.add(entry.getKey());
+        List<Category> openCategories = new ArrayList<>(Integer.bitCount(openMask));
+        for (int ordinal = Category.CATEGORIES.size() - 1; ordinal >= 0; ordinal--) {
+            if ((openMask & (1 << ordinal)) != 0) {
+                openCategories.add(Category.CATEGORIES.get(ordinal));
             }
         }
-
-        return helperFunctions.reversed(openCategories);
+        return openCategories;
     }
 
     /**
@@ -489,14 +669,12 @@ public class ScoreCard {
      * - category: The category to check.
      * Return Value: True if the category is open, false otherwise.
      * Algorithm:
-     * 1. Check if the category exists in the scorecard and if its value is empty
-     * (not scored).
-     * 2. Return the result of the check.
+     * 1. Test the bit of the category in the open mask.
      * Reference: None.
      *********************************************************************
      */
     public boolean isCategoryOpen(Category category) {
-        return scoreCard.containsKey(category) && !scoreCard.get(category).isPresent();
+        return (openMask & category.getMask()) != 0;
     }
 
     /**
@@ -0,0 +1,289 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * *********************************************************************
+ * Class Name: ScoreTable
+ * Purpose: Holds the score and applicability of every category for each of the
+ * 252 distinct five-dice rolls. The table is built once when the class is
+ * loaded, so scoring a roll becomes an array lookup instead of a pass through
+ * the list helpers.
+ * *********************************************************************
+ */
+public final class ScoreTable {
+    // Number of distinct (unordered) rolls of five dice
+    public static final int NUM_ROLLS = 252;
+
+    // Number of categories on the scorecard
+    public static final int NUM_CATEGORIES = 12;
+
+    // Bits used for the count of a single face in a packed roll key
+    static final int BITS_PER_FACE = 3;
+
+    // Packed key of each roll, indexed by roll id (rolls are in diceCombinations order)
+    private static final int[] ROLL_KEYS = new int[NUM_ROLLS];
+
+    // Packed keys sorted ascending and the roll id each of them belongs to
+    private static final int[] SORTED_KEYS = new int[NUM_ROLLS];
+    private static final int[] SORTED_KEY_IDS = new int[NUM_ROLLS];
+
+    // Score of every category for every roll, stored as SCORES[rollId * NUM_CATEGORIES + ordinal]
+    private static final int[] SCORES = new int[NUM_ROLLS * NUM_CATEGORIES];
+
+    // Bit i is set when the category with ordinal i is applicable to the roll
+    private static final int[] APPLICABLE = new int[NUM_ROLLS];
+
+    static {
+        List<List<Integer>> rolls = new ArrayList<>();
+        helperFunctions.generateCombinations(5, 1, new ArrayList<>(), rolls);
+
+        long[] keyAndId = new long[NUM_ROLLS];
+        for (int rollId = 0; rollId < NUM_ROLLS; rollId++) {
+            List<Integer> roll = rolls.get(rollId);
+            ROLL_KEYS[rollId] = packKey(roll);
+            keyAndId[rollId] = ((long) ROLL_KEYS[rollId] << 32) | rollId;
+
+            for (Category category : Category.values()) {
+                int score = Category.evaluateScore(roll, category);
+                SCORES[rollId * NUM_CATEGORIES + category.ordinal()] = score;
+                if (Category.evaluateApplicable(roll, category)) {
+                    APPLICABLE[rollId] |= 1 << category.ordinal();
+                }
+            }
+        }
+
+        Arrays.sort(keyAndId);
+        for (int i = 0; i < NUM_ROLLS; i++) {
+            SORTED_KEYS[i] = (int) (keyAndId[i] >>> 32);
+            SORTED_KEY_IDS[i] = (int) keyAndId[i];
+        }
+    }
+
+    private ScoreTable() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: packKey
+     * Purpose: Packs the face counts of a list of dice into a single integer.
+     * Parameters:
+     * - dice (List<Integer>): The dice values. Passed by reference, not modified.
+     * Return Value: The packed counts (3 bits per face, face 1 in the lowest
+     * bits), or -1 if the list holds a value outside 1-6 or more than 7 of a face.
+     * Algorithm:
+     * 1. For each die, add one to the 3-bit field of its face.
+     * 2. Reject the list if a value is not a die face or a field would overflow.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int packKey(List<Integer> dice) {
+        int key = 0;
+        for (int i = 0; i < dice.size(); i++) {
+            Integer value = dice.get(i);
+            if (value == null || value < 1 || value > 6) {
+                return -1;
+            }
+            int shift = (value - 1) * BITS_PER_FACE;
+            if (((key >>> shift) & 7) == 7) {
+                return -1;
+            }
+            key += 1 << shift;
+        }
+        return key;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRollId
+     * Purpose: Returns the canonical id of a five-dice roll given as a list.
+     * Parameters:
+     * - dice (List<Integer>): The dice values, in any order. Passed by reference,
+     * not modified.
+     * Return Value: The roll id (0-251), or -1 if the list is not a roll of
+     * exactly five dice.
+     * Algorithm:
+     * 1. Reject lists that do not hold five dice.
+     * 2. Pack the face counts and look the key up.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getRollId(List<Integer> dice) {
+        if (dice.size() != 5) {
+            return -1;
+        }
+        int key = packKey(dice);
+        return key < 0 ? -1 : getRollIdForKey(key);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRollId
+     * Purpose: Returns the canonical id of a five-dice roll given as a histogram.
+     * Parameters:
+     * - dice (DiceHistogram): The dice of the roll.
+     * Return Value: The roll id (0-251), or -1 if the histogram does not hold
+     * exactly five dice.
+     * Algorithm:
+     * 1. Look up the packed counts of the histogram.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getRollId(DiceHistogram dice) {
+        return getRollIdForKey(dice.getPacked());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getRollIdForKey
+     * Purpose: Returns the canonical id of a five-dice roll given as packed face
+     * counts.
+     * Parameters:
+     * - key (int): The packed face counts (3 bits per face).
+     * Return Value: The roll id (0-251), or -1 if the key is not a five-dice roll.
+     * Algorithm:
+     * 1. Binary search the sorted keys and map the match back to its roll id.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getRollIdForKey(int key) {
+        int index = Arrays.binarySearch(SORTED_KEYS, key);
+        return index < 0 ? -1 : SORTED_KEY_IDS[index];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKey
+     * Purpose: Returns the packed face counts of a roll.
+     * Parameters:
+     * - rollId (int): The roll id (0-251).
+     * Return Value: The packed face counts of the roll.
+     * Algorithm:
+     * 1. Read the key from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getKey(int rollId) {
+        return ROLL_KEYS[rollId];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getScore
+     * Purpose: Returns the score of a roll in a category.
+     * Parameters:
+     * - rollId (int): The roll id (0-251).
+     * - category (Category): The category to score.
+     * Return Value: The score, 0 if the category is not applicable.
+     * Algorithm:
+     * 1. Read the score from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getScore(int rollId, Category category) {
+        return SCORES[rollId * NUM_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getScore
+     * Purpose: Returns the score of a roll in the category with a given ordinal.
+     * Parameters:
+     * - rollId (int): The roll id (0-251).
+     * - ordinal (int): The ordinal of the category (0-11).
+     * Return Value: The score, 0 if the category is not applicable.
+     * Algorithm:
+     * 1. Read the score from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getScore(int rollId, int ordinal) {
+        return SCORES[rollId * NUM_CATEGORIES + ordinal];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: isApplicable
+     * Purpose: Checks if a category is applicable to a roll.
+     * Parameters:
+     * - rollId (int): The roll id (0-251).
+     * - category (Category): The category to check.
+     * Return Value: True if the category is applicable, false otherwise.
+     * Algorithm:
+     * 1. Test the category's bit in the applicability mask of the roll.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static boolean isApplicable(int rollId, Category category) {
+        return (APPLICABLE[rollId] & (1 << category.ordinal())) != 0;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getApplicableMask
+     * Purpose: Returns the applicable categories of a roll as a bitmask.
+     * Parameters:
+     * - rollId (int): The roll id (0-251).
+     * Return Value: A mask where bit i is set if the category with ordinal i is
+     * applicable.
+     * Algorithm:
+     * 1. Read the mask from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getApplicableMask(int rollId) {
+        return APPLICABLE[rollId];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: scoreRolls
+     * Purpose: Scores a batch of rolls in every category of a mask.
+     * Parameters:
+     * - rollIds (int[]): The roll ids to score (0-251).
+     * - count (int): The number of roll ids to read from the array.
+     * - categoryMask (int): The categories to score (bit i = ordinal i).
+     * - scores (int[]): The output matrix, filled as
+     * scores[i * NUM_CATEGORIES + ordinal]; categories outside the mask get 0.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Turn each bit of the mask into an all-ones or all-zeros lane mask.
+     * 2. For each roll, AND its row of the score table with the lane masks. The
+     * inner loop has a fixed trip count and no branches, so it can be vectorized.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static void scoreRolls(int[] rollIds, int count, int categoryMask, int[] scores) {
+        for (int i = 0; i < count; i++) {
+            int in = rollIds[i] * NUM_CATEGORIES;
+            int out = i * NUM_CATEGORIES;
+            for (int ordinal = 0; ordinal < NUM_CATEGORIES; ordinal++) {
+                scores[out + ordinal] = SCORES[in + ordinal] & -((categoryMask >>> ordinal) & 1);
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestScore
+     * Purpose: Returns the highest score of a roll among the categories of a mask.
+     * Parameters:
+     * - rollId (int): The roll id (0-251).
+     * - categoryMask (int): The categories to choose from (bit i = ordinal i).
+     * Return Value: The highest score, 0 if the mask is empty.
+     * Algorithm:
+     * 1. Take the maximum of the masked row of the score table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getBestScore(int rollId, int categoryMask) {
+        int in = rollId * NUM_CATEGORIES;
+        int best = 0;
+        for (int ordinal = 0; ordinal < NUM_CATEGORIES; ordinal++) {
+            best = Math.max(best, SCORES[in + ordinal] & -((categoryMask >>> ordinal) & 1));
+        }
+        return best;
+    }
+}
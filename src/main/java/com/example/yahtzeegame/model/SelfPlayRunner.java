@@ -0,0 +1,183 @@
+package com.example.yahtzeegame.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * *********************************************************************
+ * Class Name: SelfPlayRunner
+ * Purpose: Plays a batch of headless games on several threads. Each worker
+ * gets its own copy of the SimulationEngine, its share of the games and a
+ * SplittableRandom split from one master seed, from which it draws the seed of
+ * each of its games. Workers add their games to their own tally, and the
+ * tallies are merged once the workers are done, so no lock is shared while
+ * games are played. The same master seed and worker count always give the same
+ * statistics, whatever the timing of the threads.
+ * *********************************************************************
+ */
+public final class SelfPlayRunner {
+    private final SimulationEngine engine;
+    private final int workers;
+
+    /**
+     * *********************************************************************
+     * Function Name: SelfPlayRunner
+     * Purpose: Creates a runner with one worker per available processor.
+     * Parameters:
+     * - engine (SimulationEngine): The engine whose seats play the games.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Use as many workers as the runtime reports processors.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SelfPlayRunner(SimulationEngine engine) {
+        this(engine, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: SelfPlayRunner
+     * Purpose: Creates a runner.
+     * Parameters:
+     * - engine (SimulationEngine): The engine whose seats play the games; each
+     * worker plays on a copy.
+     * - workers (int): The number of worker threads (at least 1).
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the engine is missing or the
+     * worker count is not positive.
+     * 2. Store the arguments.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SelfPlayRunner(SimulationEngine engine, int workers) {
+        if (engine == null) {
+            throw new IllegalArgumentException("No simulation engine");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker: " + workers);
+        }
+        this.engine = engine;
+        this.workers = workers;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getWorkers
+     * Purpose: Returns the number of worker threads.
+     * Parameters: None.
+     * Return Value: The worker count.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: run
+     * Purpose: Plays a batch of games and adds up their statistics.
+     * Parameters:
+     * - games (long): The number of games to play (0 or more).
+     * - masterSeed (long): The seed all game seeds are drawn from.
+     * Return Value: The statistics of the games.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the game count is negative.
+     * 2. Split one random stream per worker from the master seed, in worker
+     * order, and give worker w the games from w * games / workers up to the
+     * start of the next worker.
+     * 3. Run the workers on a pool of as many daemon threads. Each plays its
+     * games on a copy of the engine, drawing one seed per game from its stream,
+     * and adds them to its own tally.
+     * 4. Merge the tallies in worker order. An exception thrown by a worker is
+     * thrown again; an interrupt stops the workers.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SelfPlayStats run(long games, long masterSeed) throws InterruptedException {
+        if (games < 0) {
+            throw new IllegalArgumentException("Game count must not be negative: " + games);
+        }
+        long start = System.nanoTime();
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "SelfPlayRunner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<SelfPlayStats.Tally>> results = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                SplittableRandom stream = master.split();
+                long count = share(games, worker + 1) - share(games, worker);
+                SimulationEngine copy = engine.copy();
+                results.add(pool.submit(() -> playGames(copy, stream, count)));
+            }
+
+            SelfPlayStats.Tally total = new SelfPlayStats.Tally();
+            for (Future<SelfPlayStats.Tally> result : results) {
+                total.merge(result.get());
+            }
+            return total.toStats(Duration.ofNanos(System.nanoTime() - start));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Self-play failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: share
+     * Purpose: Splits the games evenly between the workers.
+     * Parameters:
+     * - games (long): The number of games.
+     * - worker (int): A worker index, or the worker count for the end.
+     * Return Value: The index of the first game of the worker.
+     * Algorithm:
+     * 1. Scale the games by the worker's position, without overflowing.
+     * Reference: None.
+     *********************************************************************
+     */
+    private long share(long games, int worker) {
+        return games / workers * worker + games % workers * worker / workers;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playGames
+     * Purpose: Plays the games of one worker.
+     * Parameters:
+     * - engine (SimulationEngine): The engine of the worker.
+     * - stream (SplittableRandom): The random stream of the worker.
+     * - count (long): The number of games to play.
+     * Return Value: The tally of the games.
+     * Algorithm:
+     * 1. For each game, draw its seed from the stream, play it and add it to
+     * the tally; stop early if the thread is interrupted.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static SelfPlayStats.Tally playGames(SimulationEngine engine, SplittableRandom stream, long count) {
+        SelfPlayStats.Tally tally = new SelfPlayStats.Tally();
+        int[] points = new int[ScoreTable.NUM_CATEGORIES];
+        for (long game = 0; game < count && !Thread.currentThread().isInterrupted(); game++) {
+            long packed = engine.playPacked(stream.nextLong(), points);
+            tally.add(packed, points);
+        }
+        return tally;
+    }
+}
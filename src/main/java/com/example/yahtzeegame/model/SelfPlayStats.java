@@ -0,0 +1,462 @@
+package com.example.yahtzeegame.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * *********************************************************************
+ * Class Name: SelfPlayStats
+ * Purpose: The totals of a batch of headless games played by SelfPlayRunner:
+ * wins, draws and score sums per seat, and how often each category was filled
+ * and for how many points. Statistics are built by adding games to a Tally,
+ * one per worker, and merging the tallies, so no lock is shared while games
+ * are played. Two runs with the same games compare equal; the time taken is
+ * not part of the comparison.
+ * *********************************************************************
+ */
+public final class SelfPlayStats {
+    private static final int NUM_SEATS = 2;
+    private static final int NUM_CATEGORIES = ScoreTable.NUM_CATEGORIES;
+
+    private final long games;
+    private final long draws;
+    private final long unfinished;
+    private final long rounds;
+    private final long[] wins;
+    private final long[] scoreSums;
+    private final long[] scoreSquareSums;
+    private final long[] categoryFills;
+    private final long[] categoryPoints;
+    private final long[] categoryZeros;
+    private final Duration elapsed;
+
+    /**
+     * *********************************************************************
+     * Class Name: Tally
+     * Purpose: Adds up games on one thread; it is not thread-safe.
+     * *********************************************************************
+     */
+    public static final class Tally {
+        private long games;
+        private long draws;
+        private long unfinished;
+        private long rounds;
+        private final long[] wins = new long[NUM_SEATS];
+        private final long[] scoreSums = new long[NUM_SEATS];
+        private final long[] scoreSquareSums = new long[NUM_SEATS];
+        private final long[] categoryFills = new long[NUM_CATEGORIES];
+        private final long[] categoryPoints = new long[NUM_CATEGORIES];
+        private final long[] categoryZeros = new long[NUM_CATEGORIES];
+
+        /**
+         * *********************************************************************
+         * Function Name: add
+         * Purpose: Adds one game.
+         * Parameters:
+         * - packed (long): The result packed as with GameResult.pack.
+         * - points (int[]): The points of each category by ordinal, -1 if it was
+         * not filled, as filled by SimulationEngine.playPacked.
+         * Return Value: None.
+         * Algorithm:
+         * 1. Count the winner, the rounds and the scores of both seats.
+         * 2. Count each filled category, its points and whether it scored zero.
+         * Reference: None.
+         *********************************************************************
+         */
+        public void add(long packed, int[] points) {
+            games++;
+            int winner = GameResult.getWinner(packed);
+            if (winner < 0) {
+                draws++;
+            } else {
+                wins[winner]++;
+            }
+            if (!GameResult.isFinished(packed)) {
+                unfinished++;
+            }
+            rounds += GameResult.getRounds(packed);
+            addScore(0, GameResult.getFirstScore(packed));
+            addScore(1, GameResult.getSecondScore(packed));
+
+            for (int ordinal = 0; ordinal < NUM_CATEGORIES; ordinal++) {
+                if (points[ordinal] >= 0) {
+                    categoryFills[ordinal]++;
+                    categoryPoints[ordinal] += points[ordinal];
+                    if (points[ordinal] == 0) {
+                        categoryZeros[ordinal]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: merge
+         * Purpose: Adds the games of another tally.
+         * Parameters:
+         * - other (Tally): The tally to add; it is not changed.
+         * Return Value: None.
+         * Algorithm:
+         * 1. Add each count of the other tally to this one.
+         * Reference: None.
+         *********************************************************************
+         */
+        public void merge(Tally other) {
+            games += other.games;
+            draws += other.draws;
+            unfinished += other.unfinished;
+            rounds += other.rounds;
+            addAll(wins, other.wins);
+            addAll(scoreSums, other.scoreSums);
+            addAll(scoreSquareSums, other.scoreSquareSums);
+            addAll(categoryFills, other.categoryFills);
+            addAll(categoryPoints, other.categoryPoints);
+            addAll(categoryZeros, other.categoryZeros);
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: toStats
+         * Purpose: Freezes the tally into statistics.
+         * Parameters:
+         * - elapsed (Duration): The time the games took.
+         * Return Value: The statistics of the games added so far.
+         * Algorithm:
+         * 1. Copy the counts into new statistics.
+         * Reference: None.
+         *********************************************************************
+         */
+        public SelfPlayStats toStats(Duration elapsed) {
+            return new SelfPlayStats(this, elapsed);
+        }
+
+        private void addScore(int seat, int score) {
+            scoreSums[seat] += score;
+            scoreSquareSums[seat] += (long) score * score;
+        }
+
+        private static void addAll(long[] sums, long[] other) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other[i];
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: SelfPlayStats
+     * Purpose: Creates statistics from a tally.
+     * Parameters:
+     * - tally (Tally): The games; its counts are copied.
+     * - elapsed (Duration): The time the games took.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Copy the counts of the tally and store the time.
+     * Reference: None.
+     *********************************************************************
+     */
+    private SelfPlayStats(Tally tally, Duration elapsed) {
+        this.games = tally.games;
+        this.draws = tally.draws;
+        this.unfinished = tally.unfinished;
+        this.rounds = tally.rounds;
+        this.wins = tally.wins.clone();
+        this.scoreSums = tally.scoreSums.clone();
+        this.scoreSquareSums = tally.scoreSquareSums.clone();
+        this.categoryFills = tally.categoryFills.clone();
+        this.categoryPoints = tally.categoryPoints.clone();
+        this.categoryZeros = tally.categoryZeros.clone();
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getGames
+     * Purpose: Returns the number of games played.
+     * Parameters: None.
+     * Return Value: The game count.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getWins
+     * Purpose: Returns the games won by a seat.
+     * Parameters:
+     * - seat (int): The seat, 0 or 1.
+     * Return Value: The number of games the seat scored more in.
+     * Algorithm:
+     * 1. Validate the seat and return its count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getWins(int seat) {
+        return wins[checkSeat(seat)];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getWinRate
+     * Purpose: Returns the share of games won by a seat.
+     * Parameters:
+     * - seat (int): The seat, 0 or 1.
+     * Return Value: The wins divided by the games, 0 with no games.
+     * Algorithm:
+     * 1. Divide the wins by the games.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getWinRate(int seat) {
+        return ratio(getWins(seat), games);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getDraws
+     * Purpose: Returns the games that ended with equal scores.
+     * Parameters: None.
+     * Return Value: The draw count.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getUnfinished
+     * Purpose: Returns the games stopped at the round limit.
+     * Parameters: None.
+     * Return Value: The count of games that did not fill the scorecard.
+     * Algorithm:
+     * 1. Return the stored count.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMeanRounds
+     * Purpose: Returns the mean number of rounds of a game.
+     * Parameters: None.
+     * Return Value: The mean rounds, 0 with no games.
+     * Algorithm:
+     * 1. Divide the rounds by the games.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getMeanRounds() {
+        return ratio(rounds, games);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMeanScore
+     * Purpose: Returns the mean final score of a seat.
+     * Parameters:
+     * - seat (int): The seat, 0 or 1.
+     * Return Value: The mean score, 0 with no games.
+     * Algorithm:
+     * 1. Divide the score sum by the games.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getMeanScore(int seat) {
+        return ratio(scoreSums[checkSeat(seat)], games);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getScoreDeviation
+     * Purpose: Returns the standard deviation of the final score of a seat.
+     * Parameters:
+     * - seat (int): The seat, 0 or 1.
+     * Return Value: The population standard deviation, 0 with no games.
+     * Algorithm:
+     * 1. Take the mean square less the square of the mean, and its root.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getScoreDeviation(int seat) {
+        double mean = getMeanScore(seat);
+        double variance = ratio(scoreSquareSums[seat], games) - mean * mean;
+        return Math.sqrt(Math.max(variance, 0));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getFillRate
+     * Purpose: Returns how often a category was filled.
+     * Parameters:
+     * - category (Category): The category.
+     * Return Value: The share of games in which it was filled.
+     * Algorithm:
+     * 1. Divide the fills of the category by the games.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getFillRate(Category category) {
+        return ratio(categoryFills[category.ordinal()], games);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getMeanPoints
+     * Purpose: Returns the mean points of a category when it was filled.
+     * Parameters:
+     * - category (Category): The category.
+     * Return Value: The mean points per fill, 0 if it was never filled.
+     * Algorithm:
+     * 1. Divide the points of the category by its fills.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getMeanPoints(Category category) {
+        return ratio(categoryPoints[category.ordinal()], categoryFills[category.ordinal()]);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getZeroRate
+     * Purpose: Returns how often a category was filled for no points.
+     * Parameters:
+     * - category (Category): The category.
+     * Return Value: The share of fills that scored zero, 0 if never filled.
+     * Algorithm:
+     * 1. Divide the zero fills of the category by its fills.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getZeroRate(Category category) {
+        return ratio(categoryZeros[category.ordinal()], categoryFills[category.ordinal()]);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getElapsed
+     * Purpose: Returns the time the games took.
+     * Parameters: None.
+     * Return Value: The wall-clock time of the run.
+     * Algorithm:
+     * 1. Return the stored time.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getGamesPerSecond
+     * Purpose: Returns the throughput of the run.
+     * Parameters: None.
+     * Return Value: The games per second of wall-clock time, 0 if no time passed.
+     * Algorithm:
+     * 1. Divide the games by the elapsed seconds.
+     * Reference: None.
+     *********************************************************************
+     */
+    public double getGamesPerSecond() {
+        return ratio(games * 1e9, elapsed.toNanos());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: equals
+     * Purpose: Compares the games of two statistics.
+     * Parameters:
+     * - obj (Object): The object to compare with.
+     * Return Value: True if it is statistics with the same counts; the elapsed
+     * time is ignored.
+     * Algorithm:
+     * 1. Compare every count.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SelfPlayStats)) {
+            return false;
+        }
+        SelfPlayStats other = (SelfPlayStats) obj;
+        return games == other.games && draws == other.draws && unfinished == other.unfinished
+                && rounds == other.rounds && Arrays.equals(wins, other.wins)
+                && Arrays.equals(scoreSums, other.scoreSums) && Arrays.equals(scoreSquareSums, other.scoreSquareSums)
+                && Arrays.equals(categoryFills, other.categoryFills)
+                && Arrays.equals(categoryPoints, other.categoryPoints)
+                && Arrays.equals(categoryZeros, other.categoryZeros);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: hashCode
+     * Purpose: Returns a hash code consistent with equals.
+     * Parameters: None.
+     * Return Value: The hash code of the counts.
+     * Algorithm:
+     * 1. Combine the hashes of the game count, scores and category points.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(games) + Arrays.hashCode(scoreSums)) + Arrays.hashCode(categoryPoints);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: toString
+     * Purpose: Summarizes the statistics.
+     * Parameters: None.
+     * Return Value: The games, wins, mean scores and throughput on one line.
+     * Algorithm:
+     * 1. Format the main figures.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public String toString() {
+        return String.format("SelfPlayStats[games=%d, wins=%d:%d, draws=%d, unfinished=%d, mean scores=%.1f:%.1f, "
+                + "%.0f games/s]", games, wins[0], wins[1], draws, unfinished, getMeanScore(0), getMeanScore(1),
+                getGamesPerSecond());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkSeat
+     * Purpose: Validates a seat.
+     * Parameters:
+     * - seat (int): The seat.
+     * Return Value: The seat.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if it is not 0 or 1.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int checkSeat(int seat) {
+        if (seat < 0 || seat >= NUM_SEATS) {
+            throw new IllegalArgumentException("Seat must be 0 or 1: " + seat);
+        }
+        return seat;
+    }
+
+    private static double ratio(double numerator, double denominator) {
+        return denominator == 0 ? 0 : numerator / denominator;
+    }
+}
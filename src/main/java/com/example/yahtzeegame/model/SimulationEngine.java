@@ -0,0 +1,373 @@
+package com.example.yahtzeegame.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * *********************************************************************
+ * Class Name: SimulationEngine
+ * Purpose: Plays complete computer-vs-computer games with no prompts, printing
+ * or logging, for evaluating strategies on millions of games. It follows the
+ * rules of Game: the players share one scorecard, each round the lower score
+ * goes first and equal scores toss a die, a turn has up to three rolls, a turn
+ * with no applicable category is skipped, and the game ends as soon as the
+ * scorecard is full. Each game is played from its own seed and draws its dice
+ * and tosses like a Game seeded with it, seat 0 being the first player, so a
+ * simulated game can be replayed through Game and its GameRecord.
+ * A seat whose strategy is an ExpectimaxStrategy with no time budget is played
+ * straight from its table on packed dice, which is what makes the engine fast;
+ * any other seat is played through Computer.decide and a ScoreCard, like in
+ * Game. Games can be played from many threads at once when the strategies of
+ * the seats are thread-safe.
+ * *********************************************************************
+ */
+public final class SimulationEngine {
+    // Rounds after which a game that cannot fill the scorecard is stopped
+    public static final int MAX_ROUNDS = 1000;
+
+    private static final int NUM_SEATS = 2;
+    private static final int NUM_DICE = DiceCatalogue.MAX_DICE;
+    private static final int ROLLS_PER_TURN = Strategy.MAX_ROLLS_LEFT + 1;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final Computer[] seats;
+    private final TurnCache[] caches = new TurnCache[NUM_SEATS];
+
+    /**
+     * *********************************************************************
+     * Class Name: TurnCache
+     * Purpose: Keeps the solved values inside a turn for each set of open
+     * categories of one expectimax table, shared by every game of the engine.
+     * *********************************************************************
+     */
+    private static final class TurnCache {
+        final ExpectimaxTable table;
+        // Per open category mask: the value of locking each multiset with 0 and 1 rolls left
+        final AtomicReferenceArray<double[][]> keepValues = new AtomicReferenceArray<>(ExpectimaxTable.NUM_MASKS);
+
+        TurnCache(ExpectimaxTable table) {
+            this.table = table;
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: get
+         * Purpose: Returns the values inside a turn for a set of open categories.
+         * Parameters:
+         * - openMask (int): The open categories (not empty).
+         * Return Value: The value of locking each multiset, indexed by the rolls
+         * left after locking.
+         * Algorithm:
+         * 1. Return the stored values if the set was solved before.
+         * 2. Otherwise, solve the turn with the table and store its rows; two
+         * threads may both solve a set, and either result is kept.
+         * Reference: None.
+         *********************************************************************
+         */
+        double[][] get(int openMask) {
+            double[][] values = keepValues.get(openMask);
+            if (values == null) {
+                TurnSolver.TurnValues turn = table.getTurnValues(openMask);
+                values = new double[Strategy.MAX_ROLLS_LEFT][];
+                System.arraycopy(turn.keepValues, 0, values, 0, values.length);
+                keepValues.set(openMask, values);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: SimulationEngine
+     * Purpose: Creates an engine for two strategies.
+     * Parameters:
+     * - first (Strategy): The strategy of seat 0.
+     * - second (Strategy): The strategy of seat 1.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Seat a computer named "Computer 1" with the first strategy and one named
+     * "Computer 2" with the second.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SimulationEngine(Strategy first, Strategy second) {
+        this(new Computer("Computer 1", first), new Computer("Computer 2", second));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: SimulationEngine
+     * Purpose: Creates an engine for two computer players.
+     * Parameters:
+     * - first (Computer): The player of seat 0.
+     * - second (Computer): The player of seat 1, with a different name.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if a player is missing or both have
+     * the same name, since the scorecard tells players apart by name.
+     * 2. Store the players, and give each expectimax table a cache of turn
+     * values, shared when both seats use the same table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SimulationEngine(Computer first, Computer second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Both seats need a computer player");
+        }
+        if (first.equals(second)) {
+            throw new IllegalArgumentException("Players need different names: " + first.getName());
+        }
+        this.seats = new Computer[] { first, second };
+        for (int seat = 0; seat < NUM_SEATS; seat++) {
+            Strategy strategy = seats[seat].getStrategy();
+            if (strategy instanceof ExpectimaxStrategy) {
+                ExpectimaxTable table = ((ExpectimaxStrategy) strategy).getTable();
+                caches[seat] = seat > 0 && caches[0] != null && caches[0].table == table ? caches[0]
+                        : new TurnCache(table);
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSeat
+     * Purpose: Returns the player of a seat.
+     * Parameters:
+     * - seat (int): The seat, 0 or 1.
+     * Return Value: The computer player.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException for any other seat.
+     * 2. Return the stored player.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Computer getSeat(int seat) {
+        if (seat < 0 || seat >= NUM_SEATS) {
+            throw new IllegalArgumentException("Seat must be 0 or 1: " + seat);
+        }
+        return seats[seat];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: play
+     * Purpose: Plays one game.
+     * Parameters:
+     * - seed (long): The seed of the dice; the same seed plays the same game.
+     * Return Value: The result of the game.
+     * Algorithm:
+     * 1. Play the game packed and unpack the result with its seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public GameResult play(long seed) {
+        return GameResult.unpack(seed, playPacked(seed));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: copy
+     * Purpose: Creates an engine with the same seats for another thread.
+     * Parameters: None.
+     * Return Value: A new engine whose computers have the names, metered
+     * strategies and time budgets of these, and which shares the cached turn
+     * values, so strategies that keep state per player are not shared.
+     * Algorithm:
+     * 1. Create a computer like each seat.
+     * 2. Create an engine for them and give it the caches of this one.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SimulationEngine copy() {
+        Computer[] computers = new Computer[NUM_SEATS];
+        for (int seat = 0; seat < NUM_SEATS; seat++) {
+            computers[seat] = new Computer(seats[seat].getName(), seats[seat].getMeteredStrategy());
+            computers[seat].setTimeBudget(seats[seat].getTimeBudget());
+        }
+        SimulationEngine engine = new SimulationEngine(computers[0], computers[1]);
+        System.arraycopy(caches, 0, engine.caches, 0, NUM_SEATS);
+        return engine;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playPacked
+     * Purpose: Plays one game and returns its result packed into a long, for
+     * callers that play many games and store only the outcomes.
+     * Parameters:
+     * - seed (long): The seed of the dice; the same seed plays the same game.
+     * Return Value: The result packed as with GameResult.pack.
+     * Algorithm:
+     * 1. Play the game without recording the categories.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long playPacked(long seed) {
+        return playPacked(seed, null);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playPacked
+     * Purpose: Plays one game, records the points scored in each category and
+     * returns the result packed into a long.
+     * Parameters:
+     * - seed (long): The seed of the dice; the same seed plays the same game.
+     * - categoryPoints (int[]): Null, or an array of one element per category
+     * that receives, by ordinal, the points scored in the category, or -1 if it
+     * was not filled. Passed by reference and overwritten.
+     * Return Value: The result packed as with GameResult.pack.
+     * Algorithm:
+     * 1. Seed a random source for the game and split a toss source from it, as
+     * Game does. Roll every set of dice from a fresh draw of the source, as
+     * Game does. Keep a scorecard only if a seat is played through
+     * Computer.decide.
+     * 2. At the start of each round, order the seats by ascending score; on equal
+     * scores, toss for the first seat with Game.tossForFirst.
+     * 3. Play the turn of each seat in order, telling a seat played through
+     * Computer.decide whether it goes first, and score its category if it is
+     * open and applicable; otherwise the turn is skipped.
+     * 4. Stop when the scorecard is full, or after MAX_ROUNDS rounds.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long playPacked(long seed, int[] categoryPoints) {
+        if (categoryPoints != null) {
+            if (categoryPoints.length != CATEGORIES.length) {
+                throw new IllegalArgumentException("Need one element per category: " + categoryPoints.length);
+            }
+            Arrays.fill(categoryPoints, -1);
+        }
+        RandomSource random = new SplittableRandomSource(seed);
+        RandomSource tossSource = random.split();
+        boolean[] fast = new boolean[NUM_SEATS];
+        boolean needsScoreCard = false;
+        for (int seat = 0; seat < NUM_SEATS; seat++) {
+            fast[seat] = caches[seat] != null && seats[seat].getTimeBudget() == null;
+            needsScoreCard |= !fast[seat];
+        }
+
+        ScoreCard scoreCard = needsScoreCard ? new ScoreCard() : null;
+        int[] scores = new int[NUM_SEATS];
+        int openMask = Category.ALL_CATEGORIES_MASK;
+        int round = 1;
+        while (true) {
+            int first = scores[0] < scores[1] ? 0 : scores[1] < scores[0] ? 1 : Game.tossForFirst(tossSource);
+            for (int i = 0; i < NUM_SEATS; i++) {
+                int seat = i == 0 ? first : 1 - first;
+                int rollId;
+                int ordinal;
+                if (fast[seat]) {
+                    rollId = playTableTurn(caches[seat].get(openMask), random);
+                    ordinal = caches[seat].table.getBestCategory(openMask, rollId);
+                } else {
+                    seats[seat].setMovesFirst(i == 0);
+                    rollId = playComputerTurn(seats[seat], scoreCard, random);
+                    Category category = seats[seat].getCategorySelection(scoreCard,
+                            DiceHistogram.fromPacked(ScoreTable.getKey(rollId)));
+                    ordinal = category == null ? -1 : category.ordinal();
+                }
+
+                if (ordinal >= 0 && (openMask & ScoreTable.getApplicableMask(rollId) & 1 << ordinal) != 0) {
+                    int points = ScoreTable.getScore(rollId, ordinal);
+                    scores[seat] += points;
+                    openMask &= ~(1 << ordinal);
+                    if (categoryPoints != null) {
+                        categoryPoints[ordinal] = points;
+                    }
+                    if (scoreCard != null) {
+                        scoreCard = scoreCard.addEntry(CATEGORIES[ordinal], round, seats[seat], points);
+                    }
+                }
+                if (openMask == 0) {
+                    return GameResult.pack(scores[0], scores[1], round, true);
+                }
+            }
+            if (round == MAX_ROUNDS) {
+                return GameResult.pack(scores[0], scores[1], round, false);
+            }
+            round++;
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playTableTurn
+     * Purpose: Plays the rolls of a turn from the values of an expectimax table.
+     * Parameters:
+     * - keepValues (double[][]): The value of locking each multiset, by rolls
+     * left after locking, for the open categories.
+     * - random (RandomSource): The dice source of the game.
+     * Return Value: The ScoreTable roll id of the final dice.
+     * Algorithm:
+     * 1. Roll five dice.
+     * 2. While rolls are left, lock the best multiset with TurnSolver; locking
+     * all five dice means standing. Otherwise roll the other dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int playTableTurn(double[][] keepValues, RandomSource random) {
+        int keptId = 0;
+        int rolledIndex = DiceRoller.rollMultisetIndex(random, NUM_DICE);
+        for (int rollsLeft = ROLLS_PER_TURN - 1; rollsLeft > 0; rollsLeft--) {
+            int keepId = TurnSolver.getBestKeep(keepValues[rollsLeft - 1], keptId, rolledIndex);
+            int numKept = DiceCatalogue.getSize(keepId);
+            if (numKept == NUM_DICE) {
+                break;
+            }
+            keptId = keepId;
+            rolledIndex = DiceRoller.rollMultisetIndex(random, NUM_DICE - numKept);
+        }
+        return DiceCatalogue.getFinalRollId(keptId, rolledIndex);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: playComputerTurn
+     * Purpose: Plays the rolls of a turn through the decisions of a computer
+     * player, as Game does.
+     * Parameters:
+     * - computer (Computer): The player.
+     * - scoreCard (ScoreCard): The scorecard of the game.
+     * - random (RandomSource): The dice source of the game.
+     * Return Value: The ScoreTable roll id of the final dice.
+     * Algorithm:
+     * 1. Roll five dice.
+     * 2. While rolls are left, ask the computer for a decision on the dice it
+     * has not locked; stop if it stands, otherwise lock the dice it keeps and
+     * roll the other dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int playComputerTurn(Computer computer, ScoreCard scoreCard, RandomSource random) {
+        DiceHistogram kept = DiceHistogram.EMPTY;
+        DiceHistogram rolled = rollDice(NUM_DICE, random);
+        for (int rollsLeft = ROLLS_PER_TURN - 1; rollsLeft > 0; rollsLeft--) {
+            Decision decision = computer.decide(scoreCard, kept, rolled, rollsLeft);
+            if (decision.shouldStand()) {
+                break;
+            }
+            kept = kept.add(DiceHistogram.of(decision.getDiceToKeep()));
+            rolled = rollDice(NUM_DICE - kept.size(), random);
+        }
+        return ScoreTable.getRollId(kept.add(rolled));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: rollDice
+     * Purpose: Rolls dice as a histogram.
+     * Parameters:
+     * - numDice (int): The number of dice to roll (1 to 5).
+     * - random (RandomSource): The dice source of the game.
+     * Return Value: The dice rolled.
+     * Algorithm:
+     * 1. Roll a multiset index and read its packed counts from DiceCatalogue.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static DiceHistogram rollDice(int numDice, RandomSource random) {
+        int id = DiceCatalogue.firstId(numDice) + DiceRoller.rollMultisetIndex(random, numDice);
+        return DiceHistogram.fromPacked(DiceCatalogue.getKey(id));
+    }
+}
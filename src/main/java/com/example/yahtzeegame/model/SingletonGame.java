@@ -20,7 +20,8 @@ public class SingletonGame {
      * Return Value: The single instance of the Game class.
      * Algorithm: 
      * 1. Check if the game instance is null.
-     * 2. If null, create a new ScoreCard, a list of players (including a Human and a Computer), and instantiate the Game.
+     * 2. If null, create a new ScoreCard, a list of players (including a Human and a Computer), and instantiate the Game
+     * from a fresh seed, so that it is recorded and can be replayed.
      * 3. Return the game instance.
      * Reference: None.
      * *********************************************************************
@@ -31,7 +32,7 @@ public class SingletonGame {
             List<Player> players = new ArrayList<>();
             players.add(new Human());
             players.add(new Computer());
-            game = new Game(scoreCard, 1, players);
+            game = new Game(scoreCard, 1, players, new SplittableRandomSource().getSeed());
         }
         return game;
     }
@@ -0,0 +1,119 @@
+package com.example.yahtzeegame.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * *********************************************************************
+ * Class Name: SplittableRandomSource
+ * Purpose: A seedable random source backed by a SplittableRandom. The same seed
+ * gives the same rolls, and split gives independent sources for other threads.
+ * It is not thread-safe: use it on one thread at a time and split it for the
+ * others.
+ * *********************************************************************
+ */
+public final class SplittableRandomSource implements RandomSource {
+    private final SplittableRandom random;
+    private final long seed;
+
+    /**
+     * *********************************************************************
+     * Function Name: SplittableRandomSource
+     * Purpose: Creates a source with a random seed.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Draw a seed from a new SplittableRandom, which mixes in the time and a
+     * shared counter, and use it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SplittableRandomSource() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: SplittableRandomSource
+     * Purpose: Creates a source with a seed.
+     * Parameters:
+     * - seed (long): The seed; the same seed gives the same rolls.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Seed a SplittableRandom and store the seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public SplittableRandomSource(long seed) {
+        this(new SplittableRandom(seed), seed);
+    }
+
+    private SplittableRandomSource(SplittableRandom random, long seed) {
+        this.random = random;
+        this.seed = seed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getSeed
+     * Purpose: Returns the seed the source was created with.
+     * Parameters: None.
+     * Return Value: The seed, so a game can be replayed; a split source
+     * reports the seed of the source it was split from.
+     * Algorithm:
+     * 1. Return the stored seed.
+     * Reference: None.
+     *********************************************************************
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextInt
+     * Purpose: Returns a uniform random integer below a bound.
+     * Parameters:
+     * - bound (int): The exclusive upper bound (positive).
+     * Return Value: A value from 0 to bound - 1.
+     * Algorithm:
+     * 1. Draw from the SplittableRandom.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextLong
+     * Purpose: Returns a uniform random long.
+     * Parameters: None.
+     * Return Value: Any long value.
+     * Algorithm:
+     * 1. Draw from the SplittableRandom.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: split
+     * Purpose: Creates an independent source for another thread or game.
+     * Parameters: None.
+     * Return Value: A source split from this one's generator.
+     * Algorithm:
+     * 1. Split the SplittableRandom, which advances this source once.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split(), seed);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.yahtzeegame.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * *********************************************************************
+ * Interface Name: Strategy
+ * Purpose: Decides for the computer which dice to keep and which category to
+ * score. Computer delegates its decisions to a Strategy, so the strategy can be
+ * chosen when the computer player is created, by name from the
+ * StrategyRegistry. Keeping and standing both follow from getHelp unless a
+ * strategy overrides them.
+ * *********************************************************************
+ */
+public interface Strategy {
+    // Largest number of rolls left after the first roll of a turn
+    int MAX_ROLLS_LEFT = 2;
+
+    /**
+     * *********************************************************************
+     * Function Name: getHelp
+     * Purpose: Decides which of the rolled dice to keep.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: Help object containing dice to keep, target category, and
+     * whether to stand.
+     * Algorithm: Depends on the strategy.
+     * Reference: None.
+     *********************************************************************
+     */
+    Help getHelp(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls, int rollsLeft);
+
+    /**
+     * *********************************************************************
+     * Function Name: getDiceToKeep
+     * Purpose: Decides which of the rolled dice to keep for the next roll.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: The dice to keep.
+     * Algorithm:
+     * 1. Return the dice to keep of the help.
+     * Reference: None.
+     *********************************************************************
+     */
+    default List<Integer> getDiceToKeep(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls,
+            int rollsLeft) {
+        return getHelp(scoreCard, keptDice, diceRolls, rollsLeft).getDiceToKeep();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: wantsToStand
+     * Purpose: Decides whether to stop rolling.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - keptDice (List<Integer>): Dice already locked from previous rolls.
+     * - diceRolls (List<Integer>): The dice that can still be kept or rolled.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: True if every rolled die is kept.
+     * Algorithm:
+     * 1. Compare the dice to keep of the help with the rolled dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    default boolean wantsToStand(ScoreCard scoreCard, List<Integer> keptDice, List<Integer> diceRolls,
+            int rollsLeft) {
+        return helperFunctions.unorderedEqual(getDiceToKeep(scoreCard, keptDice, diceRolls, rollsLeft), diceRolls);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getCategorySelection
+     * Purpose: Decides which category to score the final dice in.
+     * Parameters:
+     * - scoreCard (ScoreCard): The current scorecard for the game.
+     * - dice (List<Integer>): The final dice.
+     * Return Value: The category to score, or empty to skip the turn.
+     * Algorithm: Depends on the strategy.
+     * Reference: None.
+     *********************************************************************
+     */
+    Optional<Category> getCategorySelection(ScoreCard scoreCard, List<Integer> dice);
+
+    /**
+     * *********************************************************************
+     * Function Name: isCacheable
+     * Purpose: Tells if the help depends only on the open categories, the dice
+     * and the rolls left, so that it can be kept in a HelpCache.
+     * Parameters: None.
+     * Return Value: True unless the strategy also reads the scores.
+     * Algorithm:
+     * 1. Return true; strategies that read more of the scorecard override it.
+     * Reference: None.
+     *********************************************************************
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: forPlayer
+     * Purpose: Returns the strategy to play for a given player, for strategies
+     * that need to know whose scores on the shared scorecard are their own.
+     * Parameters:
+     * - player (Player): The player the strategy makes decisions for.
+     * Return Value: This strategy, or a copy of it bound to the player.
+     * Algorithm:
+     * 1. Return this strategy; strategies that read the scores override it.
+     * Reference: None.
+     *********************************************************************
+     */
+    default Strategy forPlayer(Player player) {
+        return this;
+    }
+}
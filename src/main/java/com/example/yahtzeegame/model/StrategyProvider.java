@@ -0,0 +1,35 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Interface Name: StrategyProvider
+ * Purpose: Makes a named computer strategy available to the StrategyRegistry.
+ * Providers packaged with the app or a plugin are found with ServiceLoader,
+ * listed in META-INF/services/com.example.yahtzeegame.model.StrategyProvider.
+ * *********************************************************************
+ */
+public interface StrategyProvider {
+    /**
+     * *********************************************************************
+     * Function Name: getName
+     * Purpose: Returns the name the strategy is registered under.
+     * Parameters: None.
+     * Return Value: The name, for example "montecarlo".
+     * Algorithm: Depends on the provider.
+     * Reference: None.
+     *********************************************************************
+     */
+    String getName();
+
+    /**
+     * *********************************************************************
+     * Function Name: createStrategy
+     * Purpose: Creates the strategy.
+     * Parameters: None.
+     * Return Value: A strategy, new or shared.
+     * Algorithm: Depends on the provider.
+     * Reference: None.
+     *********************************************************************
+     */
+    Strategy createStrategy();
+}
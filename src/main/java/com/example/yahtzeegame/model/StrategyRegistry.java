@@ -0,0 +1,187 @@
+package com.example.yahtzeegame.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * *********************************************************************
+ * Class Name: StrategyRegistry
+ * Purpose: Looks up computer strategies by name, so the strategy of a game
+ * can be picked from settings, for example per device class. The built-in
+ * strategies are registered first, then every StrategyProvider found with
+ * ServiceLoader, and more can be registered at run time. Strategies created
+ * through the registry are wrapped in a MeteredStrategy, so the cost of each
+ * can be compared. All methods are synchronized.
+ * *********************************************************************
+ */
+public final class StrategyRegistry {
+    // Names of the built-in strategies
+    public static final String HEURISTIC = "heuristic";
+    public static final String EXPECTIMAX = "expectimax";
+    public static final String DUEL = "duel";
+    public static final String MONTE_CARLO = "montecarlo";
+
+    private final Map<String, Supplier<Strategy>> factories = new TreeMap<>();
+
+    /**
+     * *********************************************************************
+     * Class Name: Holder
+     * Purpose: Creates the shared registry on first use.
+     * *********************************************************************
+     */
+    private static final class Holder {
+        static final StrategyRegistry INSTANCE = createDefault();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: StrategyRegistry
+     * Purpose: Creates an empty registry.
+     * Parameters: None.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Start with no strategies.
+     * Reference: None.
+     *********************************************************************
+     */
+    public StrategyRegistry() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getInstance
+     * Purpose: Returns the shared registry of the app.
+     * Parameters: None.
+     * Return Value: The registry with the built-in and discovered strategies.
+     * Algorithm:
+     * 1. Return the registry of the holder, created on first use.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static StrategyRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: createDefault
+     * Purpose: Creates a registry with the built-in and discovered strategies.
+     * Parameters: None.
+     * Return Value: The new registry.
+     * Algorithm:
+     * 1. Register the heuristic, expectimax, duel and Monte Carlo strategies.
+     * 2. Register each StrategyProvider found with ServiceLoader; a provider
+     * that cannot be loaded, or whose name is taken, is logged and left out.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static StrategyRegistry createDefault() {
+        StrategyRegistry registry = new StrategyRegistry();
+        registry.register(HEURISTIC, () -> HeuristicStrategy.INSTANCE);
+        registry.register(EXPECTIMAX, ExpectimaxStrategy::new);
+        registry.register(DUEL, DuelStrategy::new);
+        registry.register(MONTE_CARLO, MonteCarloStrategy::new);
+
+        try {
+            for (StrategyProvider provider : ServiceLoader.load(StrategyProvider.class)) {
+                try {
+                    registry.register(provider.getName(), provider::createStrategy);
+                } catch (IllegalArgumentException e) {
+                    Log.log("Strategy provider left out: " + e.getMessage());
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            Log.log("Strategy providers could not be loaded: " + e.getMessage());
+        }
+        return registry;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: register
+     * Purpose: Adds a named strategy.
+     * Parameters:
+     * - name (String): The name (not blank, not taken).
+     * - factory (Supplier<Strategy>): Creates the strategy.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the name is blank or taken, or
+     * there is no factory.
+     * 2. Store the factory under the name.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized void register(String name, Supplier<Strategy> factory) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Strategy name must not be blank");
+        }
+        if (factory == null) {
+            throw new IllegalArgumentException("No factory for strategy " + name);
+        }
+        if (factories.containsKey(name)) {
+            throw new IllegalArgumentException("Strategy already registered: " + name);
+        }
+        factories.put(name, factory);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getNames
+     * Purpose: Lists the registered strategies.
+     * Parameters: None.
+     * Return Value: The names in alphabetical order.
+     * Algorithm:
+     * 1. Copy the keys of the sorted map.
+     * Reference: None.
+     *********************************************************************
+     */
+    public synchronized List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<>(factories.keySet()));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: find
+     * Purpose: Creates a metered strategy by name if it is registered.
+     * Parameters:
+     * - name (String): The name of the strategy.
+     * Return Value: Optional of the strategy wrapped in a MeteredStrategy, or
+     * empty if no strategy has the name.
+     * Algorithm:
+     * 1. Look up the factory and wrap what it creates.
+     * Reference: None.
+     *********************************************************************
+     */
+    public Optional<MeteredStrategy> find(String name) {
+        Supplier<Strategy> factory;
+        synchronized (this) {
+            factory = factories.get(name);
+        }
+        return factory == null ? Optional.empty() : Optional.of(new MeteredStrategy(name, factory.get()));
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: create
+     * Purpose: Creates a metered strategy by name.
+     * Parameters:
+     * - name (String): The name of a registered strategy.
+     * Return Value: The strategy wrapped in a MeteredStrategy.
+     * Algorithm:
+     * 1. Find the strategy, and throw an IllegalArgumentException if no
+     * strategy has the name.
+     * Reference: None.
+     *********************************************************************
+     */
+    public MeteredStrategy create(String name) {
+        return find(name).orElseThrow(() -> new IllegalArgumentException(
+                "Unknown strategy: " + name + ", expected one of " + getNames()));
+    }
+}
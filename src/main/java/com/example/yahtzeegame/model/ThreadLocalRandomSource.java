@@ -0,0 +1,69 @@
+package com.example.yahtzeegame.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * *********************************************************************
+ * Class Name: ThreadLocalRandomSource
+ * Purpose: The default random source. Each call uses the ThreadLocalRandom of
+ * the calling thread, so it can be shared by any number of threads without
+ * contention, unlike Math.random or a shared Random. It cannot be seeded; use a
+ * SplittableRandomSource for games that must be replayed.
+ * *********************************************************************
+ */
+public final class ThreadLocalRandomSource implements RandomSource {
+    public static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextInt
+     * Purpose: Returns a uniform random integer below a bound.
+     * Parameters:
+     * - bound (int): The exclusive upper bound (positive).
+     * Return Value: A value from 0 to bound - 1.
+     * Algorithm:
+     * 1. Draw from the calling thread's ThreadLocalRandom.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: nextLong
+     * Purpose: Returns a uniform random long.
+     * Parameters: None.
+     * Return Value: Any long value.
+     * Algorithm:
+     * 1. Draw from the calling thread's ThreadLocalRandom.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: split
+     * Purpose: Creates an independent source for another thread or game.
+     * Parameters: None.
+     * Return Value: A SplittableRandomSource seeded from this thread's
+     * generator.
+     * Algorithm:
+     * 1. Seed a new source with a random long.
+     * Reference: None.
+     *********************************************************************
+     */
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(nextLong());
+    }
+}
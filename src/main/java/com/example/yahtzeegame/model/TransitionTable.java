@@ -0,0 +1,263 @@
+package com.example.yahtzeegame.model;
+
+import java.util.Arrays;
+
+/**
+ * *********************************************************************
+ * Class Name: TransitionTable
+ * Purpose: Holds, for each of the 462 multisets of kept dice in the
+ * DiceCatalogue, the exact probability of ending on each five-dice roll when
+ * the remaining dice are rolled. Outcomes are stored per kept multiset in
+ * primitive arrays, sorted by roll id. The expected score and the chance of
+ * the roll being applicable are precomputed for every kept multiset and
+ * category.
+ * *********************************************************************
+ */
+public final class TransitionTable {
+    // Outcomes of kept multiset k are stored at OFFSETS[k] to OFFSETS[k + 1] - 1
+    private static final int[] OFFSETS = new int[DiceCatalogue.NUM_MULTISETS + 1];
+
+    // Final roll id and probability of each outcome
+    private static final int[] ROLL_IDS;
+    private static final double[] PROBABILITIES;
+
+    // Expected score and applicable probability, stored as [keptId * NUM_CATEGORIES + ordinal]
+    private static final double[] EXPECTED_SCORES = new double[DiceCatalogue.NUM_MULTISETS * ScoreTable.NUM_CATEGORIES];
+    private static final double[] HIT_PROBABILITIES = new double[DiceCatalogue.NUM_MULTISETS * ScoreTable.NUM_CATEGORIES];
+
+    static {
+        int offset = 0;
+        for (int keptId = 0; keptId < DiceCatalogue.NUM_MULTISETS; keptId++) {
+            OFFSETS[keptId] = offset;
+            offset += DiceCatalogue.count(DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId));
+        }
+        OFFSETS[DiceCatalogue.NUM_MULTISETS] = offset;
+        ROLL_IDS = new int[offset];
+        PROBABILITIES = new double[offset];
+
+        for (int keptId = 0; keptId < DiceCatalogue.NUM_MULTISETS; keptId++) {
+            int numRolled = DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId);
+            int firstRolledId = DiceCatalogue.firstId(numRolled);
+            int count = DiceCatalogue.count(numRolled);
+
+            // Each rolled multiset gives a different final roll, so sort the outcomes by roll id
+            long[] rollAndIndex = new long[count];
+            for (int i = 0; i < count; i++) {
+                rollAndIndex[i] = ((long) DiceCatalogue.getFinalRollId(keptId, i) << 32) | i;
+            }
+            Arrays.sort(rollAndIndex);
+
+            int base = OFFSETS[keptId];
+            for (int i = 0; i < count; i++) {
+                int rollId = (int) (rollAndIndex[i] >>> 32);
+                double probability = DiceCatalogue.getProbability(firstRolledId + (int) rollAndIndex[i]);
+                ROLL_IDS[base + i] = rollId;
+                PROBABILITIES[base + i] = probability;
+
+                int applicable = ScoreTable.getApplicableMask(rollId);
+                for (int ordinal = 0; ordinal < ScoreTable.NUM_CATEGORIES; ordinal++) {
+                    int index = keptId * ScoreTable.NUM_CATEGORIES + ordinal;
+                    EXPECTED_SCORES[index] += probability * ScoreTable.getScore(rollId, ordinal);
+                    if ((applicable & (1 << ordinal)) != 0) {
+                        HIT_PROBABILITIES[index] += probability;
+                    }
+                }
+            }
+        }
+    }
+
+    private TransitionTable() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getOutcomeCount
+     * Purpose: Returns the number of final rolls reachable from kept dice.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * Return Value: The number of distinct final rolls.
+     * Algorithm:
+     * 1. Subtract the offset of the kept dice from the offset of the next id.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getOutcomeCount(int keptId) {
+        return OFFSETS[keptId + 1] - OFFSETS[keptId];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getOutcomeRollId
+     * Purpose: Returns one of the final rolls reachable from kept dice.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - index (int): The index of the outcome (0 to getOutcomeCount - 1).
+     * Return Value: The ScoreTable roll id of the outcome; outcomes are in
+     * ascending roll id order.
+     * Algorithm:
+     * 1. Read the roll id from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int getOutcomeRollId(int keptId, int index) {
+        return ROLL_IDS[OFFSETS[keptId] + index];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getOutcomeProbability
+     * Purpose: Returns the probability of one of the final rolls reachable from
+     * kept dice.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - index (int): The index of the outcome (0 to getOutcomeCount - 1).
+     * Return Value: The probability of ending on the outcome.
+     * Algorithm:
+     * 1. Read the probability from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getOutcomeProbability(int keptId, int index) {
+        return PROBABILITIES[OFFSETS[keptId] + index];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getProbability
+     * Purpose: Returns the probability of ending on a final roll from kept dice.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - rollId (int): The ScoreTable roll id of the final roll.
+     * Return Value: The probability, 0 if the roll does not contain the kept dice.
+     * Algorithm:
+     * 1. Binary search the outcomes of the kept dice for the roll id.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getProbability(int keptId, int rollId) {
+        int index = Arrays.binarySearch(ROLL_IDS, OFFSETS[keptId], OFFSETS[keptId + 1], rollId);
+        return index < 0 ? 0 : PROBABILITIES[index];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getExpectedScore
+     * Purpose: Returns the expected score in a category after rolling the dice
+     * that are not kept.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to score.
+     * Return Value: The expected score, counting rolls that do not apply as 0.
+     * Algorithm:
+     * 1. Read the expected score from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getExpectedScore(int keptId, Category category) {
+        return EXPECTED_SCORES[keptId * ScoreTable.NUM_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getExpectedScore
+     * Purpose: Returns the expected score in a category after rolling the dice
+     * that are not kept.
+     * Parameters:
+     * - keptDice (DiceHistogram): The kept dice (at most five).
+     * - category (Category): The category to score.
+     * Return Value: The expected score, counting rolls that do not apply as 0.
+     * Algorithm:
+     * 1. Look up the id of the kept dice and read the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getExpectedScore(DiceHistogram keptDice, Category category) {
+        return getExpectedScore(requireId(keptDice), category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHitProbability
+     * Purpose: Returns the chance that a category applies to the final roll after
+     * rolling the dice that are not kept.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - category (Category): The category to check.
+     * Return Value: The probability that the category is applicable.
+     * Algorithm:
+     * 1. Read the probability from the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getHitProbability(int keptId, Category category) {
+        return HIT_PROBABILITIES[keptId * ScoreTable.NUM_CATEGORIES + category.ordinal()];
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getHitProbability
+     * Purpose: Returns the chance that a category applies to the final roll after
+     * rolling the dice that are not kept.
+     * Parameters:
+     * - keptDice (DiceHistogram): The kept dice (at most five).
+     * - category (Category): The category to check.
+     * Return Value: The probability that the category is applicable.
+     * Algorithm:
+     * 1. Look up the id of the kept dice and read the table.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getHitProbability(DiceHistogram keptDice, Category category) {
+        return getHitProbability(requireId(keptDice), category);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getExpectedBestScore
+     * Purpose: Returns the expected score of the best category among a set of
+     * categories after rolling the dice that are not kept.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the kept dice.
+     * - categoryMask (int): The categories to choose from (bit i = ordinal i).
+     * Return Value: The expected highest score, counting rolls where no category
+     * applies as 0.
+     * Algorithm:
+     * 1. For each outcome, take the highest score among the applicable
+     * categories in the mask.
+     * 2. Weight it by the probability of the outcome and add it up.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static double getExpectedBestScore(int keptId, int categoryMask) {
+        double expected = 0;
+        for (int i = OFFSETS[keptId]; i < OFFSETS[keptId + 1]; i++) {
+            int rollId = ROLL_IDS[i];
+            int best = 0;
+            for (int bits = categoryMask & ScoreTable.getApplicableMask(rollId); bits != 0; bits &= bits - 1) {
+                best = Math.max(best, ScoreTable.getScore(rollId, Integer.numberOfTrailingZeros(bits)));
+            }
+            expected += PROBABILITIES[i] * best;
+        }
+        return expected;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: requireId
+     * Purpose: Looks up the DiceCatalogue id of kept dice.
+     * Parameters:
+     * - keptDice (DiceHistogram): The kept dice.
+     * Return Value: The id of the kept dice.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if there are more than five dice.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int requireId(DiceHistogram keptDice) {
+        int keptId = DiceCatalogue.getId(keptDice);
+        if (keptId < 0) {
+            throw new IllegalArgumentException("Cannot keep more than five dice: " + keptDice);
+        }
+        return keptId;
+    }
+}
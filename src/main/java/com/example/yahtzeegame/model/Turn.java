@@ -32,7 +32,8 @@ public class Turn {
      * c. Get new dice rolls from the player for the dice not kept.
      * d. Display the newly rolled dice and recalculate potential categories.
      * e. If it's the third roll, end the turn automatically.
-     * f. If the player wants help, provide assistance based on the current state.
+     * f. If the player wants help, provide assistance based on the current state
+     * and the rolls left; a computer decides with the rolls left too.
      * g. If the player decides to stand, end the turn early.
      * h. Determine which dice the player wants to keep and add them to the kept
      * dice list.
@@ -43,6 +44,26 @@ public class Turn {
      * Reference: None.
      */
     public static List<Integer> playTurn(Player player, ScoreCard scoreCard) {
+        return playTurn(player, scoreCard, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /*
+     * *********************************************************************
+     * Function Name: playTurn
+     * Purpose: To simulate a player's turn with the automatic rolls drawn from a
+     * given random source.
+     * Parameters:
+     * - Player player: The player taking the turn.
+     * - ScoreCard scoreCard: The scorecard associated with the player.
+     * - RandomSource random: The source of the automatic rolls.
+     * Return Value: A list of integers representing the final set of dice that the
+     * player ended with after their turn.
+     * Algorithm:
+     * 1. Play the turn as above, getting each roll from the player with the
+     * source.
+     * Reference: None.
+     */
+    public static List<Integer> playTurn(Player player, ScoreCard scoreCard, RandomSource random) {
         List<Integer> keptDice = new ArrayList<>();
         int currentRoll = 1;
 
@@ -59,7 +80,7 @@ public class Turn {
             System.out.println(player.getName() + "'s current dice: " + ioFunctions.toStringVector(keptDice) + '\n');
 
             // Get new dice rolls from the player (roll only the dice not kept)
-            List<Integer> diceRolls = player.getDiceRoll(5 - keptDice.size());
+            List<Integer> diceRolls = player.getDiceRoll(5 - keptDice.size(), random);
             System.out.println(player.getName() + " rolled: " + ioFunctions.toStringVector(diceRolls) + '\n');
 
             // Recalculate potential categories with the newly rolled dice and show
@@ -77,14 +98,20 @@ public class Turn {
 
             // Check if the player wants help (only applies to the computer, where the help
             // system is triggered)
+            int rollsLeft = 3 - currentRoll;
             if (player.wantsHelp()) {
-                String help = new Computer().getHelpString(scoreCard, keptDice, diceRolls);
+                String help = new Computer().getHelpString(scoreCard, keptDice, diceRolls, rollsLeft);
                 System.out.println("Help: \n" + help + '\n');
             }
 
+            // A computer decides on the roll once; its decision answers the questions below
+            Decision decision = player instanceof Computer
+                    ? ((Computer) player).decide(scoreCard, keptDice, diceRolls, rollsLeft)
+                    : null;
+
             // Check if the player decides to "stand" and keep their dice (ending the turn
             // early)
-            if (player.wantsToStand(scoreCard, keptDice, diceRolls)) {
+            if (decision != null ? decision.shouldStand() : player.wantsToStand(scoreCard, keptDice, diceRolls)) {
                 System.out.println(player.getName() + " chose to stand.");
                 keptDice.addAll(diceRolls);
                 break;
@@ -92,7 +119,8 @@ public class Turn {
 
             // Determine which dice the player wants to keep based on the dice rolled and
             // kept
-            List<Integer> diceToKeep = player.getDiceToKeep(scoreCard, diceRolls, keptDice);
+            List<Integer> diceToKeep = decision != null ? decision.getDiceToKeep()
+                    : player.getDiceToKeep(scoreCard, diceRolls, keptDice);
             System.out.println(player.getName() + " kept: " + ioFunctions.toStringVector(diceToKeep) + '\n');
 
             // Add the kept dice to the keptDice list
@@ -106,14 +134,16 @@ public class Turn {
 
             // Optionally, show the player's pursuit strategy (what category they are aiming
             // for)
-            Optional<Map<Category, Reason>> userPursuit = player.getCategoryPursuits(scoreCard, keptDice);
+            Optional<Map<Category, Reason>> userPursuit = decision != null ? decision.getPursuits()
+                    : player.getCategoryPursuits(scoreCard, keptDice);
             if (userPursuit.isPresent()) {
                 System.out.println(player.getName() + "'s pursuit:");
                 ioFunctions.showCategoryPursuits(userPursuit.get());
             }
 
             // Show the specific dice the player is aiming to roll for their target category
-            Optional<Map.Entry<Category, List<Integer>>> userTarget = player.getTarget(scoreCard, keptDice);
+            Optional<Map.Entry<Category, List<Integer>>> userTarget = decision != null ? decision.getTarget()
+                    : player.getTarget(scoreCard, keptDice);
             if (userTarget.isPresent()) {
                 System.out.println(
                         player.getName() + "'s target: " + Category.CATEGORY_NAMES.get(userTarget.get().getKey()) +
@@ -0,0 +1,368 @@
+package com.example.yahtzeegame.model;
+
+/**
+ * *********************************************************************
+ * Class Name: TurnSolver
+ * Purpose: Works out the value of every state inside one turn from the value
+ * of ending the turn on each final roll. Within a turn, the state is the dice
+ * locked so far and the number of rolls left; dice that are kept stay locked
+ * for the rest of the turn, as in Game. The outcomes of each roll and the
+ * multisets that can be locked after them are listed once when the class is
+ * loaded, and are shared by the solvers that differ only in what ending a
+ * turn is worth.
+ * *********************************************************************
+ */
+final class TurnSolver {
+    // Largest number of rolls left after the first roll of a turn
+    static final int MAX_ROLLS_LEFT = Strategy.MAX_ROLLS_LEFT;
+
+    // Id of the first five-dice multiset; five-dice ids follow the ScoreTable roll ids from here
+    static final int FIRST_ROLL_ID = DiceCatalogue.firstId(DiceCatalogue.MAX_DICE);
+
+    // Outcomes of rolling the dice that are not kept, stored for kept multiset k at
+    // OUTCOME_OFFSETS[k] to OUTCOME_OFFSETS[k + 1] - 1 in DiceCatalogue order
+    private static final int[] OUTCOME_OFFSETS = new int[DiceCatalogue.NUM_MULTISETS + 1];
+    private static final int[] OUTCOME_ROLL_IDS;
+    private static final double[] OUTCOME_PROBABILITIES;
+
+    // Multisets that can be locked after each outcome (the kept dice plus any part of the rolled
+    // dice, all of them first), stored at KEEP_OFFSETS[outcome] to KEEP_OFFSETS[outcome + 1] - 1
+    private static final int[] KEEP_OFFSETS;
+    private static final int[] KEEP_IDS;
+
+    static {
+        int numOutcomes = 0;
+        for (int keptId = 0; keptId < DiceCatalogue.NUM_MULTISETS; keptId++) {
+            OUTCOME_OFFSETS[keptId] = numOutcomes;
+            numOutcomes += DiceCatalogue.count(DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId));
+        }
+        OUTCOME_OFFSETS[DiceCatalogue.NUM_MULTISETS] = numOutcomes;
+        OUTCOME_ROLL_IDS = new int[numOutcomes];
+        OUTCOME_PROBABILITIES = new double[numOutcomes];
+        KEEP_OFFSETS = new int[numOutcomes + 1];
+
+        int numKeeps = 0;
+        for (int keptId = 0; keptId < DiceCatalogue.NUM_MULTISETS; keptId++) {
+            int numRolled = DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId);
+            for (int i = 0; i < DiceCatalogue.count(numRolled); i++) {
+                int rolledId = DiceCatalogue.firstId(numRolled) + i;
+                KEEP_OFFSETS[OUTCOME_OFFSETS[keptId] + i] = numKeeps;
+                numKeeps += countSubsets(DiceCatalogue.getKey(rolledId));
+            }
+        }
+        KEEP_OFFSETS[numOutcomes] = numKeeps;
+        KEEP_IDS = new int[numKeeps];
+
+        for (int keptId = 0; keptId < DiceCatalogue.NUM_MULTISETS; keptId++) {
+            int numRolled = DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId);
+            for (int i = 0; i < DiceCatalogue.count(numRolled); i++) {
+                int outcome = OUTCOME_OFFSETS[keptId] + i;
+                int rolledId = DiceCatalogue.firstId(numRolled) + i;
+                OUTCOME_ROLL_IDS[outcome] = DiceCatalogue.getFinalRollId(keptId, i);
+                OUTCOME_PROBABILITIES[outcome] = DiceCatalogue.getProbability(rolledId);
+                addSubsets(DiceCatalogue.getKey(keptId), DiceCatalogue.getKey(rolledId), 5, KEEP_OFFSETS[outcome]);
+            }
+        }
+    }
+
+    private TurnSolver() {
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solve
+     * Purpose: Works out the value of every state of one turn.
+     * Parameters:
+     * - endValues (double[]): The value of ending the turn on each final roll,
+     * by ScoreTable roll id.
+     * - endSkips (double[]): The chance that ending the turn on each final roll
+     * skips it (0 or 1).
+     * Return Value: The values of the turn.
+     * Algorithm:
+     * 1. With no rolls left after a roll, weight the final rolls by their chance.
+     * 2. With rolls left, take the best multiset to lock after each roll (all
+     * the dice means standing) and weight those values by their chance.
+     * Reference: None.
+     *********************************************************************
+     */
+    static TurnValues solve(double[] endValues, double[] endSkips) {
+        TurnValues turn = new TurnValues();
+        solve(endValues, endSkips, turn);
+        return turn;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: solve
+     * Purpose: Works out the value of every state of one turn into existing
+     * values, so that a caller solving many turns allocates nothing.
+     * Parameters:
+     * - endValues (double[]): The value of ending the turn on each final roll,
+     * by ScoreTable roll id.
+     * - endSkips (double[]): The chance that ending the turn on each final roll
+     * skips it (0 or 1).
+     * - turn (TurnValues): The values to overwrite.
+     * Return Value: None.
+     * Algorithm:
+     * 1. With no rolls left after a roll, weight the final rolls by their chance.
+     * 2. With rolls left, take the best multiset to lock after each roll (all
+     * the dice means standing) and weight those values by their chance.
+     * Reference: None.
+     *********************************************************************
+     */
+    static void solve(double[] endValues, double[] endSkips, TurnValues turn) {
+        for (int rollsLeft = 0; rollsLeft <= MAX_ROLLS_LEFT; rollsLeft++) {
+            double[] keepValues = turn.keepValues[rollsLeft];
+            double[] skipChances = turn.skipChances[rollsLeft];
+            for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+                keepValues[FIRST_ROLL_ID + rollId] = endValues[rollId];
+                skipChances[FIRST_ROLL_ID + rollId] = endSkips[rollId];
+            }
+
+            for (int keptId = 0; keptId < FIRST_ROLL_ID; keptId++) {
+                double value = 0;
+                double skipChance = 0;
+                for (int outcome = OUTCOME_OFFSETS[keptId]; outcome < OUTCOME_OFFSETS[keptId + 1]; outcome++) {
+                    double probability = OUTCOME_PROBABILITIES[outcome];
+                    if (rollsLeft == 0) {
+                        value += probability * endValues[OUTCOME_ROLL_IDS[outcome]];
+                        skipChance += probability * endSkips[OUTCOME_ROLL_IDS[outcome]];
+                    } else {
+                        int best = bestKeep(turn.keepValues[rollsLeft - 1], outcome);
+                        value += probability * turn.keepValues[rollsLeft - 1][best];
+                        skipChance += probability * turn.skipChances[rollsLeft - 1][best];
+                    }
+                }
+                keepValues[keptId] = value;
+                skipChances[keptId] = skipChance;
+            }
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestKeep
+     * Purpose: Picks the dice to lock after a roll.
+     * Parameters:
+     * - turn (TurnValues): The values of the turn.
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rollId (int): The ScoreTable roll id of all five dice.
+     * - rollsLeft (int): The rolls left in the turn (0 to MAX_ROLLS_LEFT).
+     * Return Value: The DiceCatalogue id of the dice to lock; an id of five dice
+     * means standing on the roll.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the rolls left are out of range or
+     * the locked dice are not part of the roll.
+     * 2. With no rolls left, stand.
+     * 3. Otherwise, find the roll among the outcomes of the locked dice and take
+     * the best multiset to lock with one roll fewer.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int getBestKeep(TurnValues turn, int keptId, int rollId, int rollsLeft) {
+        checkRollsLeft(rollsLeft);
+        if (!DiceHistogram.fromPacked(DiceCatalogue.getKey(keptId)).isSubsetOf(
+                DiceHistogram.fromPacked(ScoreTable.getKey(rollId)))) {
+            throw new IllegalArgumentException("Locked dice are not part of the roll: "
+                    + DiceCatalogue.getDice(keptId) + " in " + DiceCatalogue.getRollDice(rollId));
+        }
+        if (rollsLeft == 0) {
+            return FIRST_ROLL_ID + rollId;
+        }
+        int rolledKey = ScoreTable.getKey(rollId) - DiceCatalogue.getKey(keptId);
+        int numRolled = DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId);
+        int rolledIndex = DiceCatalogue.getIdForKey(rolledKey) - DiceCatalogue.firstId(numRolled);
+        return getBestKeep(turn.keepValues[rollsLeft - 1], keptId, rolledIndex);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getBestKeep
+     * Purpose: Picks the dice to lock after a roll without checking the
+     * arguments, for callers that play many turns and keep the dice valid.
+     * Parameters:
+     * - keepValues (double[]): The value of locking each multiset with one roll
+     * fewer than the roll just made.
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rolledIndex (int): The index of the other dice among the multisets of
+     * 5 - DiceCatalogue.getSize(keptId) dice, as for DiceCatalogue.getFinalRollId.
+     * Return Value: The DiceCatalogue id of the dice to lock; an id of five dice
+     * means standing on the roll.
+     * Algorithm:
+     * 1. Take the best multiset to lock among the subsets of the outcome.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int getBestKeep(double[] keepValues, int keptId, int rolledIndex) {
+        return bestKeep(keepValues, OUTCOME_OFFSETS[keptId] + rolledIndex);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: getKeepIds
+     * Purpose: Lists the multisets that can be locked after a roll.
+     * Parameters:
+     * - keptId (int): The DiceCatalogue id of the dice already locked.
+     * - rollId (int): The ScoreTable roll id of all five dice.
+     * - keepIds (int[]): Receives the DiceCatalogue ids; it needs room for
+     * 2 to the power MAX_DICE ids.
+     * Return Value: The number of ids stored. Each distinct multiset is stored
+     * once, the one locking every die first.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if the locked dice are not part of
+     * the roll.
+     * 2. Find the roll among the outcomes of the locked dice and copy its
+     * multisets to lock, which were listed when the class was loaded.
+     * Reference: None.
+     *********************************************************************
+     */
+    static int getKeepIds(int keptId, int rollId, int[] keepIds) {
+        int keptKey = DiceCatalogue.getKey(keptId);
+        int rollKey = ScoreTable.getKey(rollId);
+        if (!DiceHistogram.isSubset(rollKey, keptKey)) {
+            throw new IllegalArgumentException("Locked dice are not part of the roll: "
+                    + DiceCatalogue.getDice(keptId) + " in " + DiceCatalogue.getRollDice(rollId));
+        }
+        int numRolled = DiceCatalogue.MAX_DICE - DiceCatalogue.getSize(keptId);
+        int outcome = OUTCOME_OFFSETS[keptId] + DiceCatalogue.getIdForKey(rollKey - keptKey)
+                - DiceCatalogue.firstId(numRolled);
+        int count = KEEP_OFFSETS[outcome + 1] - KEEP_OFFSETS[outcome];
+        System.arraycopy(KEEP_IDS, KEEP_OFFSETS[outcome], keepIds, 0, count);
+        return count;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: checkRollsLeft
+     * Purpose: Validates a number of rolls left.
+     * Parameters:
+     * - rollsLeft (int): The rolls left.
+     * Return Value: None.
+     * Algorithm:
+     * 1. Throw an IllegalArgumentException if it is outside 0 to MAX_ROLLS_LEFT.
+     * Reference: None.
+     *********************************************************************
+     */
+    static void checkRollsLeft(int rollsLeft) {
+        if (rollsLeft < 0 || rollsLeft > MAX_ROLLS_LEFT) {
+            throw new IllegalArgumentException("Rolls left must be between 0 and " + MAX_ROLLS_LEFT + ": " + rollsLeft);
+        }
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: bestKeep
+     * Purpose: Picks the best multiset to lock after a roll.
+     * Parameters:
+     * - keepValues (double[]): The value of locking each multiset.
+     * - outcome (int): The index of the roll among all outcomes.
+     * Return Value: The DiceCatalogue id of the best multiset; ties go to the
+     * one that locks the most dice.
+     * Algorithm:
+     * 1. Scan the multisets that can be locked and keep the first best one.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int bestKeep(double[] keepValues, int outcome) {
+        int best = KEEP_IDS[KEEP_OFFSETS[outcome]];
+        for (int i = KEEP_OFFSETS[outcome] + 1; i < KEEP_OFFSETS[outcome + 1]; i++) {
+            if (keepValues[KEEP_IDS[i]] > keepValues[best]) {
+                best = KEEP_IDS[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: countSubsets
+     * Purpose: Counts the sub-multisets of a multiset.
+     * Parameters:
+     * - key (int): The packed face counts of the multiset.
+     * Return Value: The product of (count + 1) over the faces.
+     * Algorithm:
+     * 1. Multiply the number of choices for each face.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int countSubsets(int key) {
+        int count = 1;
+        for (int face = 0; face < 6; face++) {
+            count *= ((key >>> (face * ScoreTable.BITS_PER_FACE)) & 7) + 1;
+        }
+        return count;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: addSubsets
+     * Purpose: Stores the ids of the kept dice plus every sub-multiset of the
+     * rolled dice.
+     * Parameters:
+     * - keptKey (int): The packed kept dice and the faces chosen so far.
+     * - rolledKey (int): The packed rolled dice.
+     * - face (int): The face to choose next, counting down from 5 to 0.
+     * - position (int): The next free position in KEEP_IDS.
+     * Return Value: The next free position after the stored ids.
+     * Algorithm:
+     * 1. For the face, choose from all of its rolled dice down to none.
+     * 2. Recurse into the next face, storing the id once every face is chosen.
+     * Reference: None.
+     *********************************************************************
+     */
+    private static int addSubsets(int keptKey, int rolledKey, int face, int position) {
+        if (face < 0) {
+            KEEP_IDS[position] = DiceCatalogue.getIdForKey(keptKey);
+            return position + 1;
+        }
+        int shift = face * ScoreTable.BITS_PER_FACE;
+        for (int count = (rolledKey >>> shift) & 7; count >= 0; count--) {
+            position = addSubsets(keptKey + (count << shift), rolledKey, face - 1, position);
+        }
+        return position;
+    }
+
+    /**
+     * *********************************************************************
+     * Class Name: TurnValues
+     * Purpose: Holds the value of locking each multiset with each number of rolls
+     * left in one turn, and the chance of the turn ending skipped from there.
+     * *********************************************************************
+     */
+    static final class TurnValues {
+        final double[][] keepValues = new double[MAX_ROLLS_LEFT + 1][DiceCatalogue.NUM_MULTISETS];
+        final double[][] skipChances = new double[MAX_ROLLS_LEFT + 1][DiceCatalogue.NUM_MULTISETS];
+
+        /**
+         * *********************************************************************
+         * Function Name: getValue
+         * Purpose: Returns the value of the start of the turn, before the first
+         * roll.
+         * Parameters: None.
+         * Return Value: The value of rolling all five dice with every roll left.
+         * Algorithm:
+         * 1. Read the value of locking no dice with MAX_ROLLS_LEFT rolls left.
+         * Reference: None.
+         *********************************************************************
+         */
+        double getValue() {
+            return keepValues[MAX_ROLLS_LEFT][0];
+        }
+
+        /**
+         * *********************************************************************
+         * Function Name: getSkipChance
+         * Purpose: Returns the chance that the turn ends skipped, from its start.
+         * Parameters: None.
+         * Return Value: The chance of skipping with optimal play.
+         * Algorithm:
+         * 1. Read the skip chance of locking no dice with MAX_ROLLS_LEFT rolls
+         * left.
+         * Reference: None.
+         *********************************************************************
+         */
+        double getSkipChance() {
+            return skipChances[MAX_ROLLS_LEFT][0];
+        }
+    }
+}
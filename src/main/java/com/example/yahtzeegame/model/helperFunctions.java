@@ -6,11 +6,162 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 public class helperFunctions {
 
+    // Layout of a dice profile: bits 0-5 hold the face-presence mask (bit f - 1
+    // for face f), bits 8 and up hold a 4-bit count for each face
+    private static final int PROFILE_COUNT_SHIFT = 8;
+    private static final int PROFILE_COUNT_BITS = 4;
+    private static final long PROFILE_COUNT_MASK = 15;
+
+    /**
+     * *********************************************************************
+     * Function Name: profile
+     * Purpose: Computes the face-presence mask and the count of each face of a
+     * list of dice in a single pass.
+     * Parameters: List<Integer> v - the dice values. Values outside 1-6 are
+     * ignored.
+     * Return Value: long - the dice profile, read with faceMask and faceCount.
+     * Algorithm:
+     * 1. For each die, set the bit of its face in the mask.
+     * 2. Add one to the 4-bit count field of its face.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static long profile(List<Integer> v) {
+        long profile = 0;
+        for (int i = 0; i < v.size(); i++) {
+            Integer value = v.get(i);
+            if (value == null || value < 1 || value > 6) {
+                continue;
+            }
+            profile |= 1L << (value - 1);
+            profile += 1L << (PROFILE_COUNT_SHIFT + (value - 1) * PROFILE_COUNT_BITS);
+        }
+        return profile;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: faceMask
+     * Purpose: Extracts the face-presence mask from a dice profile.
+     * Parameters: long profile - the dice profile.
+     * Return Value: int - a mask with bit f - 1 set if face f is present.
+     * Algorithm:
+     * 1. Keep the lowest six bits of the profile.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int faceMask(long profile) {
+        return (int) (profile & 0x3F);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: faceCount
+     * Purpose: Extracts the count of a face from a dice profile.
+     * Parameters: long profile - the dice profile.
+     * int face - the face (1-6).
+     * Return Value: int - the number of dice showing the face.
+     * Algorithm:
+     * 1. Shift the count field of the face down and mask it.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int faceCount(long profile, int face) {
+        return (int) ((profile >>> (PROFILE_COUNT_SHIFT + (face - 1) * PROFILE_COUNT_BITS)) & PROFILE_COUNT_MASK);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: maxFaceCount
+     * Purpose: Finds the largest face count in a dice profile.
+     * Parameters: long profile - the dice profile.
+     * Return Value: int - the count of the most frequent face, 0 if empty.
+     * Algorithm:
+     * 1. Compare the six count fields.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int maxFaceCount(long profile) {
+        int max = 0;
+        for (long counts = profile >>> PROFILE_COUNT_SHIFT; counts != 0; counts >>>= PROFILE_COUNT_BITS) {
+            max = Math.max(max, (int) (counts & PROFILE_COUNT_MASK));
+        }
+        return max;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: countMask
+     * Purpose: Builds a mask of the faces that appear exactly n times.
+     * Parameters: long profile - the dice profile.
+     * int n - the count to look for.
+     * Return Value: int - a mask with bit f - 1 set if face f appears n times.
+     * Algorithm:
+     * 1. Compare each count field with n and set the bit of matching faces.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int countMask(long profile, int n) {
+        int mask = 0;
+        long counts = profile >>> PROFILE_COUNT_SHIFT;
+        for (int face = 0; face < 6; face++, counts >>>= PROFILE_COUNT_BITS) {
+            if ((counts & PROFILE_COUNT_MASK) == n) {
+                mask |= 1 << face;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: runMask
+     * Purpose: Finds the faces that start a run of consecutive faces in a
+     * face-presence mask.
+     * Parameters: int faceMask - the face-presence mask.
+     * int length - the length of the run.
+     * Return Value: int - a mask with bit f - 1 set if faces f to f + length - 1
+     * are all present.
+     * Algorithm:
+     * 1. AND the mask with itself shifted down by 1 to length - 1 bits.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int runMask(int faceMask, int length) {
+        if (length <= 0) {
+            return 0x3F;
+        }
+        int starts = faceMask;
+        for (int i = 1; i < length; i++) {
+            starts &= faceMask >>> i;
+        }
+        return starts;
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: longestRun
+     * Purpose: Finds the length of the longest run of consecutive faces in a
+     * face-presence mask.
+     * Parameters: int faceMask - the face-presence mask.
+     * Return Value: int - the length of the longest run.
+     * Algorithm:
+     * 1. Repeatedly AND the mask with itself shifted down by one bit, counting the
+     * steps until it is empty.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static int longestRun(int faceMask) {
+        int length = 0;
+        for (int starts = faceMask; starts != 0; starts &= starts >>> 1) {
+            length++;
+        }
+        return length;
+    }
+
     /**
      * *********************************************************************
      * Function Name: allSame
@@ -41,21 +192,15 @@ public class helperFunctions {
      * Parameters: List<Integer> v - the list to check.
      * Return Value: boolean - true if the list forms a sequence, false otherwise.
      * Algorithm:
-     * 1. Sort the list in ascending order.
-     * 2. Check if each consecutive element differs by 1.
-     * 3. Return true if all elements form a sequence, otherwise false.
+     * 1. Profile the list.
+     * 2. The list is a sequence if every value is a distinct face and the faces
+     * form a single run as long as the list.
      * Reference: None.
      *********************************************************************
      */
     public static boolean allSequence(List<Integer> v) {
-        List<Integer> sortedV = new ArrayList<>(v);
-        Collections.sort(sortedV);
-        for (int i = 1; i < sortedV.size(); i++) {
-            if (sortedV.get(i) != sortedV.get(i - 1) + 1) {
-                return false;
-            }
-        }
-        return true;
+        int mask = faceMask(profile(v));
+        return Integer.bitCount(mask) == v.size() && longestRun(mask) == v.size();
     }
 
     /**
@@ -67,11 +212,9 @@ public class helperFunctions {
      * Return Value: boolean - true if a sequence of the specified length is found,
      * false otherwise.
      * Algorithm:
-     * 1. Iterate through the list and check sublists of the specified length.
-     * 2. For each sublist, check if it forms a sequence using the allSequence
-     * method.
-     * 3. Return true if a sequence of the required length is found, otherwise
-     * false.
+     * 1. Profile the list to get its face-presence mask.
+     * 2. Return true if any face starts a run of the required length, whatever
+     * the order of the dice in the list.
      * Reference: None.
      *********************************************************************
      */
@@ -79,13 +222,7 @@ public class helperFunctions {
         if (v.size() < sequenceLength) {
             return false;
         }
-        for (int i = 0; i <= v.size() - sequenceLength; i++) {
-            List<Integer> subV = v.subList(i, i + sequenceLength);
-            if (allSequence(subV)) {
-                return true;
-            }
-        }
-        return false;
+        return runMask(faceMask(profile(v)), sequenceLength) != 0;
     }
 
     /**
@@ -133,24 +270,13 @@ public class helperFunctions {
      * Return Value: boolean - true if any number appears 'n' or more times, false
      * otherwise.
      * Algorithm:
-     * 1. Create a count map to store the frequency of each number in the list.
-     * 2. Iterate through the map and check if any number has a frequency greater
-     * than or equal to 'n'.
-     * 3. Return true if such a number is found, otherwise false.
+     * 1. Profile the list.
+     * 2. Return true if the largest face count is at least n.
      * Reference: None.
      *********************************************************************
      */
     public static boolean atleastNSame(List<Integer> v, int n) {
-        Map<Integer, Integer> counts = new HashMap<>();
-        for (int i : v) {
-            counts.put(i, counts.getOrDefault(i, 0) + 1);
-        }
-        for (int count : counts.values()) {
-            if (count >= n) {
-                return true;
-            }
-        }
-        return false;
+        return maxFaceCount(profile(v)) >= n;
     }
 
     /**
@@ -213,23 +339,23 @@ public class helperFunctions {
      * Return Value: List<Integer> - the first sequence of the specified length
      * found in the list.
      * Algorithm:
-     * 1. Sort the list in ascending order.
-     * 2. Check each sublist of the specified length to see if it forms a sequence
-     * using the allSequence method.
-     * 3. Return the first sequence found, or an empty list if no sequence is found.
+     * 1. Profile the list and find the faces that start a run of the given
+     * length.
+     * 2. Return the run that starts at the lowest face, or an empty list.
      * Reference: None.
      *********************************************************************
      */
     public static List<Integer> getSequence(List<Integer> v, int sequenceLength) {
-        List<Integer> sortedV = new ArrayList<>(v);
-        Collections.sort(sortedV);
-        for (int i = 0; i <= sortedV.size() - sequenceLength; i++) {
-            List<Integer> subV = sortedV.subList(i, i + sequenceLength);
-            if (allSequence(subV)) {
-                return subV;
-            }
+        int starts = runMask(faceMask(profile(v)), sequenceLength);
+        List<Integer> sequence = new ArrayList<>();
+        if (starts == 0) {
+            return sequence;
+        }
+        int first = Integer.numberOfTrailingZeros(starts) + 1;
+        for (int face = first; face < first + sequenceLength; face++) {
+            sequence.add(face);
         }
-        return new ArrayList<>();
+        return sequence;
     }
 
     /**
@@ -290,13 +416,12 @@ public class helperFunctions {
      * Parameters: List<Integer> v - the list to process.
      * Return Value: int - the count of unique elements in the list.
      * Algorithm:
-     * 1. Call the getUnique method to get the unique elements.
-     * 2. Return the size of the resulting list.
+     * 1. Count the bits of the face-presence mask of the list.
      * Reference: None.
      *********************************************************************
      */
     public static int countUnique(List<Integer> v) {
-        return getUnique(v).size();
+        return Integer.bitCount(faceMask(profile(v)));
     }
 
     /**
@@ -306,17 +431,13 @@ public class helperFunctions {
      * Parameters: List<Integer> v - the list to check.
      * Return Value: int - the highest frequency of any number in the list.
      * Algorithm:
-     * 1. Create a count map to store the frequency of each number in the list.
-     * 2. Return the maximum value from the map.
+     * 1. Profile the list.
+     * 2. Return the largest face count.
      * Reference: None.
      *********************************************************************
      */
     public static int maxCount(List<Integer> v) {
-        Map<Integer, Integer> counts = new HashMap<>();
-        for (int i : v) {
-            counts.put(i, counts.getOrDefault(i, 0) + 1);
-        }
-        return counts.values().stream().max(Integer::compare).orElse(0);
+        return maxFaceCount(profile(v));
     }
 
     /**
@@ -326,18 +447,19 @@ public class helperFunctions {
      * Parameters: List<Integer> v - the list to check.
      * Return Value: int - the total number of repeated elements in the list.
      * Algorithm:
-     * 1. Create a count map to store the frequency of each number in the list.
-     * 2. Sum the counts of elements that occur more than once.
-     * 3. Return the total sum of repeated elements.
+     * 1. Profile the list.
+     * 2. Every die beyond the first of its face is a repeat, so subtract the
+     * number of distinct faces from the number of dice.
      * Reference: None.
      *********************************************************************
      */
     public static int numRepeats(List<Integer> v) {
-        Map<Integer, Integer> counts = new HashMap<>();
-        for (int i : v) {
-            counts.put(i, counts.getOrDefault(i, 0) + 1);
+        long profile = profile(v);
+        int dice = 0;
+        for (int face = 1; face <= 6; face++) {
+            dice += faceCount(profile, face);
         }
-        return counts.values().stream().mapToInt(count -> count > 1 ? count - 1 : 0).sum();
+        return dice - Integer.bitCount(faceMask(profile));
     }
 
     /**
@@ -349,33 +471,13 @@ public class helperFunctions {
      * Return Value: int - the length of the longest sequence of consecutive
      * numbers.
      * Algorithm:
-     * 1. Sort the list and remove duplicates.
-     * 2. Iterate through the sorted list and find the longest sequence of
-     * consecutive numbers.
-     * 3. Return the length of the longest sequence found.
+     * 1. Profile the list to get its face-presence mask.
+     * 2. Return the length of the longest run of set bits.
      * Reference: None.
      *********************************************************************
      */
     public static int longestSequenceLength(List<Integer> v) {
-        if (v.isEmpty()) {
-            return 0;
-        }
-
-        int longest = 0;
-        int current = 1;
-        List<Integer> sortedV = getUnique(v);
-        Collections.sort(sortedV);
-
-        for (int i = 1; i < sortedV.size(); i++) {
-            if (sortedV.get(i) == sortedV.get(i - 1) + 1) {
-                current++;
-            } else {
-                longest = Math.max(longest, current);
-                current = 1;
-            }
-        }
-
-        return Math.max(longest, current);
+        return longestRun(faceMask(profile(v)));
     }
 
     /**
@@ -387,28 +489,15 @@ public class helperFunctions {
      * Return Value: boolean - true if the list represents a full house, false
      * otherwise.
      * Algorithm:
-     * 1. Create a count map to store the frequency of each number in the list.
-     * 2. Check if there is a number with a count of 3 and another with a count of
-     * 2.
-     * 3. Return true if both conditions are met, otherwise false.
+     * 1. Profile the list.
+     * 2. Return true if one face appears exactly three times and another exactly
+     * twice.
      * Reference: None.
      *********************************************************************
      */
     public static boolean fullHouse(List<Integer> v) {
-        Map<Integer, Integer> counts = new HashMap<>();
-        for (int i : v) {
-            counts.put(i, counts.getOrDefault(i, 0) + 1);
-        }
-        boolean hasTwo = false;
-        boolean hasThree = false;
-        for (int count : counts.values()) {
-            if (count == 2) {
-                hasTwo = true;
-            } else if (count == 3) {
-                hasThree = true;
-            }
-        }
-        return hasTwo && hasThree;
+        long profile = profile(v);
+        return countMask(profile, 3) != 0 && countMask(profile, 2) != 0;
     }
 
     /**
@@ -476,35 +565,17 @@ public class helperFunctions {
      * Return Value: List<List<Integer>> - a list of all possible dice roll
      * combinations.
      * Algorithm:
-     * 1. Initialize a list to store combinations.
-     * 2. For each dice, add all possible dice values (1-6) to the current
-     * combination.
-     * 3. Repeat the process for the specified number of dice.
+     * 1. Stream the ordered outcomes of the dice from DicePermutations; a single
+     * die is used when fewer are asked for.
+     * 2. Convert each outcome to a list and collect them.
      * Reference: None.
      *********************************************************************
      */
     public static List<List<Integer>> getDicePermutation(int numDice) {
-        List<List<Integer>> combinations = new ArrayList<>();
-        List<Integer> combination = new ArrayList<>();
-        for (int i = 1; i <= 6; i++) {
-            combination.add(i);
-            combinations.add(new ArrayList<>(combination));
-            combination.remove(combination.size() - 1);
-        }
-
-        for (int i = 1; i < numDice; i++) {
-            List<List<Integer>> newCombinations = new ArrayList<>();
-            for (List<Integer> c : combinations) {
-                for (int j = 1; j <= 6; j++) {
-                    List<Integer> newCombination = new ArrayList<>(c);
-                    newCombination.add(j);
-                    newCombinations.add(newCombination);
-                }
-            }
-            combinations = newCombinations;
-        }
-
-        return combinations;
+        int dice = Math.max(numDice, 1);
+        return DicePermutations.outcomes(dice)
+                .mapToObj(outcome -> DicePermutations.toList(outcome, dice))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -545,13 +616,18 @@ public class helperFunctions {
      * Parameters:
      * int n - the number of dice.
      * Return Value: List<List<Integer>> - a list of all possible dice combinations.
+     * For 0 to 5 dice the list is shared and read-only.
      * Algorithm:
-     * 1. Initialize an empty list for the result.
-     * 2. Call the recursive generateCombinations function to fill the result.
+     * 1. For 0 to 5 dice, return the combinations from the DiceCatalogue.
+     * 2. Otherwise, initialize an empty list for the result.
+     * 3. Call the recursive generateCombinations function to fill the result.
      * Reference: None.
      *********************************************************************
      */
     public static List<List<Integer>> diceCombinations(int n) {
+        if (n >= 0 && n <= DiceCatalogue.MAX_DICE) {
+            return DiceCatalogue.combinations(n);
+        }
         List<List<Integer>> result = new ArrayList<>();
         List<Integer> current = new ArrayList<>();
         generateCombinations(n, 1, current, result);
@@ -565,12 +641,28 @@ public class helperFunctions {
      * Parameters: None
      * Return Value: boolean - a randomly generated boolean value (true or false).
      * Algorithm:
-     * 1. Use the Random class to generate a random boolean value.
+     * 1. Draw from the default random source, which does not contend between
+     * threads.
      * Reference: None.
      *********************************************************************
      */
     public static boolean randomBool() {
-        Random random = new Random();
+        return randomBool(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    /**
+     * *********************************************************************
+     * Function Name: randomBool
+     * Purpose: Generates a random boolean value from a given source.
+     * Parameters:
+     * RandomSource random - the source of the value.
+     * Return Value: boolean - a randomly generated boolean value (true or false).
+     * Algorithm:
+     * 1. Draw a fair boolean from the source.
+     * Reference: None.
+     *********************************************************************
+     */
+    public static boolean randomBool(RandomSource random) {
         return random.nextBoolean();
     }
 
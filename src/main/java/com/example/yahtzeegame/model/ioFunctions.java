@@ -55,17 +55,28 @@ public class ioFunctions {
 
     // Automatically generates a random die roll value using the Dice class.
     public static int getAutoDieRoll() {
-        return Dice.rollDie();
+        return getAutoDieRoll(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    // Automatically generates a random die roll value from the given random source.
+    public static int getAutoDieRoll(RandomSource random) {
+        return Dice.rollDie(random);
     }
 
     // Determines whether to manually roll a set of dice or automatically roll them
     // based on user input.
     public static int getDieRoll() {
+        return getDieRoll(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    // Determines whether to manually roll the die or automatically roll it with the
+    // given random source.
+    public static int getDieRoll(RandomSource random) {
         boolean manualRoll = getYesNo("Would you like to manually roll the die?");
         if (manualRoll) {
             return getManualDieRoll();
         } else {
-            return getAutoDieRoll();
+            return getAutoDieRoll(random);
         }
     }
 
@@ -100,9 +111,14 @@ public class ioFunctions {
 
     // Automatically generates a set of random dice rolls.
     public static List<Integer> getAutoDiceRoll(int numDice) {
+        return getAutoDiceRoll(numDice, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    // Automatically generates a set of dice rolls from the given random source.
+    public static List<Integer> getAutoDiceRoll(int numDice, RandomSource random) {
         List<Integer> rolls = new ArrayList<>();
         for (int i = 0; i < numDice; i++) {
-            rolls.add(getAutoDieRoll());
+            rolls.add(getAutoDieRoll(random));
         }
         return rolls;
     }
@@ -110,11 +126,17 @@ public class ioFunctions {
     // Determines whether to manually roll a set of dice or automatically roll them
     // based on user input.
     public static List<Integer> getDiceRoll(int numDice) {
+        return getDiceRoll(numDice, ThreadLocalRandomSource.INSTANCE);
+    }
+
+    // Determines whether to manually roll a set of dice or automatically roll them
+    // with the given random source.
+    public static List<Integer> getDiceRoll(int numDice, RandomSource random) {
         boolean manualRoll = getYesNo("Would you like to manually roll the dice?");
         if (manualRoll) {
             return getManualDiceRoll(numDice);
         } else {
-            return getAutoDiceRoll(numDice);
+            return getAutoDiceRoll(numDice, random);
         }
     }
 
@@ -131,14 +153,19 @@ public class ioFunctions {
     }
 
     public static boolean humanWonTieBreaker() {
+        return humanWonTieBreaker(ThreadLocalRandomSource.INSTANCE);
+    }
+
+    // Conducts the tie-breaker with automatic rolls drawn from the given random source.
+    public static boolean humanWonTieBreaker(RandomSource random) {
 
-        int humanRoll = getDieRoll();
+        int humanRoll = getDieRoll(random);
         int computerRoll;
         System.out.println("\n");
         if (humanWantsToRollForComputer()) {
             computerRoll = getManualDieRoll();
         } else {
-            computerRoll = getAutoDieRoll();
+            computerRoll = getAutoDieRoll(random);
         }
 
         System.out.println("You rolled a " + humanRoll);
@@ -153,7 +180,7 @@ public class ioFunctions {
         }
 
         System.out.println("It's a tie! Rolling again.\n");
-        return humanWonTieBreaker();
+        return humanWonTieBreaker(random);
     }
 
     // Prompts the user to select specific dice to keep and validates that they were
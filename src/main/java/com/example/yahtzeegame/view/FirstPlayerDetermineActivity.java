@@ -72,7 +72,7 @@ public class FirstPlayerDetermineActivity extends AppCompatActivity {
         humanRollButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                humanDieValue = Dice.rollDie();
+                humanDieValue = Dice.rollDie(SingletonGame.getGame().getTossSource());
                 updateDieImage(humanDieImage, humanDieValue);
                 rotateDieImage(humanDieImage);
                 disableButtons(humanRollButton, humanSetButton);
@@ -91,7 +91,7 @@ public class FirstPlayerDetermineActivity extends AppCompatActivity {
         computerRollButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                computerDieValue = Dice.rollDie();
+                computerDieValue = Dice.rollDie(SingletonGame.getGame().getTossSource());
                 updateDieImage(computerDieImage, computerDieValue);
                 rotateDieImage(computerDieImage);
                 disableButtons(computerRollButton, computerSetButton);
@@ -16,6 +16,7 @@ import androidx.core.view.WindowInsetsCompat;
 import com.example.yahtzeegame.R;
 import com.example.yahtzeegame.model.Game;
 import com.example.yahtzeegame.model.SingletonGame;
+import com.example.yahtzeegame.model.SplittableRandomSource;
 import com.example.yahtzeegame.model.Log;
 
 import java.io.BufferedReader;
@@ -160,7 +161,7 @@ public class MainActivity extends AppCompatActivity {
         }
 
         String serialString = stringBuilder.toString();
-        Game game = Game.deserialize(serialString);
+        Game game = Game.deserialize(serialString, new SplittableRandomSource().getSeed());
         Log.getInstance().log("Game loaded from file: " + uri.getPath() + "\n");
         SingletonGame.setGame(game);
 
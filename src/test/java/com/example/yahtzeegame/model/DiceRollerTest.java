@@ -0,0 +1,139 @@
+package com.example.yahtzeegame.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Checks that DiceRoller rolls every outcome with its true chance, with
+ * Pearson's chi-square test on rolls from a fixed seed.
+ */
+public class DiceRollerTest {
+    private static final int SAMPLES = 600000;
+    private static final long SEED = 366L;
+
+    // Normal quantile of the 0.0001 upper tail; a correct roller fails one seed in 10,000
+    private static final double Z_CRITICAL = 3.719;
+
+    @Test
+    public void rollIdsFollowMultisetProbabilities() {
+        DiceRoller roller = new DiceRoller(new SplittableRandomSource(SEED));
+        int[] rollIds = new int[SAMPLES];
+        roller.fillRollIds(rollIds, 0, SAMPLES);
+
+        long[] observed = new long[ScoreTable.NUM_ROLLS];
+        for (int rollId : rollIds) {
+            observed[rollId]++;
+        }
+        double[] probabilities = new double[ScoreTable.NUM_ROLLS];
+        for (int rollId = 0; rollId < probabilities.length; rollId++) {
+            probabilities[rollId] = DiceCatalogue.getProbability(DiceCatalogue.firstId(DiceCatalogue.MAX_DICE) + rollId);
+        }
+        assertFits(observed, probabilities);
+    }
+
+    @Test
+    public void multisetIndicesFollowMultisetProbabilities() {
+        DiceRoller roller = new DiceRoller(new SplittableRandomSource(SEED));
+        for (int numDice = 1; numDice <= DiceCatalogue.MAX_DICE; numDice++) {
+            int count = DiceCatalogue.count(numDice);
+            long[] observed = new long[count];
+            for (int i = 0; i < SAMPLES; i++) {
+                observed[roller.nextMultisetIndex(numDice)]++;
+            }
+            double[] probabilities = new double[count];
+            for (int index = 0; index < count; index++) {
+                probabilities[index] = DiceCatalogue.getProbability(DiceCatalogue.firstId(numDice) + index);
+            }
+            assertFits(observed, probabilities);
+        }
+    }
+
+    @Test
+    public void everyDieOfABatchIsFair() {
+        DiceRoller roller = new DiceRoller(new SplittableRandomSource(SEED));
+        int numDice = DiceCatalogue.MAX_DICE;
+        int rolls = SAMPLES / numDice;
+        int[] faces = new int[rolls * numDice];
+        roller.fillFaces(faces, 0, numDice, rolls);
+
+        long[][] observed = new long[numDice][6];
+        for (int i = 0; i < faces.length; i++) {
+            observed[i % numDice][faces[i] - 1]++;
+        }
+        for (long[] die : observed) {
+            assertFits(die, new double[] { 1 / 6.0, 1 / 6.0, 1 / 6.0, 1 / 6.0, 1 / 6.0, 1 / 6.0 });
+        }
+    }
+
+    @Test
+    public void freshRollsCoverEveryOutcomeEvenly() {
+        RandomSource random = new SplittableRandomSource(SEED);
+        int outcomes = DiceRoller.getOutcomeCount(DiceCatalogue.MAX_DICE);
+        long[] observed = new long[outcomes];
+        int[] faces = new int[DiceCatalogue.MAX_DICE];
+        for (int i = 0; i < SAMPLES; i++) {
+            DiceRoller.rollFaces(random, faces, 0, faces.length);
+            int outcome = 0;
+            for (int die = faces.length - 1; die >= 0; die--) {
+                outcome = outcome * 6 + faces[die] - 1;
+            }
+            observed[outcome]++;
+        }
+        double[] probabilities = new double[outcomes];
+        Arrays.fill(probabilities, 1.0 / outcomes);
+        assertFits(observed, probabilities);
+    }
+
+    @Test
+    public void sameSeedRollsTheSameDice() {
+        int[] first = new int[1000];
+        int[] second = new int[1000];
+        new DiceRoller(new SplittableRandomSource(SEED)).fillRollIds(first, 0, first.length);
+        new DiceRoller(new SplittableRandomSource(SEED)).fillRollIds(second, 0, second.length);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i], second[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyDice() {
+        new DiceRoller(new SplittableRandomSource(SEED)).nextOutcome(DiceCatalogue.MAX_DICE + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyDiceInFreshRoll() {
+        DiceRoller.rollMultisetIndex(new SplittableRandomSource(SEED), DiceCatalogue.MAX_DICE + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRangeOutsideBuffer() {
+        new DiceRoller(new SplittableRandomSource(SEED)).fillRollIds(new int[10], 5, 6);
+    }
+
+    /**
+     * Asserts that observed counts fit the expected probabilities, comparing
+     * Pearson's statistic with the upper critical value of its degrees of
+     * freedom from the Wilson-Hilferty approximation.
+     */
+    private static void assertFits(long[] observed, double[] probabilities) {
+        long total = 0;
+        for (long count : observed) {
+            total += count;
+        }
+        double statistic = 0;
+        for (int i = 0; i < observed.length; i++) {
+            double expected = total * probabilities[i];
+            double difference = observed[i] - expected;
+            statistic += difference * difference / expected;
+        }
+        int freedom = observed.length - 1;
+        double spread = 2.0 / (9 * freedom);
+        double critical = freedom * Math.pow(1 - spread + Z_CRITICAL * Math.sqrt(spread), 3);
+        assertTrue("Chi-square " + statistic + " exceeds " + critical + " with " + freedom + " degrees of freedom",
+                statistic < critical);
+    }
+}
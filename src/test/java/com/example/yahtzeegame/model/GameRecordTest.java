@@ -0,0 +1,100 @@
+package com.example.yahtzeegame.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Checks that a GameRecord written as text and read back rebuilds the game
+ * after every decision: tie-breakers, dice set from the screen or help, dice
+ * kept for a re-roll and turns ended.
+ */
+public class GameRecordTest {
+    private static final long SEED = 25L;
+
+    @Test
+    public void replayRebuildsTheGameAfterEveryDecision() {
+        Human human = new Human();
+        Computer computer = new Computer();
+        Game game = new Game(new ScoreCard(), 1, Arrays.asList(human, computer), SEED);
+        List<String> states = new ArrayList<>();
+        snapshot(game, states);
+
+        // Round 1 starts tied, so the order is set by a tie-breaker
+        game.setPlayerOrder(human, computer);
+        snapshot(game, states);
+
+        // The human marks two dice on the screen, re-rolls the rest and asks for help
+        List<Die> dice = new ArrayList<>(game.getDice());
+        dice.set(0, dice.get(0).markForLock());
+        dice.set(1, dice.get(1).markForLock());
+        game.setDice(dice);
+        snapshot(game, states);
+        game.reRollDice();
+        snapshot(game, states);
+        game.markDiceForHelp();
+        snapshot(game, states);
+        game.selectCategory(Category.ONES);
+        snapshot(game, states);
+
+        // The computer plays its turn, then the game goes on with tosses as needed
+        while (game.getCurrentPlayer().filter(computer::equals).isPresent()) {
+            game.reRollDice();
+            snapshot(game, states);
+        }
+        for (int i = 0; i < 6 && !game.isOver(); i++) {
+            game.tossForOrder();
+            snapshot(game, states);
+            if (game.getCurrentPlayer().filter(human::equals).isPresent()) {
+                game.skipSelection();
+            } else {
+                game.reRollDice();
+            }
+            snapshot(game, states);
+        }
+
+        GameRecord record = GameRecord.deserialize(game.getRecord().get().serialize());
+        assertEquals(states.size() - 1, record.getDecisionCount());
+        Set<Integer> kinds = new HashSet<>();
+        for (String decision : record.serialize().split("\n")[1].substring("Decisions:".length()).trim().split(" ")) {
+            kinds.add(GameRecord.kindOf(Integer.parseUnsignedInt(decision, 16)));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(GameRecord.KEEP, GameRecord.DICE, GameRecord.TURN, GameRecord.ORDER)),
+                kinds);
+        for (int count = 0; count < states.size(); count++) {
+            assertEquals("after " + count + " decisions", states.get(count), stateOf(record.replayDecisions(count)));
+        }
+        assertTrue(record.getTurnCount() > 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOrderWithPlayerNotInGame() {
+        Human human = new Human();
+        Computer computer = new Computer();
+        Game game = new Game(new ScoreCard(), 1, Arrays.asList(human, computer), SEED);
+        game.setPlayerOrder(new Computer("Stranger", HeuristicStrategy.INSTANCE), human);
+    }
+
+    // Keeps the state after each decision; a step that records none must not change the game
+    private static void snapshot(Game game, List<String> states) {
+        int count = game.getRecord().get().getDecisionCount();
+        if (count < states.size()) {
+            assertEquals(states.get(count), stateOf(game));
+        } else {
+            assertEquals(count, states.size());
+            states.add(stateOf(game));
+        }
+    }
+
+    // The scorecard, round, dice and player to move, which a replay must rebuild
+    private static String stateOf(Game game) {
+        return game.serialize() + game.getDice() + game.getCurrentPlayer().map(Player::getName).orElse("none");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.yahtzeegame.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Checks that a metered strategy keeps counting the calls made for the
+ * computer it is bound to.
+ */
+public class MeteredStrategyTest {
+    private static final long SEED = 14L;
+
+    @Test
+    public void boundDuelStrategySharesTheMeters() {
+        MeteredStrategy metered = StrategyRegistry.getInstance().create(StrategyRegistry.DUEL);
+        Computer computer = new Computer(metered);
+        Computer other = new Computer("Other", HeuristicStrategy.INSTANCE);
+        Game game = new Game(new ScoreCard(), 1, Arrays.asList(computer, other), SEED)
+                .setPlayerOrder(computer, other);
+
+        while (game.getCurrentPlayer().filter(computer::equals).isPresent()) {
+            game.reRollDice();
+        }
+
+        assertTrue(metered.getHelpMeter().getCalls() > 0);
+        assertEquals(1, metered.getSelectionMeter().getCalls());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.yahtzeegame.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks that a roll scores the same whatever order its dice are listed in,
+ * both through the score table and through the list evaluation behind it.
+ */
+public class ScoreTableTest {
+
+    @Test
+    public void unsortedFourStraightScores() {
+        List<Integer> dice = Arrays.asList(1, 2, 3, 4, 2);
+        assertEquals(30, Category.getScore(dice, Category.FOUR_STRAIGHT));
+        assertEquals(30, Category.evaluateScore(dice, Category.FOUR_STRAIGHT));
+        assertEquals(0, Category.getScore(dice, Category.FIVE_STRAIGHT));
+    }
+
+    @Test
+    public void everyOrderOfEveryRollScoresTheSame() {
+        for (int rollId = 0; rollId < ScoreTable.NUM_ROLLS; rollId++) {
+            List<Integer> sorted = DiceCatalogue.getRollDice(rollId);
+            for (List<Integer> dice : permutations(sorted)) {
+                for (Category category : Category.values()) {
+                    String message = dice + " " + category;
+                    assertEquals(message, ScoreTable.getScore(rollId, category), Category.getScore(dice, category));
+                    assertEquals(message, ScoreTable.getScore(rollId, category), Category.evaluateScore(dice, category));
+                    assertEquals(message, ScoreTable.isApplicable(rollId, category),
+                            Category.evaluateApplicable(dice, category));
+                }
+            }
+        }
+    }
+
+    private static List<List<Integer>> permutations(List<Integer> dice) {
+        List<List<Integer>> result = new ArrayList<>();
+        if (dice.isEmpty()) {
+            result.add(new ArrayList<>());
+            return result;
+        }
+        for (int i = 0; i < dice.size(); i++) {
+            List<Integer> rest = new ArrayList<>(dice);
+            Integer first = rest.remove(i);
+            for (List<Integer> tail : permutations(rest)) {
+                tail.add(0, first);
+                result.add(tail);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.yahtzeegame.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks that SimulationEngine plays the same games as Game: each seed is
+ * played by the engine and by a Game, and the Game is replayed from its saved
+ * GameRecord.
+ */
+public class SimulationEngineTest {
+    private static final int GAMES = 20;
+
+    @Test
+    public void seedsPlayTheSameGamesAsGame() {
+        // Seat 0 plays from the expectimax table, seat 1 through Computer.decide
+        SimulationEngine engine = new SimulationEngine(new ExpectimaxStrategy(), HeuristicStrategy.INSTANCE);
+        for (long seed = 0; seed < GAMES; seed++) {
+            GameResult result = engine.play(seed);
+
+            List<Player> players = Arrays.asList(new Computer("Computer 1", new ExpectimaxStrategy()),
+                    new Computer("Computer 2", HeuristicStrategy.INSTANCE));
+            Game game = new Game(new ScoreCard(), 1, players, seed);
+            while (!game.isOver()) {
+                game.tossForOrder();
+                game.reRollDice();
+            }
+            Game replayed = GameRecord.deserialize(game.getRecord().get().serialize()).replay();
+
+            // Replayed players are named afresh, so they are compared by seat
+            List<Player> seats = replayed.getPlayers();
+            assertEquals("seed " + seed, result.getScore(0), replayed.getScoreCard().getPlayerScore(seats.get(0)));
+            assertEquals("seed " + seed, result.getScore(1), replayed.getScoreCard().getPlayerScore(seats.get(1)));
+            assertEquals("seed " + seed, result.getRounds(), replayed.getCurrentRound());
+        }
+    }
+}